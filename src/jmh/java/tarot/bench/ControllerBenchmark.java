@@ -0,0 +1,152 @@
+package tarot.bench;
+
+import tarot.controller.TarotGameController;
+import tarot.model.ReadingId;
+import tarot.service.TarotGameService;
+
+import jakarta.servlet.ServletContext;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 控制器端到端基准测试
+ * 不启动容器，直接通过 HttpServlet.service 调用 TarotGameController，覆盖路由、业务逻辑和JSON序列化。
+ * 请求和响应由动态代理实现，代理调用本身的少量分配也会计入 -prof gc 的结果
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(2)
+public class ControllerBenchmark {
+
+    /**
+     * 所有线程共享同一个已初始化的控制器，与容器中的单实例Servlet一致
+     */
+    @State(Scope.Benchmark)
+    public static class Application {
+
+        TarotGameController controller;
+
+        @Setup
+        public void setUp() throws ServletException {
+            Map<String, Object> attributes = new HashMap<>();
+            attributes.put("tarotGameService", new TarotGameService());
+            ServletContext context = MockServlets.context(attributes, Map.of());
+            controller = new TarotGameController();
+            controller.init(MockServlets.config("TarotGameController", context));
+        }
+
+        @TearDown
+        public void tearDown() {
+            controller.destroy();
+        }
+    }
+
+    /**
+     * 每个线程自己的请求和响应对象
+     */
+    @State(Scope.Thread)
+    public static class Exchange {
+
+        HttpServletRequest allCards;
+        HttpServletRequest allCardsGzip;
+        HttpServletRequest cardById;
+        HttpServletRequest reading;
+        HttpServletRequest readingCelticCross;
+        HttpServletRequest readingPermalink;
+        final MockServlets.CapturingResponse response = new MockServlets.CapturingResponse();
+
+        @Setup
+        public void setUp(Application application) throws ServletException, IOException {
+            allCards = MockServlets.request("GET", "/cards", Map.of(), Map.of());
+            allCardsGzip = MockServlets.request("GET", "/cards", Map.of(), Map.of("Accept-Encoding", "gzip, deflate, br"));
+            cardById = MockServlets.request("GET", "/card/cups_queen", Map.of(), Map.of());
+            reading = MockServlets.request("POST", "/reading", Map.of(), Map.of());
+            readingCelticCross = MockServlets.request("POST", "/reading", Map.of("spread", "celtic-cross"), Map.of());
+            // 固定的永久链接编号：三张牌阵，种子42
+            readingPermalink = MockServlets.request("GET",
+                    "/reading/" + new ReadingId(0, 42).encode(), Map.of(), Map.of());
+
+            // 预先跑一遍，确认每个请求都能成功
+            for (HttpServletRequest request : new HttpServletRequest[] {
+                    allCards, allCardsGzip, cardById, reading, readingCelticCross, readingPermalink }) {
+                application.controller.service(request, response.reset().get());
+                if (response.status() != 200) {
+                    throw new IllegalStateException(request.getMethod() + " " + request.getPathInfo()
+                            + " 返回 " + response.status());
+                }
+            }
+        }
+    }
+
+    private static long call(Application application, HttpServletRequest request, Exchange exchange)
+            throws ServletException, IOException {
+        application.controller.service(request, exchange.response.reset().get());
+        return exchange.response.bytesWritten();
+    }
+
+    @Benchmark
+    public long getAllCards(Application application, Exchange exchange) throws ServletException, IOException {
+        return call(application, exchange.allCards, exchange);
+    }
+
+    @Benchmark
+    public long getAllCardsGzip(Application application, Exchange exchange) throws ServletException, IOException {
+        return call(application, exchange.allCardsGzip, exchange);
+    }
+
+    @Benchmark
+    public long getCardById(Application application, Exchange exchange) throws ServletException, IOException {
+        return call(application, exchange.cardById, exchange);
+    }
+
+    @Benchmark
+    public long postReading(Application application, Exchange exchange) throws ServletException, IOException {
+        return call(application, exchange.reading, exchange);
+    }
+
+    @Benchmark
+    public long postReadingCelticCross(Application application, Exchange exchange)
+            throws ServletException, IOException {
+        return call(application, exchange.readingCelticCross, exchange);
+    }
+
+    @Benchmark
+    public long getReadingPermalink(Application application, Exchange exchange)
+            throws ServletException, IOException {
+        return call(application, exchange.readingPermalink, exchange);
+    }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    public long postReadingContended(Application application, Exchange exchange)
+            throws ServletException, IOException {
+        return call(application, exchange.reading, exchange);
+    }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    public long getAllCardsContended(Application application, Exchange exchange)
+            throws ServletException, IOException {
+        return call(application, exchange.allCardsGzip, exchange);
+    }
+}
@@ -0,0 +1,186 @@
+package tarot.bench;
+
+import jakarta.servlet.ServletConfig;
+import jakarta.servlet.ServletContext;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 基准测试用的最小Servlet对象
+ * 用动态代理实现控制器实际用到的方法，其余方法返回默认值，不依赖任何容器
+ */
+final class MockServlets {
+
+    private MockServlets() {
+    }
+
+    /**
+     * 创建只保存属性和初始化参数的ServletContext
+     */
+    static ServletContext context(Map<String, Object> attributes, Map<String, String> initParameters) {
+        return proxy(ServletContext.class, (target, method, args) -> switch (method.getName()) {
+            case "getAttribute" -> attributes.get((String) args[0]);
+            case "setAttribute" -> attributes.put((String) args[0], args[1]);
+            case "removeAttribute" -> attributes.remove((String) args[0]);
+            case "getInitParameter" -> initParameters.get((String) args[0]);
+            case "getInitParameterNames" -> Collections.enumeration(initParameters.keySet());
+            case "getContextPath" -> "/tarot";
+            default -> defaultValue(method);
+        });
+    }
+
+    static ServletConfig config(String servletName, ServletContext context) {
+        return proxy(ServletConfig.class, (target, method, args) -> switch (method.getName()) {
+            case "getServletName" -> servletName;
+            case "getServletContext" -> context;
+            case "getInitParameterNames" -> Collections.emptyEnumeration();
+            default -> defaultValue(method);
+        });
+    }
+
+    /**
+     * 创建不可变的请求，同一个对象可以在多次调用之间重复使用
+     */
+    static HttpServletRequest request(String method, String pathInfo,
+                                      Map<String, String> parameters, Map<String, String> headers) {
+        return proxy(HttpServletRequest.class, (target, invoked, args) -> switch (invoked.getName()) {
+            case "getMethod" -> method;
+            case "getPathInfo" -> pathInfo;
+            case "getServletPath" -> "/api";
+            case "getContextPath" -> "/tarot";
+            case "getRequestURI" -> "/tarot/api" + pathInfo;
+            case "getProtocol" -> "HTTP/1.1";
+            case "getParameter" -> parameters.get((String) args[0]);
+            case "getHeader" -> headers.get((String) args[0]);
+            case "getDateHeader" -> -1L;
+            case "getHeaderNames" -> Collections.enumeration(headers.keySet());
+            case "isAsyncSupported" -> false;
+            default -> defaultValue(invoked);
+        });
+    }
+
+    /**
+     * 记录状态码、响应头和写出字节数的响应，每次调用前需要reset
+     */
+    static final class CapturingResponse {
+
+        private final Map<String, String> headers = new HashMap<>();
+        private final CountingOutputStream out = new CountingOutputStream();
+        private final HttpServletResponse response;
+        private int status = 200;
+        private String contentType;
+
+        CapturingResponse() {
+            this.response = proxy(HttpServletResponse.class, (target, method, args) -> switch (method.getName()) {
+                case "setStatus" -> {
+                    status = (Integer) args[0];
+                    yield null;
+                }
+                case "getStatus" -> status;
+                case "setHeader", "addHeader" -> {
+                    headers.put((String) args[0], (String) args[1]);
+                    yield null;
+                }
+                case "setContentLength", "setContentLengthLong" -> {
+                    headers.put("Content-Length", String.valueOf(args[0]));
+                    yield null;
+                }
+                case "getHeader" -> headers.get((String) args[0]);
+                case "containsHeader" -> headers.containsKey((String) args[0]);
+                case "setContentType" -> {
+                    contentType = (String) args[0];
+                    yield null;
+                }
+                case "getContentType" -> contentType;
+                case "getCharacterEncoding" -> "UTF-8";
+                case "getOutputStream" -> out;
+                case "isCommitted" -> out.count > 0;
+                default -> defaultValue(method);
+            });
+        }
+
+        HttpServletResponse get() {
+            return response;
+        }
+
+        CapturingResponse reset() {
+            headers.clear();
+            out.count = 0;
+            status = 200;
+            contentType = null;
+            return this;
+        }
+
+        int status() {
+            return status;
+        }
+
+        long bytesWritten() {
+            return out.count;
+        }
+    }
+
+    /**
+     * 只统计字节数、丢弃内容的输出流
+     */
+    private static final class CountingOutputStream extends ServletOutputStream {
+
+        private long count;
+
+        @Override
+        public void write(int b) {
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            count += len;
+        }
+
+        @Override
+        public boolean isReady() {
+            return true;
+        }
+
+        @Override
+        public void setWriteListener(WriteListener listener) {
+        }
+    }
+
+    private static <T> T proxy(Class<T> type, InvocationHandler handler) {
+        return type.cast(Proxy.newProxyInstance(MockServlets.class.getClassLoader(), new Class<?>[] { type },
+                (target, method, args) -> {
+                    if (method.getDeclaringClass() == Object.class) {
+                        return switch (method.getName()) {
+                            case "hashCode" -> System.identityHashCode(target);
+                            case "equals" -> target == args[0];
+                            default -> type.getSimpleName() + "@mock";
+                        };
+                    }
+                    return handler.invoke(target, method, args);
+                }));
+    }
+
+    private static Object defaultValue(Method method) {
+        Class<?> type = method.getReturnType();
+        if (type == boolean.class) {
+            return false;
+        }
+        if (type == int.class) {
+            return 0;
+        }
+        if (type == long.class) {
+            return 0L;
+        }
+        return null;
+    }
+}
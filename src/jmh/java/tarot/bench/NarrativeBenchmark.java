@@ -0,0 +1,106 @@
+package tarot.bench;
+
+import tarot.data.SpreadData;
+import tarot.data.TarotCardData;
+import tarot.model.CardReading;
+import tarot.model.DrawnCard;
+import tarot.model.SpreadDefinition;
+import tarot.model.TarotCard;
+import tarot.service.CardDrawEngine;
+import tarot.service.NarrativeCompiler;
+import tarot.service.SpreadRegistry;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 综合解读文本生成的基准测试
+ * 对比预编译片段拼接（NarrativeCompiler）与原先逐段StringBuilder拼接的实现
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(2)
+@State(Scope.Benchmark)
+public class NarrativeBenchmark {
+
+    @Param({ "three-card", "celtic-cross" })
+    public String spreadId;
+
+    private NarrativeCompiler compiler;
+    private SpreadDefinition spread;
+    private List<DrawnCard> drawnCards;
+    private CardReading reading;
+
+    @Setup
+    public void setUp() {
+        List<TarotCard> deck = TarotCardData.getAllTarotCards();
+        SpreadRegistry spreads = new SpreadRegistry(SpreadData.getSpreads(), SpreadData.DEFAULT_SPREAD_ID);
+        compiler = new NarrativeCompiler(deck, spreads);
+        spread = spreads.find(spreadId).orElseThrow();
+        // 固定种子，保证每次运行解读的牌面相同
+        drawnCards = new CardDrawEngine(deck).draw(spread.size(), new SplittableRandom(42));
+        reading = new CardReading(drawnCards, spread, 42);
+
+        String compiled = compiler.compose(spread, drawnCards);
+        if (!compiled.equals(legacyOverallReading(reading))) {
+            throw new IllegalStateException("预编译解读与原实现不一致");
+        }
+    }
+
+    @Benchmark
+    public String compose() {
+        return compiler.compose(spread, drawnCards);
+    }
+
+    @Benchmark
+    public String legacyStringBuilder() {
+        return legacyOverallReading(reading);
+    }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    public String composeContended() {
+        return compiler.compose(spread, drawnCards);
+    }
+
+    /**
+     * 原 CardReading.generateOverallReading 的实现，保留作为对比基线
+     */
+    private static String legacyOverallReading(CardReading reading) {
+        List<DrawnCard> drawnCards = reading.getDrawnCards();
+        if (drawnCards == null || drawnCards.isEmpty()) {
+            return "无法进行解读，请先抽取塔罗牌。";
+        }
+
+        StringBuilder text = new StringBuilder();
+        text.append("【塔罗解读】\n\n");
+
+        for (DrawnCard drawn : drawnCards) {
+            TarotCard card = drawn.card();
+            String position = reading.getPositionLabel(drawn.position());
+            text.append("🔮 **").append(position).append("**: ").append(card.name())
+                    .append(drawn.reversed() ? "（逆位）" : "（正位）").append("\n");
+            text.append(drawn.currentMeaning()).append("\n");
+            text.append(card.description()).append("\n\n");
+        }
+
+        text.append("📝 **综合提示**: 每张牌都带来了重要的信息，请仔细思考它们之间的联系和对你生活的指导意义。");
+        return text.toString();
+    }
+}
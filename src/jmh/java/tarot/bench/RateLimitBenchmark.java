@@ -0,0 +1,82 @@
+package tarot.bench;
+
+import tarot.filter.ClientRateLimiter;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 限流器放行路径的基准测试
+ * 速率设得足够高，所有请求都被放行，测量的是每个请求在限流过滤器中多出的开销
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(2)
+public class RateLimitBenchmark {
+
+    private static final int CLIENTS = 10_000;
+
+    @State(Scope.Benchmark)
+    public static class Limiter {
+
+        ClientRateLimiter limiter;
+        String[] clients;
+
+        @Setup
+        public void setUp() {
+            limiter = new ClientRateLimiter(1e9, 1_000_000, 100_000);
+            clients = new String[CLIENTS];
+            for (int i = 0; i < CLIENTS; i++) {
+                clients[i] = "10." + (i >> 16 & 255) + "." + (i >> 8 & 255) + "." + (i & 255);
+            }
+        }
+    }
+
+    /**
+     * 每个线程轮流使用不同的客户端，模拟多个来源的请求
+     */
+    @State(Scope.Thread)
+    public static class Cursor {
+        int next;
+    }
+
+    @Benchmark
+    public long singleClient(Limiter state) {
+        return state.limiter.tryAcquire(state.clients[0], System.nanoTime());
+    }
+
+    @Benchmark
+    public long manyClients(Limiter state, Cursor cursor) {
+        int index = cursor.next;
+        cursor.next = index + 1 == CLIENTS ? 0 : index + 1;
+        return state.limiter.tryAcquire(state.clients[index], System.nanoTime());
+    }
+
+    /**
+     * 所有线程争用同一个客户端的桶，CAS失败重试的最坏情况
+     */
+    @Benchmark
+    @Threads(Threads.MAX)
+    public long singleClientContended(Limiter state) {
+        return state.limiter.tryAcquire(state.clients[0], System.nanoTime());
+    }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    public long manyClientsContended(Limiter state, Cursor cursor) {
+        return manyClients(state, cursor);
+    }
+}
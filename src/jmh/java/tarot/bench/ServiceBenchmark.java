@@ -0,0 +1,110 @@
+package tarot.bench;
+
+import tarot.model.CardReading;
+import tarot.model.DrawnCard;
+import tarot.model.SearchHit;
+import tarot.model.SpreadDefinition;
+import tarot.model.TarotCard;
+import tarot.service.TarotGameService;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * TarotGameService 的基准测试
+ * 带 Contended 后缀的方法在所有CPU核上并发运行，用来发现共享状态上的竞争
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(2)
+@State(Scope.Benchmark)
+public class ServiceBenchmark {
+
+    private TarotGameService service;
+    private SpreadDefinition celticCross;
+
+    @Setup
+    public void setUp() {
+        service = new TarotGameService();
+        celticCross = service.resolveSpread("celtic-cross");
+    }
+
+    /**
+     * 按ID查找卡牌，分别覆盖数字ID、字符串ID和不存在的ID
+     */
+    @State(Scope.Benchmark)
+    public static class Lookup {
+
+        @Param({ "0", "21", "cups_queen", "missing" })
+        public String cardId;
+    }
+
+    /**
+     * 全文检索，分别覆盖中文长句、英文单词和没有命中的查询
+     */
+    @State(Scope.Benchmark)
+    public static class Query {
+
+        @Param({ "哪张牌代表新的开始", "love", "xyzzy" })
+        public String text;
+    }
+
+    @Benchmark
+    public List<DrawnCard> drawCards() {
+        return service.drawCards(3);
+    }
+
+    @Benchmark
+    public CardReading performReading() {
+        return service.performReading();
+    }
+
+    @Benchmark
+    public CardReading performReadingCelticCross() {
+        return service.performReading(celticCross);
+    }
+
+    @Benchmark
+    public Map<String, Object> getAllCardsAsMap() {
+        return service.getAllCardsAsMap();
+    }
+
+    @Benchmark
+    public Optional<TarotCard> findCardById(Lookup lookup) {
+        return service.findCardById(lookup.cardId);
+    }
+
+    @Benchmark
+    public List<SearchHit> search(Query query) {
+        return service.search(query.text, 10, null);
+    }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    public List<DrawnCard> drawCardsContended() {
+        return service.drawCards(3);
+    }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    public CardReading performReadingContended() {
+        return service.performReading();
+    }
+}
@@ -0,0 +1,306 @@
+package tarot.bench.load;
+
+import tarot.data.TarotCardData;
+import tarot.model.TarotCard;
+
+import java.io.BufferedInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * 闭合模型压测：保持固定数量的 HTTP/1.1 长连接，每个连接在收到完整响应后立即发出下一个请求
+ * <p>
+ * 每个连接一个虚拟线程，直接在Socket上写预先编码好的请求字节，按Content-Length或分块编码读完响应，不解析响应体：
+ * JDK的HttpClient在上千个并发连接时自身先成为瓶颈。
+ * 服务端因 maxKeepAliveRequests 关闭连接时立即重连，重连次数与连接错误分开统计
+ */
+final class ConnectionLoad {
+
+    // 同时进行中的建立连接数，避免上万个连接同时握手溢出服务端的accept队列
+    private static final int MAX_CONCURRENT_CONNECTS = 256;
+    private static final int MAX_HEADER_LINE = 8192;
+    private static final long RECONNECT_DELAY_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+
+    private final LoadGenerator.Options options;
+    private final Map<String, EndpointStats> stats;
+    private final LongAdder failures = new LongAdder();
+    private final LongAdder reconnects = new LongAdder();
+    // 当前打开的连接数
+    private final AtomicInteger open = new AtomicInteger();
+    // 全部连接首次建立后才确定测量区间，此前为Long.MAX_VALUE，不记录任何样本
+    private volatile long measureStart = Long.MAX_VALUE;
+    private volatile long end = Long.MAX_VALUE;
+
+    ConnectionLoad(LoadGenerator.Options options, Map<String, EndpointStats> stats) {
+        this.options = options;
+        this.stats = stats;
+    }
+
+    /**
+     * 一个端点及其预先编码好的请求
+     */
+    private record Target(EndpointStats stats, List<byte[]> requests) {
+    }
+
+    void run(String baseUrl, PrintStream out) throws InterruptedException {
+        URI base = URI.create(baseUrl);
+        InetSocketAddress address = new InetSocketAddress(base.getHost(), base.getPort());
+        List<Target> schedule = buildSchedule(base);
+
+        out.printf("目标: %s，闭合模型 %d 个并发连接，预热 %d 秒，测量 %d 秒%n",
+                baseUrl, options.connections, options.warmupSeconds, options.durationSeconds);
+
+        long start = System.nanoTime();
+        Semaphore connects = new Semaphore(MAX_CONCURRENT_CONNECTS);
+        CountDownLatch attempted = new CountDownLatch(options.connections);
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < options.connections; i++) {
+                int offset = i;
+                executor.execute(() -> drive(address, schedule, offset, connects, attempted));
+            }
+            // 上万个连接的建立本身要几秒，预热从全部连接都尝试过一次之后才开始计时，测量期间连接数保持稳定
+            attempted.await();
+            long connected = System.nanoTime();
+            out.printf("%.1f 秒内建立 %d 个连接%n", (connected - start) / 1e9, open.get());
+            long measureFrom = connected + TimeUnit.SECONDS.toNanos(options.warmupSeconds);
+            end = measureFrom + TimeUnit.SECONDS.toNanos(options.durationSeconds);
+            measureStart = measureFrom;
+            while (System.nanoTime() < measureFrom) {
+                Thread.sleep(100);
+            }
+            out.printf("预热结束，当前 %d 个连接%n", open.get());
+        }
+        out.printf("连接错误 %d 个，服务端关闭后重连 %d 次%n", failures.sum(), reconnects.sum());
+    }
+
+    /**
+     * 一个长连接：请求一次写出，响应经缓冲读取，避免逐字节的系统调用
+     */
+    private record Connection(Socket socket, InputStream input, OutputStream output) {
+    }
+
+    /**
+     * 单个连接的请求循环，直到测量结束
+     */
+    private void drive(InetSocketAddress address, List<Target> schedule, int offset, Semaphore connects,
+                       CountDownLatch attempted) {
+        int next = offset;
+        Connection connection = connect(address, connects);
+        attempted.countDown();
+        try {
+            while (System.nanoTime() < end) {
+                if (connection == null) {
+                    connection = connect(address, connects);
+                    if (connection == null) {
+                        // 建立连接失败时稍后重试，避免上万个连接同时空转重连
+                        LockSupport.parkNanos(RECONNECT_DELAY_NANOS);
+                        continue;
+                    }
+                }
+                Target target = schedule.get(next % schedule.size());
+                byte[] request = target.requests().get((next / schedule.size()) % target.requests().size());
+                next++;
+                long sentAt = System.nanoTime();
+                long response;
+                try {
+                    connection.output().write(request);
+                    connection.output().flush();
+                    response = readResponse(connection.input());
+                } catch (IOException | NumberFormatException e) {
+                    failures.increment();
+                    disconnect(connection);
+                    connection = null;
+                    continue;
+                }
+                long done = System.nanoTime();
+                if (sentAt >= measureStart && done < end) {
+                    target.stats().record(sentAt, sentAt, done, (response >> 1) == 200);
+                }
+                if ((response & 1) != 0) {
+                    reconnects.increment();
+                    disconnect(connection);
+                    connection = null;
+                }
+            }
+        } finally {
+            if (connection != null) {
+                disconnect(connection);
+            }
+        }
+    }
+
+    private Connection connect(InetSocketAddress address, Semaphore connects) {
+        connects.acquireUninterruptibly();
+        Socket socket = new Socket();
+        try {
+            socket.setTcpNoDelay(true);
+            socket.setSoTimeout((int) TimeUnit.SECONDS.toMillis(options.timeoutSeconds));
+            socket.connect(address, (int) TimeUnit.SECONDS.toMillis(options.timeoutSeconds));
+            open.incrementAndGet();
+            return new Connection(socket, new BufferedInputStream(socket.getInputStream(), 16 * 1024),
+                    socket.getOutputStream());
+        } catch (IOException e) {
+            failures.increment();
+            close(socket);
+            return null;
+        } finally {
+            connects.release();
+        }
+    }
+
+    private void disconnect(Connection connection) {
+        open.decrementAndGet();
+        close(connection.socket());
+    }
+
+    private static void close(Socket socket) {
+        try {
+            socket.close();
+        } catch (IOException e) {
+            // 忽略
+        }
+    }
+
+    /**
+     * 读完一个响应并丢弃响应体
+     *
+     * @return 状态码左移一位，最低位为1表示服务端要求关闭连接
+     */
+    private static long readResponse(InputStream in) throws IOException {
+        String statusLine = readLine(in);
+        if (!statusLine.startsWith("HTTP/1.1 ") || statusLine.length() < 12) {
+            throw new IOException("无效的状态行: " + statusLine);
+        }
+        int status = Integer.parseInt(statusLine.substring(9, 12));
+        long contentLength = -1;
+        boolean chunked = false;
+        boolean close = false;
+        String line;
+        while (!(line = readLine(in)).isEmpty()) {
+            int colon = line.indexOf(':');
+            if (colon < 0) {
+                continue;
+            }
+            String name = line.substring(0, colon);
+            String value = line.substring(colon + 1).trim();
+            if (name.equalsIgnoreCase("Content-Length")) {
+                contentLength = Long.parseLong(value);
+            } else if (name.equalsIgnoreCase("Transfer-Encoding")) {
+                chunked = value.equalsIgnoreCase("chunked");
+            } else if (name.equalsIgnoreCase("Connection")) {
+                close = value.equalsIgnoreCase("close");
+            }
+        }
+        if (status == 103) {
+            // 103 Early Hints 之后才是最终响应
+            return readResponse(in);
+        }
+        if (chunked) {
+            long size;
+            while ((size = Long.parseLong(stripExtensions(readLine(in)), 16)) > 0) {
+                skip(in, size);
+                readLine(in);
+            }
+            // 分块结束后的尾部字段
+            while (!readLine(in).isEmpty()) {
+                // 丢弃
+            }
+        } else if (contentLength > 0) {
+            skip(in, contentLength);
+        } else if (contentLength < 0 && status != 204 && status != 304) {
+            // 既没有长度也没有分块：读到连接关闭为止
+            while (in.read() >= 0) {
+                // 丢弃
+            }
+            close = true;
+        }
+        return ((long) status << 1) | (close ? 1 : 0);
+    }
+
+    private static String stripExtensions(String chunkSize) {
+        int semicolon = chunkSize.indexOf(';');
+        return (semicolon < 0 ? chunkSize : chunkSize.substring(0, semicolon)).trim();
+    }
+
+    private static void skip(InputStream in, long length) throws IOException {
+        while (length > 0) {
+            long skipped = in.skip(length);
+            if (skipped <= 0) {
+                if (in.read() < 0) {
+                    throw new EOFException("响应体不完整");
+                }
+                skipped = 1;
+            }
+            length -= skipped;
+        }
+    }
+
+    private static String readLine(InputStream in) throws IOException {
+        StringBuilder line = new StringBuilder();
+        int c;
+        while ((c = in.read()) != '\n') {
+            if (c < 0) {
+                throw new EOFException("连接已关闭");
+            }
+            if (c != '\r') {
+                if (line.length() == MAX_HEADER_LINE) {
+                    throw new IOException("响应头过长");
+                }
+                line.append((char) c);
+            }
+        }
+        return line.toString();
+    }
+
+    private List<Target> buildSchedule(URI base) {
+        String host = "Host: " + base.getHost() + ":" + base.getPort() + "\r\n";
+        String path = base.getPath();
+        List<Target> targets = new ArrayList<>();
+        for (String name : options.mix.keySet()) {
+            EndpointStats endpointStats = new EndpointStats(name);
+            stats.put(name, endpointStats);
+            List<String> requests = switch (name) {
+                case "reading" -> List.of("POST " + path + "/api/reading?spread=" + options.spread + " HTTP/1.1\r\n"
+                        + host + "Content-Length: 0\r\n\r\n");
+                case "cards" -> List.of("GET " + path + "/api/cards HTTP/1.1\r\n" + host
+                        + "Accept-Encoding: gzip\r\n\r\n");
+                case "card" -> {
+                    List<String> cards = new ArrayList<>();
+                    for (TarotCard card : TarotCardData.getAllTarotCards()) {
+                        cards.add("GET " + path + "/api/card/" + card.id() + " HTTP/1.1\r\n" + host + "\r\n");
+                    }
+                    yield cards;
+                }
+                default -> throw new IllegalArgumentException("闭合模型不支持端点: " + name);
+            };
+            targets.add(new Target(endpointStats,
+                    requests.stream().map(request -> request.getBytes(StandardCharsets.US_ASCII)).toList()));
+        }
+        List<Target> schedule = new ArrayList<>();
+        for (Target target : targets) {
+            for (int i = 0; i < options.mix.get(target.stats().name()); i++) {
+                schedule.add(target);
+            }
+        }
+        return schedule;
+    }
+}
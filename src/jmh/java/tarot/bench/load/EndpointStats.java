@@ -0,0 +1,100 @@
+package tarot.bench.load;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 单个端点的延迟统计
+ * 同时记录两种延迟（单位微秒）：
+ * 从计划发送时间算起的响应时间（已校正协调遗漏），以及从实际发送时间算起的服务时间
+ */
+final class EndpointStats {
+
+    // 记录范围之外的值会被截断到这里（1分钟）
+    private static final long MAX_TRACKABLE_MICROS = 60_000_000L;
+
+    private final String name;
+    private final Recorder responseTime = new Recorder(MAX_TRACKABLE_MICROS, 3);
+    private final Recorder serviceTime = new Recorder(MAX_TRACKABLE_MICROS, 3);
+    private final LongAdder errors = new LongAdder();
+
+    private Histogram responseHistogram;
+    private Histogram serviceHistogram;
+    private long errorCount;
+
+    EndpointStats(String name) {
+        this.name = name;
+    }
+
+    String name() {
+        return name;
+    }
+
+    /**
+     * @param intendedNanos 按固定到达率计划的发送时间
+     * @param sentNanos     实际开始发送的时间
+     * @param doneNanos     收到完整响应的时间
+     */
+    void record(long intendedNanos, long sentNanos, long doneNanos, boolean success) {
+        responseTime.recordValue(clamp((doneNanos - intendedNanos) / 1000));
+        serviceTime.recordValue(clamp((doneNanos - sentNanos) / 1000));
+        if (!success) {
+            errors.increment();
+        }
+    }
+
+    /**
+     * 结束测量，固定本轮的直方图
+     */
+    void finish() {
+        responseHistogram = responseTime.getIntervalHistogram();
+        serviceHistogram = serviceTime.getIntervalHistogram();
+        errorCount = errors.sum();
+    }
+
+    long count() {
+        return responseHistogram.getTotalCount();
+    }
+
+    long errorCount() {
+        return errorCount;
+    }
+
+    void printSummaryRow(PrintStream out, double seconds) {
+        out.printf("%-10s %9d %7d %9.1f %9.2f %9.2f %9.2f %9.2f %9.2f   %9.2f%n",
+                name, count(), errorCount, count() / seconds,
+                millis(responseHistogram, 50), millis(responseHistogram, 90),
+                millis(responseHistogram, 99), millis(responseHistogram, 99.9),
+                responseHistogram.getMaxValue() / 1000.0,
+                millis(serviceHistogram, 99));
+    }
+
+    /**
+     * 以HdrHistogram的百分位分布格式写出两种延迟，单位毫秒
+     */
+    void writeDistributions(Path directory) throws IOException {
+        write(directory.resolve(name + ".hgrm"), responseHistogram);
+        write(directory.resolve(name + "-service.hgrm"), serviceHistogram);
+    }
+
+    private static void write(Path file, Histogram histogram) throws IOException {
+        try (PrintStream out = new PrintStream(Files.newOutputStream(file), false, StandardCharsets.UTF_8)) {
+            histogram.outputPercentileDistribution(out, 1000.0);
+        }
+    }
+
+    private static double millis(Histogram histogram, double percentile) {
+        return histogram.getValueAtPercentile(percentile) / 1000.0;
+    }
+
+    private static long clamp(long micros) {
+        return Math.max(0, Math.min(micros, MAX_TRACKABLE_MICROS));
+    }
+}
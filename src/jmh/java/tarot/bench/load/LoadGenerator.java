@@ -0,0 +1,434 @@
+package tarot.bench.load;
+
+import tarot.data.TarotCardData;
+import tarot.model.TarotCard;
+
+import org.apache.catalina.LifecycleException;
+import org.apache.catalina.connector.Connector;
+import org.apache.catalina.startup.Tomcat;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.URI;
+import java.net.URL;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * 进程内HTTP压测工具
+ * 在回环端口上用嵌入式Tomcat启动打包好的应用，按固定到达率（开放模型）发送请求：
+ * 每个请求的发送时间事先按速率排好，不因前一个请求变慢而推迟，
+ * 延迟从计划发送时间开始计算，因此服务端卡顿造成的排队会如实反映在百分位中（校正协调遗漏）。
+ *
+ * 用法: mvn -P benchmark package exec:exec@load-test -Dload.args="--rate=2000 --duration=30"
+ *
+ * 指定 connections 时改为闭合模型：保持固定数量的长连接，每个连接收到响应后立即发出下一个请求，
+ * 用来对比大量并发连接下各执行模式的吞吐量和延迟。此时请求由连接自己的节奏决定，没有计划发送时间，
+ * 延迟从实际发送算起；连接数远大于服务端的处理能力时，排队体现在每个请求的响应时间上（利特尔定律）。
+ * 预热从全部连接都建立之后才开始计时。客户端和服务端各需要与连接数相当的文件描述符，
+ * 上万个连接时超过单进程上限的话，用 url 指向另一个进程中运行的服务。
+ *
+ * 参数（均为 --名称=值）:
+ *   rate             每秒计划发出的请求数，默认1000
+ *   duration/warmup  测量和预热的秒数，默认30/10，预热期间的请求不计入结果
+ *   mix              端点权重，默认 reading:2,cards:1,card:1；
+ *                    images 在占卜后按响应的 Link 预加载头并行下载抽到的牌的缩略图，记录到全部图片下载完成的时间
+ *   spread           reading端点使用的牌阵，默认 three-card
+ *   max-in-flight    客户端同时在途的请求上限，超出的请求计为饱和未发出，默认10000
+ *   connections      闭合模型的并发连接数，指定后忽略 rate 和 max-in-flight；不支持 images
+ *   execution-mode   应用执行模式 blocking 或 virtual，virtual-connector 让连接器使用虚拟线程
+ *   war              要部署的WAR或目录，默认 target/tarot；指定 url 时改为压测已运行的服务
+ *   report-dir       百分位分布的输出目录，默认 target/load-report
+ */
+public final class LoadGenerator {
+
+    private static final String CONTEXT_PATH = "/tarot";
+    // Link 头中的一项：<地址>; 参数...（imagesrcset中的逗号在引号内，不能按逗号拆分）
+    private static final Pattern PRELOAD_LINK = Pattern.compile("<([^>]*)>([^<]*)");
+
+    private final Options options;
+    private final HttpClient client;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final LongAdder saturated = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+    private final Map<String, EndpointStats> stats = new LinkedHashMap<>();
+
+    private LoadGenerator(Options options) {
+        this.options = options;
+        this.client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .executor(executor)
+                .build();
+    }
+
+    public static void main(String[] args) throws Exception {
+        Options options = Options.parse(args);
+        Tomcat tomcat = null;
+        String baseUrl = options.url;
+        if (baseUrl == null) {
+            tomcat = startEmbedded(options);
+            baseUrl = "http://127.0.0.1:" + tomcat.getConnector().getLocalPort() + CONTEXT_PATH;
+        }
+        try {
+            new LoadGenerator(options).run(baseUrl, System.out);
+        } finally {
+            if (tomcat != null) {
+                tomcat.stop();
+                tomcat.destroy();
+            }
+        }
+    }
+
+    /**
+     * 在回环地址上启动嵌入式Tomcat并部署WAR（或解压后的目录）
+     */
+    private static Tomcat startEmbedded(Options options) throws IOException, LifecycleException {
+        Path war = options.war;
+        if (!Files.exists(war)) {
+            throw new IllegalStateException("找不到应用包: " + war.toAbsolutePath() + "，请先执行 mvn package");
+        }
+
+        // 应用内没有日志配置时，借用基准测试的配置，避免逐请求的调试日志影响结果
+        if (System.getProperty("logback.configurationFile") == null) {
+            URL logback = LoadGenerator.class.getResource("/logback-test.xml");
+            if (logback != null) {
+                System.setProperty("logback.configurationFile", logback.toString());
+            }
+        }
+        System.setProperty("tarot.execution.mode", options.executionMode);
+        // 压测请求都来自回环地址，限流会让结果变成429的处理速度；需要测量限流本身时显式传入该属性
+        if (System.getProperty("tarot.ratelimit.enabled") == null) {
+            System.setProperty("tarot.ratelimit.enabled", "false");
+        }
+
+        Tomcat tomcat = new Tomcat();
+        tomcat.setBaseDir(Files.createTempDirectory("tarot-load").toString());
+        tomcat.setHostname("127.0.0.1");
+        Connector connector = tomcat.getConnector();
+        connector.setPort(options.port);
+        connector.setProperty("address", "127.0.0.1");
+        connector.setProperty("maxConnections", "20000");
+        connector.setProperty("acceptCount", "1000");
+        if (options.virtualConnector) {
+            connector.setProperty("useVirtualThreads", "true");
+        }
+        tomcat.addWebapp(CONTEXT_PATH, war.toAbsolutePath().toString());
+        tomcat.start();
+        System.out.printf("嵌入式Tomcat已启动: 端口 %d，执行模式 %s，连接器%s虚拟线程%n",
+                connector.getLocalPort(), options.executionMode, options.virtualConnector ? "使用" : "不使用");
+        return tomcat;
+    }
+
+    private void run(String baseUrl, PrintStream out) throws Exception {
+        if (options.connections > 0) {
+            new ConnectionLoad(options, stats).run(baseUrl, out);
+            report(out, -1);
+            return;
+        }
+        List<Target> targets = buildTargets(baseUrl);
+        // 按权重展开成固定序列，请求按序号轮流取用，各端点比例精确且可复现
+        List<Target> schedule = new ArrayList<>();
+        for (Target target : targets) {
+            for (int i = 0; i < options.mix.get(target.stats.name()); i++) {
+                schedule.add(target);
+            }
+        }
+
+        out.printf("目标: %s，到达率 %d 请求/秒，预热 %d 秒，测量 %d 秒%n",
+                baseUrl, options.rate, options.warmupSeconds, options.durationSeconds);
+
+        long start = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(100);
+        long measureStart = start + TimeUnit.SECONDS.toNanos(options.warmupSeconds);
+        long end = measureStart + TimeUnit.SECONDS.toNanos(options.durationSeconds);
+        double intervalNanos = 1e9 / options.rate;
+
+        long sent = 0;
+        for (long i = 0; ; i++) {
+            long intended = start + (long) (i * intervalNanos);
+            if (intended >= end) {
+                break;
+            }
+            waitUntil(intended);
+
+            Target target = schedule.get((int) (i % schedule.size()));
+            HttpRequest request = target.next();
+            boolean measured = intended >= measureStart;
+            if (inFlight.incrementAndGet() > options.maxInFlight) {
+                // 客户端自身已饱和，如实计数而不是悄悄推迟发送
+                inFlight.decrementAndGet();
+                if (measured) {
+                    saturated.increment();
+                }
+                continue;
+            }
+            executor.execute(() -> send(target, request, intended, measured));
+            if (measured) {
+                sent++;
+            }
+        }
+
+        // 等待在途请求结束
+        long drainDeadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(options.timeoutSeconds + 5);
+        while (inFlight.get() > 0 && System.nanoTime() < drainDeadline) {
+            Thread.sleep(10);
+        }
+        executor.shutdownNow();
+
+        report(out, sent);
+    }
+
+    private void send(Target target, HttpRequest request, long intended, boolean measured) {
+        long sentAt = System.nanoTime();
+        boolean success;
+        try {
+            HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+            success = response.statusCode() == 200;
+            if (success && target.followPreloads) {
+                success = fetchPreloadedImages(request.uri(), response);
+            }
+        } catch (IOException e) {
+            success = false;
+            failures.increment();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        } finally {
+            inFlight.decrementAndGet();
+        }
+        if (measured) {
+            target.stats.record(intended, sentAt, System.nanoTime(), success);
+        }
+    }
+
+    /**
+     * 并行下载响应 Link 头中声明为 as=image 的全部预加载资源，模拟浏览器收到预加载头后的行为
+     * JDK的HttpClient会忽略 103 响应，这里只能使用最终响应中的同一组 Link 头
+     */
+    private boolean fetchPreloadedImages(URI base, HttpResponse<Void> response) {
+        List<CompletableFuture<HttpResponse<Void>>> images = new ArrayList<>();
+        for (String header : response.headers().allValues("Link")) {
+            Matcher link = PRELOAD_LINK.matcher(header);
+            while (link.find()) {
+                if (link.group(2).contains("as=image")) {
+                    images.add(client.sendAsync(HttpRequest.newBuilder(base.resolve(link.group(1)))
+                            .timeout(Duration.ofSeconds(options.timeoutSeconds))
+                            .GET()
+                            .build(), HttpResponse.BodyHandlers.discarding()));
+                }
+            }
+        }
+        boolean success = true;
+        for (CompletableFuture<HttpResponse<Void>> image : images) {
+            try {
+                success &= image.join().statusCode() == 200;
+            } catch (CompletionException e) {
+                failures.increment();
+                success = false;
+            }
+        }
+        return success;
+    }
+
+    private void report(PrintStream out, long sent) throws IOException {
+        double seconds = options.durationSeconds;
+        out.println();
+        if (sent >= 0) {
+            out.printf("实际发出 %d 个请求（%.1f 请求/秒），客户端饱和未发出 %d 个，连接错误 %d 个%n",
+                    sent, sent / seconds, saturated.sum(), failures.sum());
+            out.println("响应时间从计划发送时间算起（已校正协调遗漏），单位毫秒；最后一列为从实际发送算起的服务时间p99");
+        } else {
+            out.println("闭合模型：响应时间从实际发送算起，单位毫秒");
+        }
+        out.printf("%-10s %9s %7s %9s %9s %9s %9s %9s %9s   %9s%n",
+                "endpoint", "count", "errors", "req/s", "p50", "p90", "p99", "p99.9", "max", "svc p99");
+
+        Files.createDirectories(options.reportDirectory);
+        for (EndpointStats endpoint : stats.values()) {
+            endpoint.finish();
+            endpoint.printSummaryRow(out, seconds);
+            endpoint.writeDistributions(options.reportDirectory);
+        }
+        out.printf("%n完整的百分位分布已写入 %s%n", options.reportDirectory.toAbsolutePath());
+    }
+
+    private List<Target> buildTargets(String baseUrl) {
+        List<Target> targets = new ArrayList<>();
+        for (String name : options.mix.keySet()) {
+            EndpointStats endpointStats = new EndpointStats(name);
+            stats.put(name, endpointStats);
+            targets.add(switch (name) {
+                case "reading" -> new Target(endpointStats, List.of(HttpRequest.newBuilder(
+                                URI.create(baseUrl + "/api/reading?spread=" + options.spread))
+                        .timeout(Duration.ofSeconds(options.timeoutSeconds))
+                        .POST(HttpRequest.BodyPublishers.noBody())
+                        .build()));
+                case "images" -> new Target(endpointStats, List.of(HttpRequest.newBuilder(
+                                URI.create(baseUrl + "/api/reading?spread=" + options.spread))
+                        .timeout(Duration.ofSeconds(options.timeoutSeconds))
+                        .POST(HttpRequest.BodyPublishers.noBody())
+                        .build()), true);
+                case "cards" -> new Target(endpointStats, List.of(HttpRequest.newBuilder(
+                                URI.create(baseUrl + "/api/cards"))
+                        .timeout(Duration.ofSeconds(options.timeoutSeconds))
+                        .header("Accept-Encoding", "gzip")
+                        .GET()
+                        .build()));
+                case "card" -> {
+                    // 依次请求每一张牌
+                    List<HttpRequest> requests = new ArrayList<>();
+                    for (TarotCard card : TarotCardData.getAllTarotCards()) {
+                        requests.add(HttpRequest.newBuilder(URI.create(baseUrl + "/api/card/" + card.id()))
+                                .timeout(Duration.ofSeconds(options.timeoutSeconds))
+                                .GET()
+                                .build());
+                    }
+                    yield new Target(endpointStats, requests);
+                }
+                default -> throw new IllegalArgumentException("未知的端点: " + name);
+            });
+        }
+        return targets;
+    }
+
+    private static void waitUntil(long deadline) {
+        long remaining;
+        while ((remaining = deadline - System.nanoTime()) > 0) {
+            if (remaining > 100_000) {
+                LockSupport.parkNanos(remaining - 50_000);
+            } else {
+                Thread.onSpinWait();
+            }
+        }
+    }
+
+    /**
+     * 一个压测端点及其预先构建好的请求
+     * 只由调度线程调用next，不需要同步
+     */
+    private static final class Target {
+
+        private final EndpointStats stats;
+        private final List<HttpRequest> requests;
+        // 是否继续下载响应中预加载头声明的图片
+        private final boolean followPreloads;
+        private int next;
+
+        Target(EndpointStats stats, List<HttpRequest> requests) {
+            this(stats, requests, false);
+        }
+
+        Target(EndpointStats stats, List<HttpRequest> requests, boolean followPreloads) {
+            this.stats = stats;
+            this.requests = requests;
+            this.followPreloads = followPreloads;
+        }
+
+        HttpRequest next() {
+            HttpRequest request = requests.get(next);
+            next = (next + 1) % requests.size();
+            return request;
+        }
+    }
+
+    /**
+     * 命令行参数，格式为 --名称=值
+     */
+    static final class Options {
+
+        int rate = 1000;
+        int durationSeconds = 30;
+        int warmupSeconds = 10;
+        int timeoutSeconds = 10;
+        int maxInFlight = 10_000;
+        int connections;
+        int port = 0;
+        String url;
+        String spread = "three-card";
+        String executionMode = "blocking";
+        boolean virtualConnector;
+        Path war = Path.of("target", "tarot");
+        Path reportDirectory = Path.of("target", "load-report");
+        Map<String, Integer> mix;
+
+        static Options parse(String[] args) {
+            Map<String, String> values = new HashMap<>();
+            for (String arg : args) {
+                if (arg.isBlank()) {
+                    continue;
+                }
+                if (!arg.startsWith("--")) {
+                    throw new IllegalArgumentException("无法识别的参数: " + arg);
+                }
+                int eq = arg.indexOf('=');
+                values.put(eq < 0 ? arg.substring(2) : arg.substring(2, eq), eq < 0 ? "true" : arg.substring(eq + 1));
+            }
+
+            Options options = new Options();
+            options.mix = parseMix(values.getOrDefault("mix", "reading:2,cards:1,card:1"));
+            for (Map.Entry<String, String> entry : values.entrySet()) {
+                String value = entry.getValue();
+                switch (entry.getKey()) {
+                    case "rate" -> options.rate = Integer.parseInt(value);
+                    case "duration" -> options.durationSeconds = Integer.parseInt(value);
+                    case "warmup" -> options.warmupSeconds = Integer.parseInt(value);
+                    case "timeout" -> options.timeoutSeconds = Integer.parseInt(value);
+                    case "max-in-flight" -> options.maxInFlight = Integer.parseInt(value);
+                    case "connections" -> options.connections = Integer.parseInt(value);
+                    case "port" -> options.port = Integer.parseInt(value);
+                    case "url" -> options.url = value;
+                    case "spread" -> options.spread = value;
+                    case "execution-mode" -> options.executionMode = value;
+                    case "virtual-connector" -> options.virtualConnector = Boolean.parseBoolean(value);
+                    case "war" -> options.war = Path.of(value);
+                    case "report-dir" -> options.reportDirectory = Path.of(value);
+                    case "mix" -> {
+                    }
+                    default -> throw new IllegalArgumentException("未知参数: --" + entry.getKey());
+                }
+            }
+            if (options.rate <= 0 || options.durationSeconds <= 0 || options.warmupSeconds < 0) {
+                throw new IllegalArgumentException("rate和duration必须大于0，warmup不能为负数");
+            }
+            return options;
+        }
+
+        /**
+         * 解析端点权重，例如 reading:2,cards:1,card:1
+         */
+        private static Map<String, Integer> parseMix(String value) {
+            Map<String, Integer> mix = new LinkedHashMap<>();
+            for (String part : value.split(",")) {
+                String[] pair = part.trim().split(":");
+                int weight = pair.length > 1 ? Integer.parseInt(pair[1].trim()) : 1;
+                if (weight > 0) {
+                    mix.put(pair[0].trim(), weight);
+                }
+            }
+            if (mix.isEmpty()) {
+                throw new IllegalArgumentException("mix至少需要一个端点");
+            }
+            return mix;
+        }
+    }
+}
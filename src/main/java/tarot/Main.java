@@ -1,9 +1,20 @@
 package tarot;
 
+import tarot.model.DrawnCard;
+import tarot.model.SpreadDefinition;
 import tarot.model.TarotCard;
 import tarot.service.TarotGameService;
 
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
 
 /**
  * 塔罗牌游戏的主类
@@ -32,33 +43,30 @@ public class Main {
             System.out.println("   📜 前3张大阿卡那牌：");
             for (int i = 0; i < Math.min(3, majorArcanaCards.size()); i++) {
                 TarotCard card = majorArcanaCards.get(i);
-                System.out.println("   " + (i + 1) + ". " + card.getId() + ": " + card.getName() + " (" + card.getEnglishName() + ")");
+                System.out.println("   " + (i + 1) + ". " + card.id() + ": " + card.name() + " (" + card.englishName() + ")");
             }
 
             // 测试按ID获取卡牌
             System.out.println("\n4. 测试 - 按ID获取卡牌");
-            try {
-                String testCardId = "1";
-                TarotCard card = tarotGameService.getCardById(testCardId);
+            String testCardId = "1";
+            tarotGameService.findCardById(testCardId).ifPresentOrElse(card -> {
                 System.out.println("   🔍 ID为" + testCardId + "的卡牌：");
-                System.out.println("   - 名称：" + card.getName());
-                System.out.println("   - 英文名：" + card.getEnglishName());
-                System.out.println("   - 卡牌类型：" + card.getCardType());
-                System.out.println("   - 当前含义：" + card.getCurrentMeaning());
-            } catch (Exception e) {
-                System.out.println("   ❌ 查找卡牌失败：" + e.getMessage());
-            }
+                System.out.println("   - 名称：" + card.name());
+                System.out.println("   - 英文名：" + card.englishName());
+                System.out.println("   - 卡牌类型：" + card.cardType());
+                System.out.println("   - 正位含义：" + card.uprightMeaning());
+            }, () -> System.out.println("   ❌ 未找到ID为" + testCardId + "的卡牌"));
 
             // 测试随机抽牌
             System.out.println("\n5. 测试 - 随机抽取1张牌");
             try {
-                List<TarotCard> drawnCards = tarotGameService.drawCards(1);
+                List<DrawnCard> drawnCards = tarotGameService.drawCards(1);
                 if (!drawnCards.isEmpty()) {
-                    TarotCard drawnCard = drawnCards.get(0);
+                    DrawnCard drawnCard = drawnCards.get(0);
                     System.out.println("   🎴 抽到的牌：");
-                    System.out.println("   - 名称：" + drawnCard.getName() + " (" + drawnCard.getEnglishName() + ")");
-                    System.out.println("   - 逆位状态：" + (drawnCard.isReversed() ? "逆位" : "正位"));
-                    System.out.println("   - 当前含义：" + drawnCard.getCurrentMeaning());
+                    System.out.println("   - 名称：" + drawnCard.card().name() + " (" + drawnCard.card().englishName() + ")");
+                    System.out.println("   - 逆位状态：" + (drawnCard.reversed() ? "逆位" : "正位"));
+                    System.out.println("   - 当前含义：" + drawnCard.currentMeaning());
                 }
             } catch (Exception e) {
                 System.out.println("   ❌ 抽牌失败：" + e.getMessage());
@@ -85,6 +93,14 @@ public class Main {
                 System.out.println("   ❌ 获取所有卡牌失败：" + e.getMessage());
             }
 
+            // 测试并发抽牌
+            System.out.println("\n7. 测试 - 并发抽牌");
+            try {
+                testConcurrentDraws(tarotGameService);
+            } catch (Exception e) {
+                System.out.println("   ❌ 并发抽牌测试失败：" + e.getMessage());
+            }
+
             System.out.println("\n====== 测试完成 ======");
 
         } catch (Exception e) {
@@ -92,4 +108,101 @@ public class Main {
             e.printStackTrace();
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * 并发压力测试：多个线程同时占卜，检查三件可能出错的事：
+     * 每次占卜内的牌互不重复；各线程同时使用同一组种子时，结果与单线程的参考结果完全相同
+     * （抽牌缓冲区若被线程共享，交换会互相干扰，结果随之改变）；随机抽牌时各张牌被抽中的次数通过卡方均匀性检验
+     */
+    private static void testConcurrentDraws(TarotGameService service) throws Exception {
+        int threads = 16;
+        int readingsPerThread = 5_000;
+        int seeds = 1_000;
+        SpreadDefinition spread = service.resolveSpread("celtic-cross");
+
+        // 单线程生成每个种子的参考结果
+        String[] expected = new String[seeds];
+        for (int seed = 0; seed < seeds; seed++) {
+            expected[seed] = fingerprint(service.performReading(spread, seed).getDrawnCards());
+        }
+
+        int deckSize = service.getDeckSize();
+        AtomicLongArray drawCounts = new AtomicLongArray(deckSize);
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<int[]>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                int thread = t;
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    // [0] 占卜内重复的牌，[1] 与参考结果不一致的占卜
+                    int[] failures = new int[2];
+                    for (int i = 0; i < readingsPerThread; i++) {
+                        for (DrawnCard card : service.drawCards(3)) {
+                            drawCounts.incrementAndGet(card.cardIndex());
+                        }
+                        // 各线程错开起点轮流使用同一组种子，同一时刻有多个线程在抽同样的牌
+                        int seed = (thread * 61 + i) % seeds;
+                        List<DrawnCard> cards = service.performReading(spread, seed).getDrawnCards();
+                        Set<String> ids = new HashSet<>();
+                        for (DrawnCard card : cards) {
+                            if (!ids.add(card.card().id())) {
+                                failures[0]++;
+                            }
+                        }
+                        if (!fingerprint(cards).equals(expected[seed])) {
+                            failures[1]++;
+                        }
+                    }
+                    return failures;
+                }));
+            }
+            start.countDown();
+
+            int duplicates = 0;
+            int mismatches = 0;
+            for (Future<int[]> future : futures) {
+                int[] failures = future.get();
+                duplicates += failures[0];
+                mismatches += failures[1];
+            }
+
+            // 卡方检验：自由度为牌数减1，临界值按Wilson–Hilferty近似取显著性水平0.001
+            long draws = (long) threads * readingsPerThread * 3;
+            double expectedCount = (double) draws / deckSize;
+            double chiSquare = 0;
+            for (int i = 0; i < deckSize; i++) {
+                double diff = drawCounts.get(i) - expectedCount;
+                chiSquare += diff * diff / expectedCount;
+            }
+            int df = deckSize - 1;
+            double critical = df * Math.pow(1 - 2.0 / (9 * df) + 3.090 * Math.sqrt(2.0 / (9 * df)), 3);
+
+            int total = threads * readingsPerThread;
+            if (duplicates == 0 && mismatches == 0 && chiSquare < critical) {
+                System.out.println("   ✅ " + threads + "个线程共完成" + total + "次占卜和" + total + "次随机抽牌，"
+                        + "同种子结果与单线程一致，卡方 " + String.format("%.1f", chiSquare)
+                        + " < " + String.format("%.1f", critical));
+            } else {
+                System.out.println("   ❌ 发现共享状态：占卜内重复的牌 " + duplicates + " 次，同种子结果不一致 "
+                        + mismatches + " 次，卡方 " + String.format("%.1f", chiSquare)
+                        + "（临界值 " + String.format("%.1f", critical) + "）");
+            }
+        } finally {
+            executor.shutdown();
+            executor.awaitTermination(10, TimeUnit.SECONDS);
+        }
+    }
+
+    /**
+     * 抽牌结果的摘要：依次为每张牌的下标和正逆位
+     */
+    private static String fingerprint(List<DrawnCard> cards) {
+        StringBuilder builder = new StringBuilder();
+        for (DrawnCard card : cards) {
+            builder.append(card.cardIndex()).append(card.reversed() ? 'R' : 'U').append(',');
+        }
+        return builder.toString();
+    }
+}
@@ -1,5 +1,6 @@
 package tarot;
 
+import tarot.model.DrawnCard;
 import tarot.model.TarotCard;
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -25,8 +26,8 @@ public class SimpleTarotTest {
             System.out.println("\n2. 测试 - 显示所有测试卡牌");
             for (int i = 0; i < testCards.size(); i++) {
                 TarotCard card = testCards.get(i);
-                System.out.println("   " + (i + 1) + ". " + card.getId() + ": " + card.getName() + " (" + card.getEnglishName() + ")");
-                System.out.println("      卡牌类型: " + card.getCardType() + ", 当前含义: " + card.getCurrentMeaning());
+                System.out.println("   " + (i + 1) + ". " + card.id() + ": " + card.name() + " (" + card.englishName() + ")");
+                System.out.println("      卡牌类型: " + card.cardType() + ", 正位含义: " + card.uprightMeaning());
             }
             
             // 测试2: 查找特定ID的牌
@@ -35,22 +36,22 @@ public class SimpleTarotTest {
             TarotCard foundCard = findCardById(testCards, testId);
             if (foundCard != null) {
                 System.out.println("   🔍 找到ID为" + testId + "的卡牌：");
-                System.out.println("   - 名称：" + foundCard.getName());
-                System.out.println("   - 英文名：" + foundCard.getEnglishName());
-                System.out.println("   - 卡牌类型：" + foundCard.getCardType());
-                System.out.println("   - 当前含义：" + foundCard.getCurrentMeaning());
+                System.out.println("   - 名称：" + foundCard.name());
+                System.out.println("   - 英文名：" + foundCard.englishName());
+                System.out.println("   - 卡牌类型：" + foundCard.cardType());
+                System.out.println("   - 正位含义：" + foundCard.uprightMeaning());
             } else {
                 System.out.println("   ❌ 未找到ID为" + testId + "的卡牌");
             }
             
             // 测试3: 随机抽一张牌
             System.out.println("\n4. 测试 - 随机抽取1张牌");
-            TarotCard randomCard = drawRandomCard(testCards);
+            DrawnCard randomCard = drawRandomCard(testCards);
             if (randomCard != null) {
                 System.out.println("   🎴 抽到的牌：");
-                System.out.println("   - 名称：" + randomCard.getName() + " (" + randomCard.getEnglishName() + ")");
-                System.out.println("   - 逆位状态：" + (randomCard.isReversed() ? "逆位" : "正位"));
-                System.out.println("   - 当前含义：" + randomCard.getCurrentMeaning());
+                System.out.println("   - 名称：" + randomCard.card().name() + " (" + randomCard.card().englishName() + ")");
+                System.out.println("   - 逆位状态：" + (randomCard.reversed() ? "逆位" : "正位"));
+                System.out.println("   - 当前含义：" + randomCard.currentMeaning());
             }
             
             // 测试4: 显示大阿卡那牌
@@ -58,7 +59,7 @@ public class SimpleTarotTest {
             List<TarotCard> majorArcanaCards = getMajorArcanaCards(testCards);
             System.out.println("   🧙 大阿卡那牌共有" + majorArcanaCards.size() + "张");
             for (TarotCard card : majorArcanaCards) {
-                System.out.println("   - " + card.getId() + ": " + card.getName() + " (" + card.getEnglishName() + ")");
+                System.out.println("   - " + card.id() + ": " + card.name() + " (" + card.englishName() + ")");
             }
             
             System.out.println("\n====== 测试完成 ======");
@@ -107,27 +108,13 @@ public class SimpleTarotTest {
     private static TarotCard createCard(String id, String name, String englishName, String description,
                                        String uprightMeaning, String reversedMeaning,
                                        TarotCard.CardType cardType, String suit) {
-        TarotCard card = new TarotCard();
-        card.setId(id);
-        card.setName(name);
-        card.setEnglishName(englishName);
-        card.setDescription(description);
-        card.setUprightMeaning(uprightMeaning);
-        card.setReversedMeaning(reversedMeaning);
-        card.setCardType(cardType);
-        card.setSuit(suit);
-        
-        // 随机设置逆位状态
-        Random random = new Random();
-        card.setReversed(random.nextDouble() < 0.3);
-        
-        return card;
+        return new TarotCard(id, name, englishName, uprightMeaning, reversedMeaning, description, cardType, suit);
     }
     
     // 按ID查找卡牌
     private static TarotCard findCardById(List<TarotCard> cards, String id) {
         for (TarotCard card : cards) {
-            if (card.getId().equals(id)) {
+            if (card.id().equals(id)) {
                 return card;
             }
         }
@@ -135,25 +122,22 @@ public class SimpleTarotTest {
     }
     
     // 随机抽取一张牌
-    private static TarotCard drawRandomCard(List<TarotCard> cards) {
+    private static DrawnCard drawRandomCard(List<TarotCard> cards) {
         if (cards.isEmpty()) {
             return null;
         }
         Random random = new Random();
         int index = random.nextInt(cards.size());
-        TarotCard card = cards.get(index);
-        
-        // 重新随机设置逆位状态
-        card.setReversed(random.nextDouble() < 0.3);
-        
-        return card;
+
+        // 随机决定逆位状态
+        return new DrawnCard(cards.get(index), index, random.nextDouble() < TarotCard.REVERSED_PROBABILITY, 0);
     }
     
     // 获取所有大阿卡那牌
     private static List<TarotCard> getMajorArcanaCards(List<TarotCard> cards) {
         List<TarotCard> result = new ArrayList<>();
         for (TarotCard card : cards) {
-            if (card.getCardType() == TarotCard.CardType.MAJOR_ARCANA) {
+            if (card.cardType() == TarotCard.CardType.MAJOR_ARCANA) {
                 result.add(card);
             }
         }
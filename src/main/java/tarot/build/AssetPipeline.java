@@ -0,0 +1,239 @@
+package tarot.build;
+
+import tarot.controller.AssetManifest;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * 构建期静态资源处理
+ * 在 prepare-package 阶段运行（见 pom.xml），读取 src/main/webapp，输出到 target/generated-webapp：
+ * <ul>
+ *     <li>压缩CSS/JS，文件名加上内容哈希，例如 css/tarot-styles.3f9a1c0b7e.css</li>
+ *     <li>改写 index.html 中对这些文件的引用</li>
+ *     <li>由 images 下的原图生成多种分辨率的卡牌图集、单张缩略图和坐标表（见 {@link CardAtlasBuilder}）</li>
+ *     <li>为每个文本资源生成最高压缩级别的 .gz 副本；PATH 中有 brotli 命令时再生成 .br 副本</li>
+ *     <li>写出 WEB-INF/asset-manifest.properties，记录原始路径到带哈希路径的映射</li>
+ * </ul>
+ * 运行时由 DefaultServlet 按 Accept-Encoding 直接发送预压缩文件，
+ * StaticAssetFilter 为带哈希的文件加上一年的 immutable 缓存头
+ */
+public final class AssetPipeline {
+
+    private static final Logger logger = LoggerFactory.getLogger(AssetPipeline.class);
+
+    // 相对于输出目录，运行时由 AssetManifest 读取
+    static final String MANIFEST_PATH = AssetManifest.RESOURCE_PATH.substring(1);
+
+    // 需要压缩并加哈希的资源目录
+    private static final List<String> ASSET_DIRECTORIES = List.of("css", "js");
+    private static final String INDEX_HTML = "index.html";
+    // 文件名中内容哈希的十六进制位数
+    static final int HASH_LENGTH = 10;
+
+    private final Path sourceDir;
+    private final Path outputDir;
+    private final String brotli;
+
+    public AssetPipeline(Path sourceDir, Path outputDir) {
+        this.sourceDir = sourceDir;
+        this.outputDir = outputDir;
+        this.brotli = findBrotli();
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 2) {
+            System.err.println("用法: AssetPipeline <webapp源目录> <输出目录>");
+            System.exit(2);
+        }
+        // 构建机通常没有图形环境，图片处理只需要离屏绘制
+        System.setProperty("java.awt.headless", "true");
+        new AssetPipeline(Paths.get(args[0]), Paths.get(args[1])).run();
+    }
+
+    public void run() throws IOException {
+        deleteRecursively(outputDir);
+        Files.createDirectories(outputDir);
+
+        Map<String, String> manifest = new TreeMap<>();
+        for (String directory : ASSET_DIRECTORIES) {
+            Path dir = sourceDir.resolve(directory);
+            if (!Files.isDirectory(dir)) {
+                continue;
+            }
+            try (Stream<Path> files = Files.list(dir)) {
+                for (Path file : files.sorted().toList()) {
+                    String name = file.getFileName().toString();
+                    if (name.endsWith(".css") || name.endsWith(".js")) {
+                        manifest.put(directory + "/" + name, processAsset(directory, file));
+                    }
+                }
+            }
+        }
+
+        for (CardAtlasBuilder.GeneratedAsset asset : new CardAtlasBuilder(sourceDir.resolve("images")).build()) {
+            Path target = outputDir.resolve(asset.hashedPath());
+            if (asset.path().endsWith(".json")) {
+                writeWithCompressedCopies(target, asset.content());
+            } else {
+                // JPEG已经压缩过，不再生成预压缩副本
+                Files.createDirectories(target.getParent());
+                Files.write(target, asset.content());
+            }
+            manifest.put(asset.path(), asset.hashedPath());
+        }
+
+        Path index = sourceDir.resolve(INDEX_HTML);
+        if (Files.isRegularFile(index)) {
+            String html = Files.readString(index, StandardCharsets.UTF_8);
+            for (Map.Entry<String, String> entry : manifest.entrySet()) {
+                html = html.replace("\"" + entry.getKey() + "\"", "\"" + entry.getValue() + "\"");
+            }
+            writeWithCompressedCopies(outputDir.resolve(INDEX_HTML), html.getBytes(StandardCharsets.UTF_8));
+        }
+
+        writeManifest(manifest);
+        if (brotli == null) {
+            logger.info("未找到brotli命令，只生成 .gz 预压缩文件");
+        }
+    }
+
+    /**
+     * 压缩单个资源并写出带哈希的文件
+     *
+     * @return 带哈希的相对路径
+     */
+    private String processAsset(String directory, Path file) throws IOException {
+        String name = file.getFileName().toString();
+        String source = Files.readString(file, StandardCharsets.UTF_8);
+        String minified = name.endsWith(".css") ? Minifier.css(source) : Minifier.js(source);
+        byte[] bytes = minified.getBytes(StandardCharsets.UTF_8);
+
+        String hashedPath = fingerprint(directory + "/" + name, bytes);
+        long compressed = writeWithCompressedCopies(outputDir.resolve(hashedPath), bytes);
+
+        logger.info("{} -> {}: {} 字节, 压缩后 {} 字节, gzip {} 字节",
+                directory + "/" + name, hashedPath, source.getBytes(StandardCharsets.UTF_8).length,
+                bytes.length, compressed);
+        return hashedPath;
+    }
+
+    /**
+     * 写出文件及其预压缩副本
+     *
+     * @return gzip副本的字节数
+     */
+    private long writeWithCompressedCopies(Path target, byte[] bytes) throws IOException {
+        Files.createDirectories(target.getParent());
+        Files.write(target, bytes);
+        byte[] gzipped = gzip(bytes);
+        Files.write(target.resolveSibling(target.getFileName() + ".gz"), gzipped);
+        if (brotli != null) {
+            compressWithBrotli(target);
+        }
+        return gzipped.length;
+    }
+
+    private void writeManifest(Map<String, String> manifest) throws IOException {
+        StringBuilder content = new StringBuilder("# 由 tarot.build.AssetPipeline 生成，原始路径=带内容哈希的路径\n");
+        manifest.forEach((original, hashed) -> content.append(original).append('=').append(hashed).append('\n'));
+        Path target = outputDir.resolve(MANIFEST_PATH);
+        Files.createDirectories(target.getParent());
+        // 用UTF-8写出，读取时需要用Reader加载
+        Files.writeString(target, content, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * 在扩展名前插入内容哈希：css/a.css -> css/a.3c2dfcad74.css
+     */
+    static String fingerprint(String path, byte[] content) {
+        int dot = path.lastIndexOf('.');
+        return path.substring(0, dot) + "." + contentHash(content) + path.substring(dot);
+    }
+
+    static String contentHash(byte[] bytes) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(bytes);
+            return HexFormat.of().formatHex(digest).substring(0, HASH_LENGTH);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("JVM不支持SHA-256", e);
+        }
+    }
+
+    static byte[] gzip(byte[] bytes) throws IOException {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(bytes.length / 3);
+        try (OutputStream out = new GZIPOutputStream(buffer) {
+            {
+                def.setLevel(Deflater.BEST_COMPRESSION);
+            }
+        }) {
+            out.write(bytes);
+        }
+        return buffer.toByteArray();
+    }
+
+    /**
+     * JDK没有brotli编码器，只能调用外部命令；命令不存在时跳过
+     */
+    private static String findBrotli() {
+        String path = System.getenv("PATH");
+        if (path == null) {
+            return null;
+        }
+        for (String dir : path.split(java.io.File.pathSeparator)) {
+            for (String name : List.of("brotli", "brotli.exe")) {
+                Path candidate = Paths.get(dir, name);
+                if (Files.isExecutable(candidate)) {
+                    return candidate.toString();
+                }
+            }
+        }
+        return null;
+    }
+
+    private void compressWithBrotli(Path target) throws IOException {
+        Process process = new ProcessBuilder(brotli, "--best", "--force", "--keep",
+                "--output=" + target + ".br", target.toString())
+                .redirectErrorStream(true)
+                .start();
+        try {
+            if (!process.waitFor(60, TimeUnit.SECONDS) || process.exitValue() != 0) {
+                process.destroyForcibly();
+                throw new IOException("brotli压缩失败: " + target + "\n"
+                        + new String(process.getInputStream().readAllBytes(), StandardCharsets.UTF_8));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("brotli压缩被中断: " + target, e);
+        }
+    }
+
+    private static void deleteRecursively(Path dir) throws IOException {
+        if (!Files.exists(dir)) {
+            return;
+        }
+        try (Stream<Path> paths = Files.walk(dir)) {
+            for (Path path : paths.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(path);
+            }
+        }
+    }
+}
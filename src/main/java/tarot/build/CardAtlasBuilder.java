@@ -0,0 +1,318 @@
+package tarot.build;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import tarot.data.TarotCardData;
+import tarot.model.TarotCard;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * 构建期卡牌图集
+ * 只用JDK的 javax.imageio 读取 images 目录下的原图（文件名为中文牌名），生成：
+ * <ul>
+ *     <li>多种分辨率的图集：所有牌按同一网格排进一张或几张JPEG，images/atlas/cards-{宽度}-{序号}.{哈希}.jpg</li>
+ *     <li>单张缩略图：images/cards/{牌ID}-{宽度}.{哈希}.jpg，用于结果页和预加载</li>
+ *     <li>坐标表 images/atlas/cards.{哈希}.json，按牌ID给出所在图集和网格位置</li>
+ * </ul>
+ * 所有分辨率共用同一网格，前端按百分比设置 background-size/background-position，与元素实际尺寸无关
+ */
+final class CardAtlasBuilder {
+
+    private static final Logger logger = LoggerFactory.getLogger(CardAtlasBuilder.class);
+
+    static final String ATLAS_JSON = "images/atlas/cards.json";
+
+    // 图集中每张牌的宽度，高度按原图比例计算；对应卡堆的 80px 卡牌及其2倍、4倍高分屏
+    private static final int[] ATLAS_WIDTHS = { 80, 160, 320 };
+    // 单张缩略图宽度
+    private static final int[] THUMBNAIL_WIDTHS = { 160, 320 };
+    // 单张图集的最大边长，超出后换下一张
+    private static final int MAX_SHEET_SIZE = 4096;
+    private static final float JPEG_QUALITY = 0.85f;
+
+    private static final Pattern MAJOR_FILE = Pattern.compile("(\\d+)\\..+");
+    private static final Map<String, String> SUITS = Map.of(
+            "权杖", "wands", "圣杯", "cups", "宝剑", "swords", "星币", "pentacles");
+    private static final Map<String, String> RANKS = Map.ofEntries(
+            Map.entry("王牌", "ace"), Map.entry("首牌", "ace"),
+            Map.entry("二", "2"), Map.entry("三", "3"), Map.entry("四", "4"), Map.entry("五", "5"),
+            Map.entry("六", "6"), Map.entry("七", "7"), Map.entry("八", "8"), Map.entry("九", "9"),
+            Map.entry("十", "10"),
+            Map.entry("侍者", "page"), Map.entry("侍从", "page"), Map.entry("骑士", "knight"),
+            Map.entry("皇后", "queen"), Map.entry("王后", "queen"), Map.entry("国王", "king"));
+
+    /**
+     * 生成的文件
+     *
+     * @param path       不带哈希的逻辑路径，写入资源清单
+     * @param hashedPath 实际写出的带哈希路径
+     */
+    record GeneratedAsset(String path, String hashedPath, byte[] content) {
+    }
+
+    private record SourceImage(String cardId, BufferedImage image) {
+    }
+
+    private final Path imageDir;
+
+    CardAtlasBuilder(Path imageDir) {
+        this.imageDir = imageDir;
+    }
+
+    /**
+     * @return 按写出顺序排列的文件，坐标表在最后；没有可用图片时返回空列表
+     */
+    List<GeneratedAsset> build() throws IOException {
+        List<SourceImage> images = readImages();
+        if (images.isEmpty()) {
+            return List.of();
+        }
+        BufferedImage first = images.get(0).image();
+        double aspect = (double) first.getHeight() / first.getWidth();
+
+        // 网格由最大分辨率决定，保证每张图集都不超过 MAX_SHEET_SIZE
+        int maxWidth = ATLAS_WIDTHS[ATLAS_WIDTHS.length - 1];
+        int columns = Math.max(1, Math.min(images.size(), MAX_SHEET_SIZE / maxWidth));
+        int rowsPerSheet = Math.max(1, MAX_SHEET_SIZE / cellHeight(maxWidth, aspect));
+        int perSheet = columns * rowsPerSheet;
+        int sheetCount = (images.size() + perSheet - 1) / perSheet;
+
+        List<GeneratedAsset> assets = new ArrayList<>();
+        Map<Integer, List<String>> sheetPaths = new LinkedHashMap<>();
+        for (int width : ATLAS_WIDTHS) {
+            int height = cellHeight(width, aspect);
+            List<String> paths = new ArrayList<>();
+            for (int sheet = 0; sheet < sheetCount; sheet++) {
+                int from = sheet * perSheet;
+                int count = Math.min(perSheet, images.size() - from);
+                int rows = (count + columns - 1) / columns;
+                BufferedImage atlas = new BufferedImage(columns * width, rows * height, BufferedImage.TYPE_INT_RGB);
+                Graphics2D g = atlas.createGraphics();
+                try {
+                    for (int i = 0; i < count; i++) {
+                        BufferedImage scaled = scale(images.get(from + i).image(), width, height);
+                        g.drawImage(scaled, (i % columns) * width, (i / columns) * height, null);
+                    }
+                } finally {
+                    g.dispose();
+                }
+                GeneratedAsset asset = asset("images/atlas/cards-" + width + "-" + sheet + ".jpg", jpeg(atlas));
+                assets.add(asset);
+                paths.add(asset.hashedPath());
+                logger.info("图集 {}: {}x{}, {} 张, {} 字节",
+                        asset.hashedPath(), atlas.getWidth(), atlas.getHeight(), count, asset.content().length);
+            }
+            sheetPaths.put(width, paths);
+        }
+
+        Map<String, Map<Integer, String>> thumbnails = new LinkedHashMap<>();
+        for (SourceImage source : images) {
+            Map<Integer, String> byWidth = new LinkedHashMap<>();
+            for (int width : THUMBNAIL_WIDTHS) {
+                BufferedImage scaled = scale(source.image(), width, cellHeight(width, aspect));
+                GeneratedAsset asset = asset("images/cards/" + source.cardId() + "-" + width + ".jpg", jpeg(scaled));
+                assets.add(asset);
+                byWidth.put(width, asset.hashedPath());
+            }
+            thumbnails.put(source.cardId(), byWidth);
+        }
+
+        byte[] json = coordinateMap(images, aspect, columns, perSheet, sheetCount, sheetPaths, thumbnails);
+        assets.add(asset(ATLAS_JSON, json));
+        return assets;
+    }
+
+    /**
+     * 读取所有能识别出牌ID的图片，按牌在 TarotCardData 中的顺序排列
+     */
+    private List<SourceImage> readImages() throws IOException {
+        if (!Files.isDirectory(imageDir)) {
+            return List.of();
+        }
+        List<String> order = TarotCardData.getAllTarotCards().stream().map(TarotCard::id).toList();
+        Set<String> known = Set.copyOf(order);
+        Map<String, Path> files = new LinkedHashMap<>();
+        try (Stream<Path> paths = Files.list(imageDir)) {
+            for (Path file : paths.sorted().toList()) {
+                String name = file.getFileName().toString();
+                if (!name.toLowerCase().endsWith(".png") && !name.toLowerCase().endsWith(".jpg")) {
+                    continue;
+                }
+                String cardId = cardId(name.substring(0, name.lastIndexOf('.')));
+                if (cardId == null || !known.contains(cardId)) {
+                    logger.warn("无法从文件名识别牌ID，跳过: {}", name);
+                    continue;
+                }
+                if (files.putIfAbsent(cardId, file) != null) {
+                    logger.warn("牌 {} 有多张图片，跳过: {}", cardId, name);
+                }
+            }
+        }
+
+        List<SourceImage> images = new ArrayList<>(files.size());
+        for (String cardId : order) {
+            Path file = files.get(cardId);
+            if (file == null) {
+                continue;
+            }
+            // 经由Path读取：文件名无法按平台编码解码时（例如在POSIX/C语言环境下构建），
+            // 转换成File会丢失原始字节而找不到文件，Path仍然保留着目录列举得到的原始文件名
+            BufferedImage image;
+            try (InputStream in = Files.newInputStream(file)) {
+                image = ImageIO.read(in);
+            } catch (IOException e) {
+                logger.warn("读取图片失败，跳过: {}: {}", file.getFileName(), e.getMessage());
+                continue;
+            }
+            if (image == null) {
+                logger.warn("无法解码图片，跳过: {}", file.getFileName());
+                continue;
+            }
+            images.add(new SourceImage(cardId, image));
+        }
+        logger.info("读取 {} 张卡牌图片，{} 张牌没有图片，前端显示文字牌面",
+                images.size(), order.size() - images.size());
+        return images;
+    }
+
+    /**
+     * 把文件名映射为牌ID：大阿卡纳以编号开头（"0.愚者" -> "0"），小阿卡纳为花色加牌面（"圣杯侍者" -> "cups_page"）
+     *
+     * @return 无法识别时返回null
+     */
+    static String cardId(String baseName) {
+        Matcher major = MAJOR_FILE.matcher(baseName);
+        if (major.matches()) {
+            return String.valueOf(Integer.parseInt(major.group(1)));
+        }
+        if (baseName.length() < 3) {
+            return null;
+        }
+        String suit = SUITS.get(baseName.substring(0, 2));
+        String rank = RANKS.get(baseName.substring(2));
+        return suit == null || rank == null ? null : suit + "_" + rank;
+    }
+
+    private static byte[] coordinateMap(List<SourceImage> images, double aspect, int columns, int perSheet,
+                                        int sheetCount, Map<Integer, List<String>> sheetPaths,
+                                        Map<String, Map<Integer, String>> thumbnails) throws IOException {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        try (JsonGenerator json = new JsonFactory().createGenerator(buffer, JsonEncoding.UTF8)) {
+            json.writeStartObject();
+            json.writeNumberField("columns", columns);
+            // 每张图集的行数，最后一张可能不满
+            json.writeArrayFieldStart("rows");
+            for (int sheet = 0; sheet < sheetCount; sheet++) {
+                int count = Math.min(perSheet, images.size() - sheet * perSheet);
+                json.writeNumber((count + columns - 1) / columns);
+            }
+            json.writeEndArray();
+
+            json.writeArrayFieldStart("resolutions");
+            for (Map.Entry<Integer, List<String>> entry : sheetPaths.entrySet()) {
+                json.writeStartObject();
+                json.writeNumberField("width", entry.getKey());
+                json.writeNumberField("height", cellHeight(entry.getKey(), aspect));
+                json.writeArrayFieldStart("sheets");
+                for (String path : entry.getValue()) {
+                    json.writeString(path);
+                }
+                json.writeEndArray();
+                json.writeEndObject();
+            }
+            json.writeEndArray();
+
+            json.writeObjectFieldStart("cards");
+            for (int i = 0; i < images.size(); i++) {
+                String cardId = images.get(i).cardId();
+                int index = i % perSheet;
+                json.writeObjectFieldStart(cardId);
+                json.writeNumberField("sheet", i / perSheet);
+                json.writeNumberField("col", index % columns);
+                json.writeNumberField("row", index / columns);
+                json.writeObjectFieldStart("thumbnails");
+                for (Map.Entry<Integer, String> thumbnail : thumbnails.get(cardId).entrySet()) {
+                    json.writeStringField(String.valueOf(thumbnail.getKey()), thumbnail.getValue());
+                }
+                json.writeEndObject();
+                json.writeEndObject();
+            }
+            json.writeEndObject();
+            json.writeEndObject();
+        }
+        return buffer.toByteArray();
+    }
+
+    private static GeneratedAsset asset(String path, byte[] content) {
+        return new GeneratedAsset(path, AssetPipeline.fingerprint(path, content), content);
+    }
+
+    private static int cellHeight(int width, double aspect) {
+        return (int) Math.round(width * aspect);
+    }
+
+    /**
+     * 逐级减半缩小后再缩放到目标尺寸，一次性双线性缩小十几倍会严重失真
+     */
+    static BufferedImage scale(BufferedImage source, int width, int height) {
+        BufferedImage current = source;
+        while (current.getWidth() / 2 >= width && current.getHeight() / 2 >= height) {
+            current = resize(current, current.getWidth() / 2, current.getHeight() / 2);
+        }
+        return current.getWidth() == width && current.getHeight() == height
+                ? current : resize(current, width, height);
+    }
+
+    private static BufferedImage resize(BufferedImage source, int width, int height) {
+        BufferedImage target = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = target.createGraphics();
+        try {
+            g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            g.drawImage(source, 0, 0, width, height, null);
+        } finally {
+            g.dispose();
+        }
+        return target;
+    }
+
+    private static byte[] jpeg(BufferedImage image) throws IOException {
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+        ImageWriteParam param = writer.getDefaultWriteParam();
+        param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+        param.setCompressionQuality(JPEG_QUALITY);
+        param.setProgressiveMode(ImageWriteParam.MODE_DEFAULT);
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        try (ImageOutputStream out = ImageIO.createImageOutputStream(buffer)) {
+            writer.setOutput(out);
+            writer.write(null, new IIOImage(image, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+        return buffer.toByteArray();
+    }
+}
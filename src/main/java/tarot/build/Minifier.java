@@ -0,0 +1,224 @@
+package tarot.build;
+
+/**
+ * 保守的CSS/JS压缩器
+ * 只删除注释和多余空白，不改写标识符，也不合并语句：
+ * JS保留所有换行，避免影响自动分号插入；字符串、模板字符串和正则字面量原样保留
+ */
+final class Minifier {
+
+    private Minifier() {
+    }
+
+    /**
+     * 压缩CSS：去掉注释，空白折叠为一个空格，去掉 { } ; , 两侧以及 } 前最后一个分号
+     * 不处理冒号和运算符两侧的空白（选择器中的 "a :hover" 与 calc() 中的 "+ -" 都依赖空格）
+     */
+    static String css(String source) {
+        StringBuilder out = new StringBuilder(source.length());
+        int length = source.length();
+        int i = 0;
+        while (i < length) {
+            char c = source.charAt(i);
+            if (c == '/' && i + 1 < length && source.charAt(i + 1) == '*') {
+                int end = source.indexOf("*/", i + 2);
+                i = end < 0 ? length : end + 2;
+                continue;
+            }
+            if (c == '"' || c == '\'') {
+                int end = skipString(source, i, c);
+                out.append(source, i, end);
+                i = end;
+                continue;
+            }
+            if (Character.isWhitespace(c)) {
+                while (i < length && Character.isWhitespace(source.charAt(i))) {
+                    i++;
+                }
+                if (out.length() > 0 && i < length
+                        && !isCssPunctuation(out.charAt(out.length() - 1)) && !isCssPunctuation(source.charAt(i))
+                        && !source.startsWith("/*", i)) {
+                    out.append(' ');
+                }
+                continue;
+            }
+            if (c == '}' && out.length() > 0 && out.charAt(out.length() - 1) == ';') {
+                out.setLength(out.length() - 1);
+            }
+            out.append(c);
+            i++;
+        }
+        return out.toString();
+    }
+
+    private static boolean isCssPunctuation(char c) {
+        return c == '{' || c == '}' || c == ';' || c == ',';
+    }
+
+    /**
+     * 压缩JS：去掉注释、行首缩进和空行，行内连续空白折叠为一个空格
+     * 模板字符串中的 ${...} 按代码处理，可以嵌套
+     */
+    static String js(String source) {
+        StringBuilder out = new StringBuilder(source.length());
+        int length = source.length();
+        // 每进入一层模板字符串插值，记录进入时的花括号深度
+        int[] templateStack = new int[16];
+        int templateDepth = 0;
+        int braceDepth = 0;
+        boolean inTemplate = false;
+        int i = 0;
+        while (i < length) {
+            char c = source.charAt(i);
+
+            if (inTemplate) {
+                if (c == '\\' && i + 1 < length) {
+                    out.append(c).append(source.charAt(i + 1));
+                    i += 2;
+                } else if (c == '`') {
+                    out.append(c);
+                    inTemplate = false;
+                    i++;
+                } else if (c == '$' && i + 1 < length && source.charAt(i + 1) == '{') {
+                    out.append("${");
+                    templateStack[templateDepth++] = braceDepth++;
+                    inTemplate = false;
+                    i += 2;
+                } else {
+                    out.append(c);
+                    i++;
+                }
+                continue;
+            }
+
+            if (c == '/' && i + 1 < length && source.charAt(i + 1) == '/') {
+                int end = source.indexOf('\n', i);
+                i = end < 0 ? length : end;
+                continue;
+            }
+            if (c == '/' && i + 1 < length && source.charAt(i + 1) == '*') {
+                int end = source.indexOf("*/", i + 2);
+                i = end < 0 ? length : end + 2;
+                continue;
+            }
+            if (c == '"' || c == '\'') {
+                int end = skipString(source, i, c);
+                out.append(source, i, end);
+                i = end;
+                continue;
+            }
+            if (c == '/' && isRegexStart(out)) {
+                int end = skipRegex(source, i);
+                out.append(source, i, end);
+                i = end;
+                continue;
+            }
+            if (c == '`') {
+                out.append(c);
+                inTemplate = true;
+                i++;
+                continue;
+            }
+            if (c == '{') {
+                braceDepth++;
+            } else if (c == '}') {
+                braceDepth--;
+                if (templateDepth > 0 && templateStack[templateDepth - 1] == braceDepth) {
+                    templateDepth--;
+                    out.append(c);
+                    inTemplate = true;
+                    i++;
+                    continue;
+                }
+            }
+            if (c == '\n' || c == '\r') {
+                // 保留换行，去掉行尾空白和空行
+                trimTrailingSpaces(out);
+                if (out.length() > 0 && out.charAt(out.length() - 1) != '\n') {
+                    out.append('\n');
+                }
+                i++;
+                continue;
+            }
+            if (c == ' ' || c == '\t') {
+                while (i < length && (source.charAt(i) == ' ' || source.charAt(i) == '\t')) {
+                    i++;
+                }
+                // 行首缩进直接丢弃
+                if (out.length() > 0 && out.charAt(out.length() - 1) != '\n') {
+                    out.append(' ');
+                }
+                continue;
+            }
+            out.append(c);
+            i++;
+        }
+        trimTrailingSpaces(out);
+        return out.toString();
+    }
+
+    /**
+     * 根据前一个有效字符判断斜杠是否开始正则字面量（而不是除号）
+     */
+    private static boolean isRegexStart(StringBuilder out) {
+        for (int i = out.length() - 1; i >= 0; i--) {
+            char c = out.charAt(i);
+            if (c == ' ' || c == '\n') {
+                continue;
+            }
+            return "(,=:[!&|?{};+-*%<>~^".indexOf(c) >= 0;
+        }
+        return true;
+    }
+
+    private static int skipString(String source, int start, char quote) {
+        int i = start + 1;
+        while (i < source.length()) {
+            char c = source.charAt(i);
+            if (c == '\\') {
+                i += 2;
+                continue;
+            }
+            i++;
+            if (c == quote || c == '\n') {
+                break;
+            }
+        }
+        return Math.min(i, source.length());
+    }
+
+    private static int skipRegex(String source, int start) {
+        int i = start + 1;
+        boolean inClass = false;
+        while (i < source.length()) {
+            char c = source.charAt(i);
+            if (c == '\\') {
+                i += 2;
+                continue;
+            }
+            i++;
+            if (c == '[') {
+                inClass = true;
+            } else if (c == ']') {
+                inClass = false;
+            } else if (c == '/' && !inClass) {
+                break;
+            } else if (c == '\n') {
+                break;
+            }
+        }
+        // 标志位
+        while (i < source.length() && Character.isLetter(source.charAt(i))) {
+            i++;
+        }
+        return Math.min(i, source.length());
+    }
+
+    private static void trimTrailingSpaces(StringBuilder out) {
+        int end = out.length();
+        while (end > 0 && out.charAt(end - 1) == ' ') {
+            end--;
+        }
+        out.setLength(end);
+    }
+}
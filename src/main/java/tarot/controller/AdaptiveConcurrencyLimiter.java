@@ -0,0 +1,175 @@
+package tarot.controller;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 自适应并发限制（梯度算法）
+ * 不预先设定容量，而是根据延迟的变化持续估计“不排队时能同时处理多少请求”：
+ * 每个采样窗口取平均处理时间（短期RTT），与基线RTT（最近一两个周期内各窗口的最小值）比较，
+ * 短期RTT明显变长说明请求开始排队，按比例收缩上限（乘性减）；延迟平稳时每个窗口增加约√limit继续探测（加性增）。
+ * 基线按周期轮换而不是取指数平均，持续过载时基线不会跟着延迟一起上涨，上限会一直收缩到延迟回落为止。
+ * <p>
+ * 进行中的请求数达到上限时新请求立即被拒绝，不在任何地方排队。
+ * 放行路径只有一次CAS；窗口结束时由恰好完成请求的线程用tryLock更新上限，其他线程不等待
+ */
+final class AdaptiveConcurrencyLimiter {
+
+    // 采样窗口：至少这么长，且至少有这么多个样本
+    private static final long WINDOW_NANOS = 100_000_000L;
+    private static final int MIN_WINDOW_SAMPLES = 10;
+    // 基线周期的窗口数（约1分钟），基线取本周期和上一周期的最小值，请求变慢（例如数据变大）后最多两个周期跟上
+    private static final int BASELINE_WINDOWS = 600;
+    // 短期RTT不超过长期RTT的这个倍数时不收缩
+    private static final double RTT_TOLERANCE = 1.5;
+    // 每个窗口新估计值的权重
+    private static final double SMOOTHING = 0.2;
+
+    private final int minLimit;
+    private final int maxLimit;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private volatile double limit;
+    private volatile double estimate;
+
+    private final LongAdder windowRttNanos = new LongAdder();
+    private final LongAdder windowSamples = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    // 窗口内进行中请求数的峰值，用于判断负载是否真的接近上限
+    private final AtomicInteger windowPeak = new AtomicInteger();
+    private final ReentrantLock updateLock = new ReentrantLock();
+
+    // 以下字段只在持有updateLock时写入（volatile是为了导出指标和在放行路径上读取）
+    private volatile long windowEnd;
+    private volatile double shortRttNanos;
+    private volatile double baselineRttNanos;
+    private double currentPeriodMin = Double.MAX_VALUE;
+    private double previousPeriodMin = Double.MAX_VALUE;
+    private int periodWindows;
+
+    AdaptiveConcurrencyLimiter(int initialLimit, int minLimit, int maxLimit) {
+        if (minLimit < 1 || maxLimit < minLimit || initialLimit < minLimit || initialLimit > maxLimit) {
+            throw new IllegalArgumentException("并发上限参数无效: initial=" + initialLimit + ", min=" + minLimit
+                    + ", max=" + maxLimit);
+        }
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.limit = initialLimit;
+        this.estimate = initialLimit;
+        this.windowEnd = System.nanoTime() + WINDOW_NANOS;
+    }
+
+    /**
+     * 尝试占用一个并发名额
+     *
+     * @return 开始时间（传给release），超过上限时返回-1
+     */
+    long tryAcquire() {
+        int max = (int) limit;
+        while (true) {
+            int current = inFlight.get();
+            if (current >= max) {
+                rejected.increment();
+                return -1;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return System.nanoTime();
+            }
+        }
+    }
+
+    /**
+     * 请求处理完成，记录延迟并归还名额
+     *
+     * @param startNanos tryAcquire的返回值
+     */
+    void release(long startNanos) {
+        release(startNanos, 1);
+    }
+
+    /**
+     * 请求处理完成，按工作量折算延迟后记录，并归还名额
+     * 批量请求一次生成多条占卜，整体处理时间远长于单条，直接计入会把窗口平均值拉高、误判为排队；
+     * 折算为每条的处理时间后与单条请求可比。工作量为0时只归还名额、不记录样本（例如只计到建立连接为止的事件流）
+     *
+     * @param startNanos tryAcquire的返回值
+     * @param units      本次请求完成的工作量（占卜条数）
+     */
+    void release(long startNanos, int units) {
+        long now = System.nanoTime();
+        int current = inFlight.getAndDecrement();
+        if (units <= 0) {
+            return;
+        }
+        windowRttNanos.add((now - startNanos) / units);
+        windowSamples.increment();
+        if (current > windowPeak.get()) {
+            windowPeak.accumulateAndGet(current, Math::max);
+        }
+        if (now - windowEnd >= 0 && updateLock.tryLock()) {
+            try {
+                if (now - windowEnd >= 0) {
+                    updateLimit(now);
+                }
+            } finally {
+                updateLock.unlock();
+            }
+        }
+    }
+
+    private void updateLimit(long now) {
+        long samples = windowSamples.sum();
+        if (samples < MIN_WINDOW_SAMPLES) {
+            return;
+        }
+        double rtt = Math.max(1.0, (double) windowRttNanos.sumThenReset() / windowSamples.sumThenReset());
+        int peak = windowPeak.getAndSet(0);
+        windowEnd = now + WINDOW_NANOS;
+
+        currentPeriodMin = Math.min(currentPeriodMin, rtt);
+        if (++periodWindows >= BASELINE_WINDOWS) {
+            previousPeriodMin = currentPeriodMin;
+            currentPeriodMin = rtt;
+            periodWindows = 0;
+        }
+        double baseline = Math.min(currentPeriodMin, previousPeriodMin);
+        shortRttNanos = rtt;
+        baselineRttNanos = baseline;
+
+        double current = limit;
+        // 负载没有接近上限时，延迟说明不了上限是否合适，保持不变，避免空闲时上限无限增长
+        if (peak < current / 2) {
+            return;
+        }
+        double gradient = Math.max(0.5, Math.min(1.0, RTT_TOLERANCE * baseline / rtt));
+        double next = current * gradient + Math.sqrt(current);
+        estimate = next;
+        next = current * (1 - SMOOTHING) + next * SMOOTHING;
+        limit = Math.max(minLimit, Math.min(maxLimit, next));
+    }
+
+    long getLimit() {
+        return (long) limit;
+    }
+
+    long getEstimate() {
+        return Math.round(estimate);
+    }
+
+    long getInFlight() {
+        return inFlight.get();
+    }
+
+    long getRejectedCount() {
+        return rejected.sum();
+    }
+
+    long getShortRttMicros() {
+        return (long) (shortRttNanos / 1000);
+    }
+
+    long getBaselineRttMicros() {
+        return (long) (baselineRttNanos / 1000);
+    }
+}
@@ -0,0 +1,136 @@
+package tarot.controller;
+
+import jakarta.servlet.ServletContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.StringJoiner;
+import java.util.TreeMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * 构建期生成的资源清单（WEB-INF/asset-manifest.properties，由 tarot.build.AssetPipeline 写出）
+ * 启动时读取一次，把原始路径映射为带内容哈希的路径，并预先拼好 Link: rel=preload 头：
+ * 入口页面预加载CSS/JS和图集坐标表，占卜结果按抽到的牌ID预加载对应缩略图。
+ * 直接部署源码目录（没有经过打包）时清单不存在，所有预加载头为null
+ */
+public final class AssetManifest {
+
+    private static final Logger logger = LoggerFactory.getLogger(AssetManifest.class);
+
+    public static final String RESOURCE_PATH = "/WEB-INF/asset-manifest.properties";
+
+    // 单张缩略图的逻辑路径：images/cards/{牌ID}-{宽度}.jpg
+    private static final Pattern THUMBNAIL = Pattern.compile("images/cards/(.+)-(\\d+)\\.jpg");
+
+    private static final AssetManifest EMPTY = new AssetManifest(Map.of(), "");
+
+    private final Map<String, String> entries;
+    private final String indexPreloadLinks;
+    private final Map<String, String> cardPreloadLinks;
+
+    private AssetManifest(Map<String, String> entries, String contextPath) {
+        this.entries = entries;
+        this.indexPreloadLinks = buildIndexPreloadLinks(contextPath);
+        this.cardPreloadLinks = buildCardPreloadLinks(contextPath);
+    }
+
+    /**
+     * 从Web应用中读取清单，不存在或读取失败时返回空清单
+     */
+    public static AssetManifest load(ServletContext context) {
+        try (InputStream in = context.getResourceAsStream(RESOURCE_PATH)) {
+            if (in == null) {
+                logger.info("未找到资源清单 {}，不发送预加载头", RESOURCE_PATH);
+                return EMPTY;
+            }
+            Properties properties = new Properties();
+            properties.load(new InputStreamReader(in, StandardCharsets.UTF_8));
+            Map<String, String> entries = new HashMap<>();
+            properties.stringPropertyNames().forEach(name -> entries.put(name, properties.getProperty(name)));
+            AssetManifest manifest = new AssetManifest(Map.copyOf(entries), context.getContextPath());
+            logger.info("资源清单加载完成: {} 个文件，{} 张牌有缩略图",
+                    entries.size(), manifest.cardPreloadLinks.size());
+            return manifest;
+        } catch (IOException e) {
+            logger.warn("读取资源清单失败: {}", e.getMessage());
+            return EMPTY;
+        }
+    }
+
+    /**
+     * @return 带哈希的相对路径，清单中没有时返回null
+     */
+    public String resolve(String path) {
+        return entries.get(path);
+    }
+
+    /**
+     * 入口页面的预加载头：样式、脚本和图集坐标表，清单为空时返回null
+     */
+    public String indexPreloadLinks() {
+        return indexPreloadLinks;
+    }
+
+    /**
+     * 某张牌缩略图的预加载头（带imagesrcset，与结果页img的srcset一致），没有图片时返回null
+     */
+    public String cardPreloadLink(String cardId) {
+        return cardPreloadLinks.get(cardId);
+    }
+
+    private String buildIndexPreloadLinks(String contextPath) {
+        StringJoiner links = new StringJoiner(", ");
+        // 顺序即浏览器发起请求的优先顺序
+        entries.entrySet().stream()
+                .filter(entry -> entry.getKey().startsWith("css/") && entry.getKey().endsWith(".css"))
+                .sorted(Map.Entry.comparingByKey())
+                .forEach(entry -> links.add(link(contextPath, entry.getValue()) + "; rel=preload; as=style"));
+        entries.entrySet().stream()
+                .filter(entry -> entry.getKey().startsWith("js/") && entry.getKey().endsWith(".js"))
+                .sorted(Map.Entry.comparingByKey())
+                .forEach(entry -> links.add(link(contextPath, entry.getValue()) + "; rel=preload; as=script"));
+        String atlas = entries.get("images/atlas/cards.json");
+        if (atlas != null) {
+            // 与页面中 fetch() 的默认凭据模式一致，否则预加载的响应不会被复用
+            links.add(link(contextPath, atlas) + "; rel=preload; as=fetch; crossorigin");
+        }
+        return links.length() == 0 ? null : links.toString();
+    }
+
+    private Map<String, String> buildCardPreloadLinks(String contextPath) {
+        Map<String, TreeMap<Integer, String>> thumbnails = new HashMap<>();
+        for (Map.Entry<String, String> entry : entries.entrySet()) {
+            Matcher matcher = THUMBNAIL.matcher(entry.getKey());
+            if (matcher.matches()) {
+                thumbnails.computeIfAbsent(matcher.group(1), id -> new TreeMap<>())
+                        .put(Integer.parseInt(matcher.group(2)), entry.getValue());
+            }
+        }
+
+        Map<String, String> links = new HashMap<>();
+        thumbnails.forEach((cardId, byWidth) -> {
+            int baseWidth = byWidth.firstKey();
+            List<String> candidates = new ArrayList<>();
+            byWidth.forEach((width, path) ->
+                    candidates.add(contextPath + "/" + path + " " + (width / baseWidth) + "x"));
+            links.put(cardId, link(contextPath, byWidth.firstEntry().getValue())
+                    + "; rel=preload; as=image; imagesrcset=\"" + String.join(", ", candidates) + "\"");
+        });
+        return Map.copyOf(links);
+    }
+
+    private static String link(String contextPath, String path) {
+        return "<" + contextPath + "/" + path + ">";
+    }
+}
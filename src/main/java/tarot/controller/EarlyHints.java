@@ -0,0 +1,71 @@
+package tarot.controller;
+
+import jakarta.servlet.ServletResponse;
+import jakarta.servlet.ServletResponseWrapper;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+
+/**
+ * 发送 103 Early Hints
+ * Servlet 6.1 API 中还没有 sendEarlyHints()，Tomcat 11 的响应对象（ResponseFacade）已经提供，
+ * 这里剥掉包装后按实际类型查找一次并缓存方法句柄；其他容器上没有该方法时什么也不做。
+ * 103 响应携带调用时已设置的全部响应头，最终响应中仍保留同样的 Link 头，不支持 103 的客户端也能用来预加载
+ */
+public final class EarlyHints {
+
+    private static final Logger logger = LoggerFactory.getLogger(EarlyHints.class);
+
+    private static final ClassValue<MethodHandle> SEND_EARLY_HINTS = new ClassValue<>() {
+        @Override
+        protected MethodHandle computeValue(Class<?> type) {
+            try {
+                return MethodHandles.publicLookup().findVirtual(type, "sendEarlyHints", MethodType.methodType(void.class));
+            } catch (NoSuchMethodException | IllegalAccessException e) {
+                logger.info("{} 不支持 103 Early Hints，只发送 Link 头", type.getName());
+                return null;
+            }
+        }
+    };
+
+    private EarlyHints() {
+    }
+
+    /**
+     * 设置 Link 头并立即发送 103，必须在写出响应体之前调用
+     *
+     * @param links 预先拼好的 Link 头的值，为null时不做任何事
+     * @return 是否发送了103
+     */
+    public static boolean send(HttpServletRequest request, HttpServletResponse response, String links) {
+        if (links == null) {
+            return false;
+        }
+        response.addHeader("Link", links);
+        // HTTP/1.0 客户端无法识别1xx响应；HEAD请求没有需要等待的响应体
+        if (response.isCommitted() || "HTTP/1.0".equals(request.getProtocol())
+                || "HEAD".equals(request.getMethod())) {
+            return false;
+        }
+        ServletResponse target = response;
+        while (target instanceof ServletResponseWrapper wrapper) {
+            target = wrapper.getResponse();
+        }
+        MethodHandle handle = SEND_EARLY_HINTS.get(target.getClass());
+        if (handle == null) {
+            return false;
+        }
+        try {
+            handle.invoke(target);
+            return true;
+        } catch (Throwable e) {
+            logger.debug("发送 103 Early Hints 失败: {}", e.getMessage());
+            return false;
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package tarot.controller;
+
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * HEAD请求的响应包装
+ * 没有专用HEAD处理器的路由照常执行GET处理器，写出的响应体只计数不发送，结束时补上Content-Length
+ */
+final class HeadResponse extends HttpServletResponseWrapper {
+
+    private final CountingOutputStream body = new CountingOutputStream();
+    private PrintWriter writer;
+    private boolean contentLengthSet;
+
+    HeadResponse(HttpServletResponse response) {
+        super(response);
+    }
+
+    @Override
+    public ServletOutputStream getOutputStream() {
+        return body;
+    }
+
+    @Override
+    public PrintWriter getWriter() {
+        if (writer == null) {
+            String encoding = getCharacterEncoding();
+            Charset charset = encoding != null ? Charset.forName(encoding) : StandardCharsets.ISO_8859_1;
+            writer = new PrintWriter(new OutputStreamWriter(body, charset));
+        }
+        return writer;
+    }
+
+    @Override
+    public void setContentLength(int length) {
+        super.setContentLength(length);
+        contentLengthSet = true;
+    }
+
+    @Override
+    public void setContentLengthLong(long length) {
+        super.setContentLengthLong(length);
+        contentLengthSet = true;
+    }
+
+    /**
+     * 处理器结束后调用：处理器自己没有设置长度时，用实际计数的字节数
+     */
+    void finish() {
+        if (writer != null) {
+            writer.flush();
+        }
+        if (!contentLengthSet && !isCommitted()) {
+            super.setContentLengthLong(body.count);
+        }
+    }
+
+    private static final class CountingOutputStream extends ServletOutputStream {
+
+        private long count;
+
+        @Override
+        public void write(int b) {
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            count += len;
+        }
+
+        @Override
+        public boolean isReady() {
+            return true;
+        }
+
+        @Override
+        public void setWriteListener(WriteListener listener) {
+            throw new IllegalStateException("HEAD响应不支持非阻塞写出");
+        }
+
+        @Override
+        public void flush() {
+            // 没有实际输出，不提交响应
+        }
+    }
+}
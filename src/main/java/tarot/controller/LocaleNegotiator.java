@@ -0,0 +1,135 @@
+package tarot.controller;
+
+import java.util.List;
+
+/**
+ * 语言协商：先看查询参数 lang，再看 Accept-Language 请求头，都没有匹配时使用默认语言（下标0）
+ * 只比较主语言子标签（zh-CN、zh-Hant 都匹配 zh），结果是语言的下标，
+ * 请求路径上逐字符扫描请求头，不拆分字符串、不创建Locale对象
+ */
+final class LocaleNegotiator {
+
+    private final String[] locales;
+
+    /**
+     * @param locales 支持的语言，第一个为默认语言
+     */
+    LocaleNegotiator(List<String> locales) {
+        this.locales = locales.toArray(new String[0]);
+    }
+
+    int size() {
+        return locales.length;
+    }
+
+    String tag(int index) {
+        return locales[index];
+    }
+
+    /**
+     * 选出本次请求使用的语言下标
+     *
+     * @param lang           查询参数 lang，可以为null
+     * @param acceptLanguage Accept-Language 请求头，可以为null
+     */
+    int select(String lang, String acceptLanguage) {
+        if (lang != null && !lang.isEmpty()) {
+            int index = find(lang, 0, primaryEnd(lang, 0, lang.length()));
+            if (index >= 0) {
+                return index;
+            }
+        }
+        return acceptLanguage == null ? 0 : negotiate(acceptLanguage);
+    }
+
+    /**
+     * 按q值选出Accept-Language中权重最高的支持语言，q值相同时取靠前的，q=0表示拒绝
+     */
+    private int negotiate(String header) {
+        int best = 0;
+        int bestQuality = 0;
+        int length = header.length();
+        int i = 0;
+        while (i < length) {
+            int end = header.indexOf(',', i);
+            if (end < 0) {
+                end = length;
+            }
+            while (i < end && header.charAt(i) == ' ') {
+                i++;
+            }
+            int quality = quality(header, i, end);
+            if (quality > bestQuality) {
+                int index = header.startsWith("*", i) ? 0 : find(header, i, primaryEnd(header, i, end));
+                if (index >= 0) {
+                    best = index;
+                    bestQuality = quality;
+                    if (quality == 1000) {
+                        break;
+                    }
+                }
+            }
+            i = end + 1;
+        }
+        return best;
+    }
+
+    /**
+     * 语言范围的q值（乘以1000的整数），没有q参数时为1000，无法解析时按0处理
+     */
+    private static int quality(String header, int start, int end) {
+        int q = header.indexOf(";q=", start);
+        if (q < 0 || q >= end) {
+            q = header.indexOf("; q=", start);
+            if (q < 0 || q >= end) {
+                return 1000;
+            }
+            q++;
+        }
+        int i = q + 3;
+        if (i >= end) {
+            return 0;
+        }
+        int value = header.charAt(i) == '1' ? 1000 : 0;
+        if (header.charAt(i) != '0' && header.charAt(i) != '1') {
+            return 0;
+        }
+        i++;
+        if (i < end && header.charAt(i) == '.') {
+            int scale = 100;
+            for (i++; i < end && scale > 0; i++, scale /= 10) {
+                char c = header.charAt(i);
+                if (c < '0' || c > '9') {
+                    break;
+                }
+                value += (c - '0') * scale;
+            }
+        }
+        return Math.min(value, 1000);
+    }
+
+    /**
+     * 主语言子标签的结束位置（遇到 - _ ; 或空白为止）
+     */
+    private static int primaryEnd(String value, int start, int end) {
+        int i = start;
+        while (i < end) {
+            char c = value.charAt(i);
+            if (c == '-' || c == '_' || c == ';' || c == ' ') {
+                break;
+            }
+            i++;
+        }
+        return i;
+    }
+
+    private int find(String value, int start, int end) {
+        int length = end - start;
+        for (int i = 0; i < locales.length; i++) {
+            if (locales[i].length() == length && value.regionMatches(true, start, locales[i], 0, length)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,172 @@
+package tarot.controller;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * 预先渲染的静态响应
+ * 启动时序列化一次，保存原始和gzip两种不可变字节形式，请求时只做条件判断和字节拷贝
+ */
+public final class PrecomputedResponse {
+
+    // 浏览器可以缓存，但每次使用前都要用ETag重新验证
+    private static final String CACHE_CONTROL = "no-cache";
+
+    private final byte[] body;
+    private final byte[] gzipBody;
+    private final String etag;
+    private final String gzipEtag;
+
+    private PrecomputedResponse(byte[] body, byte[] gzipBody, String etag, String gzipEtag) {
+        this.body = body;
+        this.gzipBody = gzipBody;
+        this.etag = etag;
+        this.gzipEtag = gzipEtag;
+    }
+
+    /**
+     * 根据响应体和内容版本创建预渲染响应
+     *
+     * @param body    UTF-8编码的JSON响应体
+     * @param version 内容版本（目录内容的哈希），用于生成强ETag
+     */
+    public static PrecomputedResponse of(byte[] body, String version) {
+        byte[] gzipBody = gzip(body);
+        // 压缩后反而更大时不提供gzip版本
+        if (gzipBody.length >= body.length) {
+            gzipBody = null;
+        }
+        return new PrecomputedResponse(body, gzipBody,
+                "\"" + version + "\"",
+                "\"" + version + "-gzip\"");
+    }
+
+    /**
+     * 写出响应：If-None-Match命中时返回304，否则按Accept-Encoding选择压缩或原始字节
+     */
+    public void write(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        write(request, response, true);
+    }
+
+    /**
+     * HEAD请求：与GET相同的状态码和响应头（包括所选字节形式的Content-Length），但不写出响应体
+     */
+    public void writeHead(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        write(request, response, false);
+    }
+
+    private void write(HttpServletRequest request, HttpServletResponse response, boolean includeBody)
+            throws IOException {
+        boolean useGzip = gzipBody != null && acceptsGzip(request.getHeader("Accept-Encoding"));
+        String selectedEtag = useGzip ? gzipEtag : etag;
+
+        response.setHeader("ETag", selectedEtag);
+        response.setHeader("Cache-Control", CACHE_CONTROL);
+        // 追加而不是覆盖，控制器已经按语言协商设置了 Vary: Accept-Language
+        response.addHeader("Vary", "Accept-Encoding");
+
+        if (matchesEtag(request.getHeader("If-None-Match"), selectedEtag)) {
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            return;
+        }
+
+        byte[] selected = useGzip ? gzipBody : body;
+        if (useGzip) {
+            response.setHeader("Content-Encoding", "gzip");
+        }
+        response.setStatus(HttpServletResponse.SC_OK);
+        response.setContentLength(selected.length);
+        if (includeBody) {
+            response.getOutputStream().write(selected);
+        }
+    }
+
+    public int length() {
+        return body.length;
+    }
+
+    public String getEtag() {
+        return etag;
+    }
+
+    /**
+     * 判断If-None-Match头是否包含指定ETag（按RFC 9110使用弱比较）
+     */
+    static boolean matchesEtag(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        int length = ifNoneMatch.length();
+        int i = 0;
+        while (i < length) {
+            // 跳过分隔符和空白
+            char c = ifNoneMatch.charAt(i);
+            if (c == ',' || c == ' ' || c == '\t') {
+                i++;
+                continue;
+            }
+            if (c == '*') {
+                return true;
+            }
+            if (ifNoneMatch.startsWith("W/", i)) {
+                i += 2;
+            }
+            int end = ifNoneMatch.indexOf(',', i);
+            if (end < 0) {
+                end = length;
+            }
+            int tokenEnd = end;
+            while (tokenEnd > i && Character.isWhitespace(ifNoneMatch.charAt(tokenEnd - 1))) {
+                tokenEnd--;
+            }
+            if (tokenEnd - i == etag.length() && ifNoneMatch.regionMatches(i, etag, 0, etag.length())) {
+                return true;
+            }
+            i = end + 1;
+        }
+        return false;
+    }
+
+    /**
+     * 判断客户端是否接受gzip编码（忽略q=0的显式拒绝）
+     */
+    static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        // 常见的浏览器请求头不带q参数，直接判断即可
+        if (acceptEncoding.indexOf(';') < 0) {
+            return acceptEncoding.contains("gzip") || acceptEncoding.contains("*");
+        }
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.trim().split(";");
+            String name = parts[0].trim();
+            if (!name.equalsIgnoreCase("gzip") && !name.equals("*")) {
+                continue;
+            }
+            for (int i = 1; i < parts.length; i++) {
+                String param = parts[i].trim();
+                if (param.startsWith("q=") && param.substring(2).trim().matches("0(\\.0{0,3})?")) {
+                    return false;
+                }
+            }
+            return true;
+        }
+        return false;
+    }
+
+    private static byte[] gzip(byte[] body) {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(body.length / 2 + 64);
+        try (GZIPOutputStream out = new GZIPOutputStream(buffer)) {
+            out.write(body);
+        } catch (IOException e) {
+            throw new UncheckedIOException("压缩响应体失败", e);
+        }
+        return buffer.toByteArray();
+    }
+}
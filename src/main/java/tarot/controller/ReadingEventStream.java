@@ -0,0 +1,222 @@
+package tarot.controller;
+
+import tarot.controller.response.ReadingEvents;
+import tarot.model.CardReading;
+import tarot.service.TarotGameService;
+
+import jakarta.servlet.AsyncContext;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 一个占卜事件流连接: GET /api/reading/stream
+ * 使用非阻塞输出，等待下一张牌和等待客户端可写时都不占用任何线程：
+ * 定时器到期后编码下一个事件，输出流可写时写出；输出缓冲区满时由容器在可写后回调onWritePossible。
+ * 每个连接只保存占卜结果和至多一个待写事件，事件在发送时才编码，内存占用与连接数成正比且有上限
+ */
+final class ReadingEventStream implements WriteListener, AsyncListener {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReadingEventStream.class);
+
+    // 当前打开的事件流数量，导出为指标
+    private static final AtomicInteger OPEN_STREAMS = new AtomicInteger();
+
+    private final AsyncContext async;
+    private final ServletOutputStream out;
+    private final CardReading reading;
+    private final TarotGameService service;
+    private final ReadingEvents events;
+    private final ScheduledExecutorService scheduler;
+    private final long intervalMillis;
+
+    // 定时器线程和容器线程都会推进状态，用锁串行化
+    private final ReentrantLock lock = new ReentrantLock();
+    // 下一个要编码的事件序号：0为reading，1..n为各张牌，n+1为summary
+    private int next;
+    // 已编码、尚未写出的事件
+    private byte[] pending;
+    // 最近一个事件已写出但还没有刷出
+    private boolean unflushed;
+    // 距离上一个事件的间隔是否已到
+    private boolean due = true;
+    private ScheduledFuture<?> timer;
+    private boolean closed;
+
+    ReadingEventStream(AsyncContext async, ServletOutputStream out, CardReading reading, TarotGameService service,
+                       ReadingEvents events, ScheduledExecutorService scheduler, long intervalMillis) {
+        this.async = async;
+        this.out = out;
+        this.reading = reading;
+        this.service = service;
+        this.events = events;
+        this.scheduler = scheduler;
+        this.intervalMillis = intervalMillis;
+        OPEN_STREAMS.incrementAndGet();
+    }
+
+    static int openStreams() {
+        return OPEN_STREAMS.get();
+    }
+
+    /**
+     * 注册监听器后容器会立即回调一次onWritePossible，开始发送第一个事件
+     */
+    void start() {
+        async.addListener(this);
+        out.setWriteListener(this);
+    }
+
+    @Override
+    public void onWritePossible() throws IOException {
+        advance();
+    }
+
+    private void onTimer() {
+        lock.lock();
+        try {
+            due = true;
+        } finally {
+            lock.unlock();
+        }
+        try {
+            advance();
+        } catch (IOException | RuntimeException e) {
+            // 定时器任务抛出的异常会被ScheduledFuture吞掉，这里必须自己结束连接
+            logger.debug("事件流写出失败: {}", e.toString());
+            close();
+        }
+    }
+
+    /**
+     * 尽可能多地推进：编码到期的事件并在输出流可写时写出、刷出，
+     * 每次写出或刷出之前都检查isReady，非阻塞模式下在上一次写出未完成时继续写会抛出IllegalStateException；
+     * 输出流不可写时直接返回，等待容器回调onWritePossible从中断处继续
+     */
+    private void advance() throws IOException {
+        boolean finished = false;
+        lock.lock();
+        try {
+            if (closed) {
+                return;
+            }
+            if (pending == null && !unflushed) {
+                if (!due) {
+                    return;
+                }
+                pending = encode(next++);
+            }
+            if (!out.isReady()) {
+                return;
+            }
+            if (pending != null) {
+                out.write(pending);
+                pending = null;
+                finished = next > reading.getDrawnCards().size() + 1;
+                // 最后一个事件不单独刷出，由complete统一写完
+                unflushed = !finished;
+                if (unflushed && !out.isReady()) {
+                    return;
+                }
+            }
+            if (unflushed) {
+                // 每个事件立即刷出，客户端按到达时间逐张揭示
+                out.flush();
+                unflushed = false;
+                due = false;
+                finished = !schedule();
+            }
+        } finally {
+            lock.unlock();
+        }
+        if (finished) {
+            close();
+        }
+    }
+
+    private byte[] encode(int index) throws IOException {
+        int cards = reading.getDrawnCards().size();
+        if (index == 0) {
+            return events.start(reading);
+        }
+        if (index <= cards) {
+            return events.card(reading, index - 1,
+                    service.narrativeFragment(reading, reading.getDrawnCards().get(index - 1)));
+        }
+        return events.summary(reading);
+    }
+
+    /**
+     * @return 应用正在关闭、定时器已停止时返回false
+     */
+    private boolean schedule() {
+        try {
+            timer = scheduler.schedule(this::onTimer, intervalMillis, TimeUnit.MILLISECONDS);
+            return true;
+        } catch (RejectedExecutionException e) {
+            return false;
+        }
+    }
+
+    /**
+     * 结束连接，可以被多次调用
+     */
+    private void close() {
+        lock.lock();
+        try {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            pending = null;
+            if (timer != null) {
+                timer.cancel(false);
+            }
+        } finally {
+            lock.unlock();
+        }
+        OPEN_STREAMS.decrementAndGet();
+        try {
+            async.complete();
+        } catch (IllegalStateException e) {
+            // 容器已经结束了这个请求（超时或连接出错）
+        }
+    }
+
+    @Override
+    public void onError(Throwable t) {
+        logger.debug("事件流连接出错: {}", t.getMessage());
+        close();
+    }
+
+    @Override
+    public void onComplete(AsyncEvent event) {
+        close();
+    }
+
+    @Override
+    public void onTimeout(AsyncEvent event) {
+        close();
+    }
+
+    @Override
+    public void onError(AsyncEvent event) {
+        close();
+    }
+
+    @Override
+    public void onStartAsync(AsyncEvent event) {
+    }
+}
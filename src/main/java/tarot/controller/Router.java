@@ -0,0 +1,228 @@
+package tarot.controller;
+
+import tarot.metrics.EndpointMetrics;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.StringJoiner;
+
+/**
+ * 路由表
+ * 启动时把所有路由模板按HTTP方法编译成路径段前缀树，请求时逐段匹配，
+ * 字面量段优先于参数段（例如 /reading/stream 优先于 /reading/{id}），匹配失败时回溯尝试参数段。
+ * 字面量比较直接在原始路径上进行，只有参数值需要截取子串
+ */
+public final class Router {
+
+    /**
+     * 路由处理器，params按模板中参数出现的顺序排列
+     */
+    @FunctionalInterface
+    public interface Handler {
+        void handle(HttpServletRequest request, HttpServletResponse response, String[] params) throws IOException;
+    }
+
+    /**
+     * 一条已注册的路由
+     *
+     * @param headHandler HEAD请求的专用处理器（例如只写出预渲染响应的长度），为null时执行GET处理器并丢弃响应体
+     */
+    public record Route(String method, String template, Handler handler, Handler headHandler,
+                        EndpointMetrics metrics) {
+    }
+
+    public record Match(Route route, String[] params) {
+    }
+
+    private static final String[] NO_PARAMS = new String[0];
+
+    private final Map<String, Node> roots;
+
+    private Router(Map<String, Node> roots) {
+        this.roots = roots;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * 按方法和路径查找路由，HEAD请求使用GET路由
+     *
+     * @return 匹配结果，路径或方法不匹配时返回null
+     */
+    public Match match(String method, String path) {
+        Node root = roots.get("HEAD".equals(method) ? "GET" : method);
+        if (root == null || path == null || path.isEmpty() || path.charAt(0) != '/') {
+            return null;
+        }
+        String[] params = root.maxParams == 0 ? NO_PARAMS : new String[root.maxParams];
+        Route route = root.match(path, 1, params, 0);
+        return route == null ? null : new Match(route, params);
+    }
+
+    /**
+     * 列出能处理该路径的全部方法（用于405的Allow头和OPTIONS预检），路径不存在时返回空列表
+     * 只在未命中路由时调用，不在常规请求路径上
+     */
+    public List<String> allowedMethods(String path) {
+        List<String> methods = new ArrayList<>();
+        if (path == null || path.isEmpty() || path.charAt(0) != '/') {
+            return methods;
+        }
+        for (Map.Entry<String, Node> entry : roots.entrySet()) {
+            Node root = entry.getValue();
+            String[] params = new String[root.maxParams];
+            if (root.match(path, 1, params, 0) != null) {
+                methods.add(entry.getKey());
+                if ("GET".equals(entry.getKey())) {
+                    methods.add("HEAD");
+                }
+            }
+        }
+        if (!methods.isEmpty()) {
+            methods.add("OPTIONS");
+        }
+        return methods;
+    }
+
+    /**
+     * 把方法列表格式化为Allow头的值
+     */
+    public static String formatAllow(List<String> methods) {
+        StringJoiner joiner = new StringJoiner(", ");
+        methods.forEach(joiner::add);
+        return joiner.toString();
+    }
+
+    public static final class Builder {
+
+        private final Map<String, Node> roots = new LinkedHashMap<>();
+
+        private Builder() {
+        }
+
+        public Builder get(String template, Handler handler, Handler headHandler, EndpointMetrics metrics) {
+            return add("GET", template, handler, headHandler, metrics);
+        }
+
+        public Builder get(String template, Handler handler, EndpointMetrics metrics) {
+            return add("GET", template, handler, null, metrics);
+        }
+
+        public Builder post(String template, Handler handler, EndpointMetrics metrics) {
+            return add("POST", template, handler, null, metrics);
+        }
+
+        /**
+         * 注册路由，模板形如 /card/{id}，同一方法下重复或冲突的模板在启动时报错
+         */
+        public Builder add(String method, String template, Handler handler, Handler headHandler,
+                           EndpointMetrics metrics) {
+            if (template.isEmpty() || template.charAt(0) != '/') {
+                throw new IllegalArgumentException("路由模板必须以/开头: " + template);
+            }
+            Node node = roots.computeIfAbsent(method, key -> new Node());
+            int params = 0;
+            for (String segment : template.substring(1).split("/", -1)) {
+                if (segment.isEmpty()) {
+                    throw new IllegalArgumentException("路由模板中不能有空路径段: " + template);
+                }
+                if (segment.startsWith("{") && segment.endsWith("}")) {
+                    String name = segment.substring(1, segment.length() - 1);
+                    if (node.paramChild == null) {
+                        node.paramChild = new Node();
+                        node.paramName = name;
+                    } else if (!node.paramName.equals(name)) {
+                        throw new IllegalStateException("路由参数名冲突: " + template + "（已有 {" + node.paramName + "}）");
+                    }
+                    node = node.paramChild;
+                    params++;
+                } else {
+                    node = node.literalChild(segment);
+                }
+            }
+            if (node.route != null) {
+                throw new IllegalStateException("重复的路由: " + method + " " + template);
+            }
+            node.route = new Route(method, template, handler, headHandler, metrics);
+            Node root = roots.get(method);
+            root.maxParams = Math.max(root.maxParams, params);
+            return this;
+        }
+
+        public Router build() {
+            return new Router(Map.copyOf(roots));
+        }
+    }
+
+    /**
+     * 前缀树节点：字面量子节点用并行数组保存（每层通常只有几个），至多一个参数子节点
+     */
+    private static final class Node {
+
+        private String[] literalKeys = new String[0];
+        private Node[] literalChildren = new Node[0];
+        private Node paramChild;
+        private String paramName;
+        private Route route;
+        // 只在根节点上使用：该方法下所有路由的最大参数个数
+        private int maxParams;
+
+        private Node literalChild(String segment) {
+            for (int i = 0; i < literalKeys.length; i++) {
+                if (literalKeys[i].equals(segment)) {
+                    return literalChildren[i];
+                }
+            }
+            Node child = new Node();
+            literalKeys = Arrays.copyOf(literalKeys, literalKeys.length + 1);
+            literalChildren = Arrays.copyOf(literalChildren, literalChildren.length + 1);
+            literalKeys[literalKeys.length - 1] = segment;
+            literalChildren[literalChildren.length - 1] = child;
+            return child;
+        }
+
+        /**
+         * 从path的start位置开始匹配剩余路径段
+         *
+         * @param depth 已捕获的参数个数
+         */
+        private Route match(String path, int start, String[] params, int depth) {
+            int end = path.indexOf('/', start);
+            if (end < 0) {
+                end = path.length();
+            }
+            int length = end - start;
+            boolean last = end == path.length();
+
+            for (int i = 0; i < literalKeys.length; i++) {
+                String key = literalKeys[i];
+                if (key.length() == length && path.regionMatches(start, key, 0, length)) {
+                    Route route = last ? literalChildren[i].route : literalChildren[i].match(path, end + 1, params, depth);
+                    if (route != null) {
+                        return route;
+                    }
+                    break;
+                }
+            }
+
+            // 参数段不能为空
+            if (paramChild != null && length > 0) {
+                Route route = last ? paramChild.route : paramChild.match(path, end + 1, params, depth + 1);
+                if (route != null) {
+                    params[depth] = path.substring(start, end);
+                    return route;
+                }
+            }
+            return null;
+        }
+    }
+}
@@ -1,12 +1,28 @@
 package tarot.controller;
 
+import tarot.controller.response.CardPayload;
+import tarot.controller.response.ErrorPayload;
+import tarot.controller.response.JsonResponseWriter;
+import tarot.controller.response.MajorArcanaPayload;
+import tarot.controller.response.ReadingEvents;
+import tarot.controller.response.ReadingPayload;
+import tarot.controller.response.SearchPayload;
+import tarot.journal.ReadingJournal;
+import tarot.metrics.EndpointMetrics;
+import tarot.metrics.TarotMetrics;
 import tarot.model.TarotCard;
 import tarot.model.CardReading;
+import tarot.model.DrawnCard;
+import tarot.model.ReadingId;
+import tarot.model.SpreadDefinition;
 import tarot.service.TarotGameService;
+import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.databind.ObjectMapper;
 
+import jakarta.servlet.AsyncContext;
 import jakarta.servlet.ServletContext;
 import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletOutputStream;
 import jakarta.servlet.annotation.WebServlet;
 import jakarta.servlet.http.HttpServlet;
 import jakarta.servlet.http.HttpServletRequest;
@@ -16,11 +32,18 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
-import java.io.PrintWriter;
-import java.util.HashMap;
-import java.util.ArrayList;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.StringJoiner;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 
 /**
  * 塔罗牌游戏控制器
@@ -29,15 +52,405 @@ import java.util.Map;
 public class TarotGameController extends HttpServlet {
 
     private static final Logger logger = LoggerFactory.getLogger(TarotGameController.class);
-    // 直接创建ObjectMapper实例
+    // 直接创建ObjectMapper实例，仅用于启动时的预渲染
     private static final ObjectMapper objectMapper = new ObjectMapper();
+    // 请求路径上的响应直接流式写入输出流
+    private static final JsonResponseWriter jsonWriter = new JsonResponseWriter(objectMapper.getFactory());
+
+    // 卡牌或占卜编号不存在时的404响应，允许客户端和代理缓存
+    private static final String NOT_FOUND_CACHE_CONTROL = "public, max-age=3600";
+    // 按编号重新生成的占卜结果只在目录热加载后变化：缓存一小时，之后用带目录版本的ETag重新验证
+    private static final String READING_PERMALINK_CACHE_CONTROL = "public, max-age=3600";
+
+    // 检索：查询的最大长度，返回张数的默认值和最大值
+    private static final int MAX_SEARCH_QUERY_LENGTH = 200;
+    private static final int DEFAULT_SEARCH_LIMIT = 10;
+    private static final int MAX_SEARCH_LIMIT = 78;
+
+    // 批量占卜单次请求允许的最大数量
+    private static final int MAX_BULK_READINGS = 10_000;
+    // 批量占卜每写出多少条刷新一次输出流
+    private static final int BULK_FLUSH_INTERVAL = 64;
+
+    // 执行模式：blocking（默认，在容器线程上处理）或 virtual（转交虚拟线程处理）
+    static final String EXECUTION_MODE_PARAM = "tarot.execution.mode";
+    private static final String VIRTUAL_MODE = "virtual";
+    // 异步请求的超时时间，需要覆盖最慢的批量占卜
+    private static final long ASYNC_TIMEOUT_MILLIS = TimeUnit.MINUTES.toMillis(5);
+
+    // 占卜事件流：默认和最大的逐张揭示间隔（毫秒），以及事件之外留给慢客户端的超时余量
+    private static final long DEFAULT_STREAM_INTERVAL_MILLIS = 800;
+    private static final long MAX_STREAM_INTERVAL_MILLIS = 5_000;
+    private static final long STREAM_TIMEOUT_MARGIN_MILLIS = TimeUnit.SECONDS.toMillis(30);
+    private static final String EVENT_STREAM_CONTENT_TYPE = "text/event-stream;charset=UTF-8";
+    // 处理器自行接管异步上下文时设置的请求属性，virtual模式的分派不再代为结束请求
+    static final String ASYNC_OWNED_ATTRIBUTE = "tarot.asyncOwned";
+    // 受并发上限保护的处理器完成的工作量（占卜条数），不设置时按1条计入延迟样本
+    private static final String WORK_UNITS_ATTRIBUTE = "tarot.workUnits";
+
+    // 自适应并发上限（context-param或同名系统属性），只作用于抽牌和生成解读的路由；
+    // 上限应低于连接器的maxThreads，否则blocking模式下多出的请求会先在连接器中排队
+    private static final String CONCURRENCY_ENABLED_PARAM = "tarot.concurrency.enabled";
+    private static final String CONCURRENCY_INITIAL_PARAM = "tarot.concurrency.initialLimit";
+    private static final String CONCURRENCY_MIN_PARAM = "tarot.concurrency.minLimit";
+    private static final String CONCURRENCY_MAX_PARAM = "tarot.concurrency.maxLimit";
+    private static final int DEFAULT_INITIAL_CONCURRENCY = 20;
+    private static final int DEFAULT_MIN_CONCURRENCY = 4;
+    private static final int DEFAULT_MAX_CONCURRENCY = 150;
+    private static final String OVERLOADED_RETRY_AFTER = "1";
+
+    // CORS预检：客户端未声明请求头时默认允许的头，以及预检结果的缓存时间（秒）
+    private static final String CORS_ALLOW_HEADERS = "Content-Type, If-None-Match, X-User-Id, X-API-Key";
+    private static final String CORS_MAX_AGE = "86400";
+
+    // 预先序列化的卡牌未找到响应体，避免每次未命中都构造异常和序列化
+    private byte[] cardNotFoundBody;
+    private byte[] readingNotFoundBody;
+    private byte[] overloadedBody;
+
+    // 可选的占卜日志，由GameInitializationListener创建，未启用时为null
+    private ReadingJournal readingJournal;
+
+    /**
+     * 预渲染的 /cards 和 /major-arcana 响应，每种语言一份，下标与服务的语言一致
+     *
+     * @param versions 渲染时各语言的目录版本
+     */
+    private record CatalogResponses(String[] versions, PrecomputedResponse[] cards,
+                                    PrecomputedResponse[] majorArcana) {
+    }
+
+    // 启动时渲染一次，卡牌目录热加载后重新渲染；两种响应通过同一个引用整体替换，请求不会拿到新旧混合的一对
+    private volatile CatalogResponses catalogResponses;
+    // 串行化渲染：启动时的渲染和热加载回调可能同时进行
+    private final Object catalogRenderLock = new Object();
+
+    // 按lang参数和Accept-Language选择语言，结果以下标存入请求属性
+    private LocaleNegotiator localeNegotiator;
+    private static final String LOCALE_ATTRIBUTE = "tarot.locale";
+
+    // virtual模式下每个请求一个虚拟线程，blocking模式下为null
+    private ExecutorService requestExecutor;
+
+    // 指标注册表，各路由的端点指标在构建路由表时一次性取得
+    private TarotMetrics metrics;
+    private EndpointMetrics optionsMetrics;
+    private EndpointMetrics unmatchedMetrics;
+
+    // 启动时构建的路由表
+    private Router router;
+
+    // 昂贵路由的自适应并发上限，禁用时为null
+    private AdaptiveConcurrencyLimiter concurrencyLimiter;
+
+    // 占卜事件流的定时器，所有连接共用一个线程，只负责到期后编码并尝试写出下一个事件
+    private ScheduledExecutorService streamScheduler;
+    private ReadingEvents readingEvents;
+
+    // 构建期资源清单，用于按抽到的牌预加载缩略图
+    private AssetManifest assetManifest;
 
     @Override
     public void init() throws ServletException {
         super.init();
+        try {
+            cardNotFoundBody = objectMapper.writeValueAsBytes(Map.of(
+                    "success", false,
+                    "error", "未找到指定ID的卡牌",
+                    "statusCode", 404));
+            readingNotFoundBody = objectMapper.writeValueAsBytes(Map.of(
+                    "success", false,
+                    "error", "无效的占卜编号",
+                    "statusCode", 404));
+            overloadedBody = objectMapper.writeValueAsBytes(Map.of(
+                    "success", false,
+                    "error", "服务器繁忙，请稍后再试",
+                    "statusCode", 503));
+            TarotGameService service = getTarotGameService();
+            localeNegotiator = new LocaleNegotiator(service.getLocales());
+            // 目录热加载此时已经在运行：先注册回调再渲染，期间完成的重新加载不会被漏掉
+            service.addCatalogListener(() -> {
+                try {
+                    renderCatalogResponses(service);
+                } catch (IOException e) {
+                    logger.error("重新渲染目录响应失败，继续使用旧的响应: {}", e.getMessage(), e);
+                }
+            });
+            renderCatalogResponses(service);
+            readingJournal = (ReadingJournal) getServletContext().getAttribute("readingJournal");
+            initMetrics();
+            initReadingStreams();
+            initConcurrencyLimit();
+            assetManifest = getAssetManifest();
+            router = buildRouter();
+        } catch (IOException e) {
+            throw new ServletException("预序列化响应失败", e);
+        }
+        initExecutionMode();
         logger.info("TarotGameController 初始化完成");
     }
 
+    /**
+     * 读取执行模式，系统属性优先于context-param
+     * virtual模式下请求进入后立即切换为异步，容器线程马上归还连接器，实际处理在虚拟线程上完成
+     */
+    private void initExecutionMode() {
+        String mode = getParameter(EXECUTION_MODE_PARAM);
+        if (VIRTUAL_MODE.equalsIgnoreCase(mode)) {
+            requestExecutor = Executors.newThreadPerTaskExecutor(
+                    Thread.ofVirtual().name("tarot-request-", 0).factory());
+            logger.info("执行模式: virtual，请求将在虚拟线程上处理");
+        } else {
+            logger.info("执行模式: blocking，请求在容器线程上处理");
+        }
+    }
+
+    @Override
+    public void destroy() {
+        if (streamScheduler != null) {
+            streamScheduler.shutdownNow();
+            streamScheduler = null;
+        }
+        if (requestExecutor != null) {
+            requestExecutor.shutdown();
+            try {
+                if (!requestExecutor.awaitTermination(10, TimeUnit.SECONDS)) {
+                    logger.warn("仍有请求未处理完成，强制关闭虚拟线程执行器");
+                    requestExecutor.shutdownNow();
+                }
+            } catch (InterruptedException e) {
+                requestExecutor.shutdownNow();
+                Thread.currentThread().interrupt();
+            }
+            requestExecutor = null;
+        }
+        super.destroy();
+    }
+
+    /**
+     * 为每种语言预先渲染 /cards 和 /major-arcana 的响应体
+     * 全部语言都渲染完成后才替换，请求不会拿到渲染了一半的结果。
+     * 渲染期间目录又被替换时重新渲染，保证最后发布的一定是当前目录的结果
+     */
+    private void renderCatalogResponses(TarotGameService service) throws IOException {
+        synchronized (catalogRenderLock) {
+            CatalogResponses rendered;
+            do {
+                rendered = renderCatalog(service);
+            } while (!isCurrent(rendered, service));
+            catalogResponses = rendered;
+        }
+    }
+
+    private boolean isCurrent(CatalogResponses rendered, TarotGameService service) {
+        for (int i = 0; i < rendered.versions().length; i++) {
+            if (!rendered.versions()[i].equals(service.getCatalogVersion(localeNegotiator.tag(i)))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private CatalogResponses renderCatalog(TarotGameService service) throws IOException {
+        String[] versions = new String[localeNegotiator.size()];
+        PrecomputedResponse[] cards = new PrecomputedResponse[versions.length];
+        PrecomputedResponse[] majorArcana = new PrecomputedResponse[versions.length];
+        for (int i = 0; i < cards.length; i++) {
+            String locale = localeNegotiator.tag(i);
+            String version = service.getCatalogVersion(locale);
+            versions[i] = version;
+
+            Map<String, Object> allCards = service.getAllCardsAsMap(locale);
+            Map<String, Object> allCardsResult = new LinkedHashMap<>();
+            allCardsResult.put("success", true);
+            allCardsResult.put("major_arcana", allCards.get("major_arcana"));
+            allCardsResult.put("minor_arcana", allCards.get("minor_arcana"));
+            cards[i] = PrecomputedResponse.of(objectMapper.writeValueAsBytes(allCardsResult), version);
+
+            majorArcana[i] = PrecomputedResponse.of(
+                    jsonWriter.toBytes(new MajorArcanaPayload(service.getMajorArcanaCards(locale))), version);
+
+            logger.info("目录响应预渲染完成 [{}]，版本: {}，/cards {} 字节，/major-arcana {} 字节",
+                    locale, version, cards[i].length(), majorArcana[i].length());
+        }
+        return new CatalogResponses(versions, cards, majorArcana);
+    }
+
+    /**
+     * 从应用上下文中获取指标注册表，不存在时创建
+     */
+    private void initMetrics() {
+        ServletContext context = getServletContext();
+        metrics = (TarotMetrics) context.getAttribute("tarotMetrics");
+        if (metrics == null) {
+            metrics = new TarotMetrics(getTarotGameService().getSpreadRegistry());
+            context.setAttribute("tarotMetrics", metrics);
+        }
+        optionsMetrics = metrics.endpoint("OPTIONS", "*");
+        unmatchedMetrics = metrics.endpoint("ANY", "unmatched");
+    }
+
+    /**
+     * 创建事件流定时器，并导出当前打开的事件流数量
+     */
+    private void initReadingStreams() {
+        ScheduledThreadPoolExecutor scheduler = new ScheduledThreadPoolExecutor(1, runnable -> {
+            Thread thread = new Thread(runnable, "tarot-reading-stream");
+            thread.setDaemon(true);
+            return thread;
+        });
+        // 客户端提前断开时取消的定时任务立即从队列中移除
+        scheduler.setRemoveOnCancelPolicy(true);
+        streamScheduler = scheduler;
+        readingEvents = new ReadingEvents(objectMapper.getFactory());
+        metrics.registerGauge("reading_streams_open", "当前打开的占卜事件流连接数",
+                ReadingEventStream::openStreams);
+    }
+
+    /**
+     * 创建昂贵路由共用的并发上限，并导出当前上限、最新估计值和进行中的请求数
+     */
+    private void initConcurrencyLimit() throws ServletException {
+        if ("false".equalsIgnoreCase(getParameter(CONCURRENCY_ENABLED_PARAM))) {
+            logger.info("自适应并发上限已禁用");
+            return;
+        }
+        int initial = getIntParameter(CONCURRENCY_INITIAL_PARAM, DEFAULT_INITIAL_CONCURRENCY);
+        int min = getIntParameter(CONCURRENCY_MIN_PARAM, DEFAULT_MIN_CONCURRENCY);
+        int max = getIntParameter(CONCURRENCY_MAX_PARAM, DEFAULT_MAX_CONCURRENCY);
+        AdaptiveConcurrencyLimiter limiter;
+        try {
+            limiter = new AdaptiveConcurrencyLimiter(initial, min, max);
+        } catch (IllegalArgumentException e) {
+            throw new ServletException(e.getMessage(), e);
+        }
+        concurrencyLimiter = limiter;
+        metrics.registerGauge("concurrency_limit", "昂贵路由当前的并发上限", limiter::getLimit);
+        metrics.registerGauge("concurrency_limit_estimate", "最近一次按延迟梯度估计的并发上限（平滑前）",
+                limiter::getEstimate);
+        metrics.registerGauge("concurrency_in_flight", "昂贵路由进行中的请求数", limiter::getInFlight);
+        metrics.registerGauge("concurrency_rtt_short_microseconds", "最近一个采样窗口的平均处理时间",
+                limiter::getShortRttMicros);
+        metrics.registerGauge("concurrency_rtt_baseline_microseconds", "处理时间的基线（近期窗口的最小值）",
+                limiter::getBaselineRttMicros);
+        metrics.registerCounter("concurrency_rejected_total", "超过并发上限被拒绝（503）的请求数",
+                limiter::getRejectedCount);
+        logger.info("自适应并发上限已启用: 初始 {}，范围 [{}, {}]", initial, min, max);
+    }
+
+    /**
+     * 为昂贵的处理器加上并发上限：超过上限立即返回503，不排队
+     * 处理器可以通过WORK_UNITS_ATTRIBUTE报告完成的工作量，延迟样本按它折算（见 AdaptiveConcurrencyLimiter.release）
+     */
+    private Router.Handler limited(Router.Handler handler) {
+        return (request, response, params) -> {
+            AdaptiveConcurrencyLimiter limiter = concurrencyLimiter;
+            if (limiter == null) {
+                handler.handle(request, response, params);
+                return;
+            }
+            long start = limiter.tryAcquire();
+            if (start < 0) {
+                response.setHeader("Retry-After", OVERLOADED_RETRY_AFTER);
+                response.setHeader("Cache-Control", "no-store");
+                sendBytes(response, 503, overloadedBody);
+                return;
+            }
+            try {
+                handler.handle(request, response, params);
+            } finally {
+                Object units = request.getAttribute(WORK_UNITS_ATTRIBUTE);
+                limiter.release(start, units != null ? (Integer) units : 1);
+            }
+        };
+    }
+
+    /**
+     * 注册全部API路由，路径相对于 /api
+     */
+    private Router buildRouter() {
+        return Router.builder()
+                .get("/cards",
+                        (request, response, params) -> catalogResponses.cards()[localeIndex(request)].write(request, response),
+                        (request, response, params) -> catalogResponses.cards()[localeIndex(request)]
+                                .writeHead(request, response),
+                        metrics.endpoint("GET", "/cards"))
+                .get("/major-arcana",
+                        (request, response, params) -> catalogResponses.majorArcana()[localeIndex(request)]
+                                .write(request, response),
+                        (request, response, params) -> catalogResponses.majorArcana()[localeIndex(request)]
+                                .writeHead(request, response),
+                        metrics.endpoint("GET", "/major-arcana"))
+                .get("/card/{id}",
+                        (request, response, params) -> handleGetCardById(request, response, params[0]),
+                        metrics.endpoint("GET", "/card/{id}"))
+                .get("/reading/stream",
+                        limited((request, response, params) -> handleReadingStream(request, response)),
+                        (request, response, params) -> response.setContentType(EVENT_STREAM_CONTENT_TYPE),
+                        metrics.endpoint("GET", "/reading/stream"))
+                .get("/reading/{id}",
+                        limited((request, response, params) -> handleGetReadingById(request, response, params[0])),
+                        metrics.endpoint("GET", "/reading/{id}"))
+                .get("/search",
+                        (request, response, params) -> handleSearch(request, response),
+                        metrics.endpoint("GET", "/search"))
+                .get("/metrics",
+                        (request, response, params) -> handleMetrics(response),
+                        metrics.endpoint("GET", "/metrics"))
+                .post("/reading",
+                        limited((request, response, params) -> handleReading(request, response)),
+                        metrics.endpoint("POST", "/reading"))
+                .post("/readings",
+                        limited((request, response, params) -> handleBulkReadings(request, response)),
+                        metrics.endpoint("POST", "/readings"))
+                .build();
+    }
+
+    /**
+     * 本次请求协商出的语言下标，由processRequest设置
+     */
+    private static int localeIndex(HttpServletRequest request) {
+        Object index = request.getAttribute(LOCALE_ATTRIBUTE);
+        return index != null ? (Integer) index : 0;
+    }
+
+    private String locale(HttpServletRequest request) {
+        return localeNegotiator.tag(localeIndex(request));
+    }
+
+    /**
+     * 读取配置参数，系统属性优先于context-param
+     */
+    private String getParameter(String name) {
+        String value = System.getProperty(name);
+        return value != null ? value : getServletContext().getInitParameter(name);
+    }
+
+    private int getIntParameter(String name, int defaultValue) throws ServletException {
+        String value = getParameter(name);
+        if (value == null || value.isBlank()) {
+            return defaultValue;
+        }
+        try {
+            return Integer.parseInt(value.trim());
+        } catch (NumberFormatException e) {
+            throw new ServletException("参数 " + name + " 不是整数: " + value, e);
+        }
+    }
+
+    /**
+     * 从应用上下文中获取资源清单，不存在时读取
+     */
+    private AssetManifest getAssetManifest() {
+        ServletContext context = getServletContext();
+        AssetManifest manifest = (AssetManifest) context.getAttribute("assetManifest");
+        if (manifest == null) {
+            manifest = AssetManifest.load(context);
+            context.setAttribute("assetManifest", manifest);
+        }
+        return manifest;
+    }
+
     /**
      * 从应用上下文中获取TarotGameService实例
      */
@@ -56,161 +469,388 @@ public class TarotGameController extends HttpServlet {
         return service;
     }
 
+    /**
+     * 所有HTTP方法都由路由表处理，不经过HttpServlet按方法分派的默认实现
+     */
     @Override
-    protected void doGet(HttpServletRequest request, HttpServletResponse response)
+    protected void service(HttpServletRequest request, HttpServletResponse response)
             throws ServletException, IOException {
-        processRequest(request, response);
+        dispatch(request, response);
     }
 
-    @Override
-    protected void doPost(HttpServletRequest request, HttpServletResponse response)
+    /**
+     * blocking模式下直接处理；virtual模式下开启异步上下文并把请求交给虚拟线程
+     */
+    private void dispatch(HttpServletRequest request, HttpServletResponse response)
             throws ServletException, IOException {
-        processRequest(request, response);
+        ExecutorService executor = requestExecutor;
+        if (executor == null || !request.isAsyncSupported()) {
+            processRequest(request, response);
+            return;
+        }
+
+        AsyncContext async = request.startAsync(request, response);
+        async.setTimeout(ASYNC_TIMEOUT_MILLIS);
+        try {
+            executor.execute(() -> {
+                try {
+                    processRequest(request, response);
+                } catch (Exception e) {
+                    logger.debug("异步请求写出失败: {}", e.getMessage());
+                } finally {
+                    if (request.getAttribute(ASYNC_OWNED_ATTRIBUTE) == null) {
+                        async.complete();
+                    }
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            // 应用正在关闭，执行器已停止接收任务
+            try {
+                sendErrorResponse(response, 503, "服务正在关闭");
+            } finally {
+                async.complete();
+            }
+        }
     }
 
     /**
-     * 统一处理GET和POST请求，避免重复的异常处理逻辑
+     * 按路由表分派请求，统一计时和异常处理
      */
     private void processRequest(HttpServletRequest request, HttpServletResponse response)
             throws ServletException, IOException {
-        String pathInfo = request.getPathInfo();
+        String method = request.getMethod();
+        String path = request.getPathInfo();
         response.setContentType("application/json;charset=UTF-8");
+        if (request.getHeader("Origin") != null) {
+            response.setHeader("Access-Control-Allow-Origin", "*");
+        }
+
+        Router.Match match = router.match(method, path);
+        if (match == null) {
+            handleUnrouted(request, response, method, path);
+            return;
+        }
+
+        int locale = localeNegotiator.select(request.getParameter("lang"), request.getHeader("Accept-Language"));
+        request.setAttribute(LOCALE_ATTRIBUTE, locale);
+        response.setHeader("Content-Language", localeNegotiator.tag(locale));
+        response.addHeader("Vary", "Accept-Language");
 
+        Router.Route route = match.route();
+        EndpointMetrics endpoint = route.metrics();
+        long start = endpoint.start();
+        HeadResponse head = null;
         try {
-            // 根据HTTP方法和路径处理不同的请求
-            if ("GET".equals(request.getMethod())) {
-                if ("/cards".equals(pathInfo)) {
-                    handleGetAllCards(response);
-                } else if ("/major-arcana".equals(pathInfo)) {
-                    handleGetMajorArcana(response);
-                } else if (pathInfo != null && pathInfo.startsWith("/card/")) {
-                    // 处理获取单张卡牌的请求: /api/card/{id}
-                    String cardId = pathInfo.substring(6);
-                    handleGetCardById(response, cardId);
+            if ("HEAD".equals(method)) {
+                if (route.headHandler() != null) {
+                    route.headHandler().handle(request, response, match.params());
                 } else {
-                    sendErrorResponse(response, 404, "API端点未找到");
-                }
-            } else if ("POST".equals(request.getMethod())) {
-                if ("/reading".equals(pathInfo)) {
-                    handleReading(request, response);
-                } else {
-                    sendErrorResponse(response, 404, "API端点未找到");
+                    head = new HeadResponse(response);
+                    route.handler().handle(request, head, match.params());
                 }
+            } else {
+                route.handler().handle(request, response, match.params());
             }
         } catch (IllegalArgumentException e) {
             // 处理参数错误
-            sendErrorResponse(response, 400, "参数错误: " + e.getMessage());
+            sendErrorResponse(head != null ? head : response, 400, "参数错误: " + e.getMessage());
         } catch (Exception e) {
             // 处理其他未预期的异常
             logger.error("处理请求时发生错误: {}", e.getMessage(), e);
-            sendErrorResponse(response, 500, "服务器内部错误");
+            sendErrorResponse(head != null ? head : response, 500, "服务器内部错误");
+        } finally {
+            if (head != null) {
+                head.finish();
+            }
+            endpoint.end(start, response.getStatus());
+        }
+    }
+
+    /**
+     * 没有匹配的路由：OPTIONS返回允许的方法（含CORS预检），路径存在但方法不对返回405，否则返回404
+     */
+    private void handleUnrouted(HttpServletRequest request, HttpServletResponse response,
+                                String method, String path) throws IOException {
+        boolean options = "OPTIONS".equals(method);
+        EndpointMetrics endpoint = options ? optionsMetrics : unmatchedMetrics;
+        long start = endpoint.start();
+        try {
+            List<String> allowed = router.allowedMethods(path);
+            if (allowed.isEmpty()) {
+                sendErrorResponse(response, 404, "API端点未找到");
+            } else if (options) {
+                handleOptions(request, response, Router.formatAllow(allowed));
+            } else {
+                response.setHeader("Allow", Router.formatAllow(allowed));
+                sendErrorResponse(response, 405, "不支持的请求方法: " + method);
+            }
+        } finally {
+            endpoint.end(start, response.getStatus());
         }
     }
 
     /**
-     * 处理获取所有大阿卡纳牌请求
+     * 响应OPTIONS请求，带Access-Control-Request-Method时按CORS预检处理，不调用任何业务逻辑
      */
-    private void handleGetMajorArcana(HttpServletResponse response) throws IOException {
-        List<TarotCard> majorArcanaCards = getTarotGameService().getMajorArcanaCards();
-        Map<String, Object> result = Map.of(
-                "success", true,
-                "major_arcana", majorArcanaCards);
-        sendJsonResponse(response, result);
+    private void handleOptions(HttpServletRequest request, HttpServletResponse response, String allow) {
+        response.setHeader("Allow", allow);
+        if (request.getHeader("Origin") != null && request.getHeader("Access-Control-Request-Method") != null) {
+            response.setHeader("Access-Control-Allow-Methods", allow);
+            String requestedHeaders = request.getHeader("Access-Control-Request-Headers");
+            response.setHeader("Access-Control-Allow-Headers",
+                    requestedHeaders != null ? requestedHeaders : CORS_ALLOW_HEADERS);
+            response.setHeader("Access-Control-Max-Age", CORS_MAX_AGE);
+        }
+        response.setContentType(null);
+        response.setStatus(HttpServletResponse.SC_NO_CONTENT);
+    }
+
+    /**
+     * 以Prometheus文本格式导出指标: GET /api/metrics
+     */
+    private void handleMetrics(HttpServletResponse response) throws IOException {
+        byte[] body = metrics.scrape().getBytes(StandardCharsets.UTF_8);
+        response.setContentType(TarotMetrics.CONTENT_TYPE);
+        response.setHeader("Cache-Control", "no-store");
+        sendBytes(response, 200, body);
     }
 
     /**
      * 处理获取单张卡牌的请求
      */
-    private void handleGetCardById(HttpServletResponse response, String cardId) throws IOException {
-        TarotCard card = getTarotGameService().getCardById(cardId);
-        Map<String, Object> result = Map.of(
-                "success", true,
-                "card", card);
-        sendJsonResponse(response, result);
+    private void handleGetCardById(HttpServletRequest request, HttpServletResponse response, String cardId)
+            throws IOException {
+        Optional<TarotCard> card = getTarotGameService().findCardById(cardId, locale(request));
+        if (card.isEmpty()) {
+            response.setHeader("Cache-Control", NOT_FOUND_CACHE_CONTROL);
+            sendBytes(response, 404, cardNotFoundBody);
+            return;
+        }
+        jsonWriter.write(response, 200, new CardPayload(card.get()));
     }
 
     /**
-     * 处理获取所有卡牌请求
+     * 全文检索卡牌: GET /api/search?q=...&limit=N
+     * 查询可以是任何一种语言，结果以协商出的语言返回
      */
-    private void handleGetAllCards(HttpServletResponse response) throws IOException {
-        Map<String, Object> allCards = getTarotGameService().getAllCardsAsMap();
-        Map<String, Object> result = Map.of(
-                "success", true,
-                "major_arcana", allCards.get("major_arcana"),
-                "minor_arcana", allCards.get("minor_arcana"));
-        sendJsonResponse(response, result);
+    private void handleSearch(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        String query = request.getParameter("q");
+        if (query == null || query.isBlank()) {
+            throw new IllegalArgumentException("缺少q参数");
+        }
+        if (query.length() > MAX_SEARCH_QUERY_LENGTH) {
+            throw new IllegalArgumentException("q不能超过" + MAX_SEARCH_QUERY_LENGTH + "个字符");
+        }
+        int limit = parseSearchLimit(request.getParameter("limit"));
+        jsonWriter.write(response, 200,
+                new SearchPayload(query, getTarotGameService().search(query, limit, locale(request))));
     }
 
     /**
-     * 处理占卜请求
+     * 解析检索返回的张数，缺省时使用默认值，超出范围时抛出IllegalArgumentException（返回400）
+     */
+    private static int parseSearchLimit(String value) {
+        if (value == null || value.isEmpty()) {
+            return DEFAULT_SEARCH_LIMIT;
+        }
+        int limit = Integer.parseInt(value.trim());
+        if (limit <= 0 || limit > MAX_SEARCH_LIMIT) {
+            throw new IllegalArgumentException("limit必须在1到" + MAX_SEARCH_LIMIT + "之间");
+        }
+        return limit;
+    }
+
+    /**
+     * 按占卜编号重新生成占卜结果
+     */
+    private void handleGetReadingById(HttpServletRequest request, HttpServletResponse response, String readingId)
+            throws IOException {
+        String locale = locale(request);
+        TarotGameService service = getTarotGameService();
+        Optional<ReadingId> id = ReadingId.decode(readingId);
+        // 同一编号的结果由牌阵、种子和目录内容决定，目录热加载后ETag随之变化
+        String etag = "\"" + readingId + "-" + service.getCatalogVersion(locale) + "\"";
+        if (id.isPresent() && PrecomputedResponse.matchesEtag(request.getHeader("If-None-Match"), etag)) {
+            response.setHeader("ETag", etag);
+            response.setHeader("Cache-Control", READING_PERMALINK_CACHE_CONTROL);
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            return;
+        }
+        Optional<CardReading> reading = id.flatMap(value -> service.regenerateReading(value, locale));
+        if (reading.isEmpty()) {
+            response.setHeader("Cache-Control", NOT_FOUND_CACHE_CONTROL);
+            sendBytes(response, 404, readingNotFoundBody);
+            return;
+        }
+        response.setHeader("ETag", etag);
+        response.setHeader("Cache-Control", READING_PERMALINK_CACHE_CONTROL);
+        preloadCardImages(request, response, reading.get());
+        jsonWriter.write(response, 200, new ReadingPayload(reading.get()));
+    }
+
+    /**
+     * 处理占卜请求: POST /api/reading?spread=...
      */
     protected void handleReading(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        TarotGameService service = getTarotGameService();
+        SpreadDefinition spread = service.resolveSpread(request.getParameter("spread"));
+        CardReading reading;
         try {
-            CardReading reading = getTarotGameService().performReading();
-            logger.info("成功生成塔罗解读");
-
-            // 使用HashMap而非不可变Map，确保更好的序列化兼容性
-            Map<String, Object> result = new HashMap<>();
-            result.put("success", true);
-
-            // 使用HashMap构建reading对象
-            Map<String, Object> readingMap = new HashMap<>();
-            readingMap.put("overallReading", reading.getOverallReading());
-            readingMap.put("spreadType", reading.getSpreadType());
-            readingMap.put("readingTime", reading.getReadingTime().toString()); // 已转换为字符串
-
-            // 转换drawnCards为更简单的Map列表，避免序列化复杂对象
-            List<Map<String, Object>> cardsList = new ArrayList<>();
-            for (int i = 0; i < reading.getDrawnCards().size(); i++) {
-                TarotCard card = reading.getDrawnCards().get(i);
-                Map<String, Object> cardMap = new HashMap<>();
-                cardMap.put("id", card.getId());
-                cardMap.put("name", card.getName());
-                cardMap.put("englishName", card.getEnglishName());
-                cardMap.put("uprightMeaning", card.getUprightMeaning());
-                cardMap.put("reversedMeaning", card.getReversedMeaning());
-                cardMap.put("description", card.getDescription());
-                cardMap.put("isReversed", card.isReversed());
-                cardMap.put("cardType", card.getCardType().name()); // 转换枚举为字符串
-                cardMap.put("suit", card.getSuit());
-                // 添加当前含义和位置标签
-                cardMap.put("currentMeaning", card.getCurrentMeaning());
-                cardMap.put("positionLabel", reading.getPositionLabel(i));
-                cardsList.add(cardMap);
-            }
-            readingMap.put("drawnCards", cardsList);
-            result.put("reading", readingMap);
-
-            sendJsonResponse(response, result);
+            reading = service.performReading(spread, locale(request));
         } catch (Exception e) {
             sendErrorResponse(response, 500, "处理占卜请求时发生错误: " + e.getMessage());
+            return;
         }
+        logger.debug("成功生成塔罗解读");
+        recordReading(reading, userHash(request));
+        preloadCardImages(request, response, reading);
+        jsonWriter.write(response, 200, new ReadingPayload(reading));
     }
 
     /**
-     * 发送JSON响应
+     * 以Server-Sent Events逐张推送占卜: GET /api/reading/stream?spread=...&interval=毫秒
+     * 先抽牌，再依次推送 reading、每张牌的 card 事件和最后的 summary 事件，之后关闭连接。
+     * 处理器只负责开启异步，连接在等待期间不占用请求线程
      */
-    private void sendJsonResponse(HttpServletResponse response, Object data) throws IOException {
-        try (PrintWriter out = response.getWriter()) {
+    private void handleReadingStream(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        TarotGameService service = getTarotGameService();
+        SpreadDefinition spread = service.resolveSpread(request.getParameter("spread"));
+        long interval = parseStreamInterval(request.getParameter("interval"));
+        if (!request.isAsyncSupported()) {
+            sendErrorResponse(response, 500, "事件流需要异步支持");
+            return;
+        }
 
-            if (data == null) {
-                out.print("{\"error\":\"响应数据为空\"}");
-                out.flush();
-                return;
+        CardReading reading = service.performReading(spread, locale(request));
+        recordReading(reading, userHash(request));
+        // 处理器返回时只完成了抽牌和开启异步，这段时间不代表一次占卜的处理时间，不计入并发上限的延迟样本
+        request.setAttribute(WORK_UNITS_ATTRIBUTE, 0);
+
+        response.setStatus(200);
+        response.setContentType(EVENT_STREAM_CONTENT_TYPE);
+        response.setHeader("Cache-Control", "no-store");
+        // 反向代理（如nginx）不要缓冲事件流
+        response.setHeader("X-Accel-Buffering", "no");
+
+        AsyncContext async = request.isAsyncStarted() ? request.getAsyncContext() : request.startAsync();
+        request.setAttribute(ASYNC_OWNED_ATTRIBUTE, Boolean.TRUE);
+        async.setTimeout(interval * (reading.getDrawnCards().size() + 1) + STREAM_TIMEOUT_MARGIN_MILLIS);
+        new ReadingEventStream(async, response.getOutputStream(), reading, service, readingEvents,
+                streamScheduler, interval).start();
+    }
+
+    /**
+     * 解析事件间隔，缺省时使用默认值，超出范围时抛出IllegalArgumentException（返回400）
+     */
+    private static long parseStreamInterval(String value) {
+        if (value == null || value.isEmpty()) {
+            return DEFAULT_STREAM_INTERVAL_MILLIS;
+        }
+        long interval = Long.parseLong(value.trim());
+        if (interval < 0 || interval > MAX_STREAM_INTERVAL_MILLIS) {
+            throw new IllegalArgumentException("interval必须在0到" + MAX_STREAM_INTERVAL_MILLIS + "之间");
+        }
+        return interval;
+    }
+
+    /**
+     * 处理批量占卜请求: POST /api/readings?count=N&spread=...
+     * 以换行分隔的JSON（NDJSON）逐条生成、逐批刷新，不在内存中保留全部结果
+     */
+    private void handleBulkReadings(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        int count = parseBulkCount(request.getParameter("count"));
+        TarotGameService service = getTarotGameService();
+        SpreadDefinition spread = service.resolveSpread(request.getParameter("spread"));
+
+        response.setStatus(200);
+        response.setContentType("application/x-ndjson;charset=UTF-8");
+        ServletOutputStream out = response.getOutputStream();
+
+        long userHash = userHash(request);
+        String locale = locale(request);
+        int written = 0;
+        try (JsonGenerator generator = jsonWriter.createGenerator(out)) {
+            // 默认会在相邻的根值之间写一个空格，每行之间已经有换行，不能再有分隔符
+            generator.setRootValueSeparator(null);
+            for (; written < count; written++) {
+                CardReading reading = service.performReading(spread, locale);
+                recordReading(reading, userHash);
+                ReadingPayload.writeReading(generator, reading);
+                generator.writeRaw('\n');
+                if ((written + 1) % BULK_FLUSH_INTERVAL == 0) {
+                    generator.flush();
+                    out.flush();
+                }
             }
+        } catch (IOException e) {
+            // 客户端断开连接时写出会失败，直接停止生成即可
+            logger.debug("批量占卜在第 {} 条时中断: {}", written, e.getMessage());
+            return;
+        } finally {
+            // 并发上限按每条占卜的平均处理时间计入样本，批量请求不会把单条请求的上限压低
+            request.setAttribute(WORK_UNITS_ATTRIBUTE, written);
+        }
+        logger.debug("批量占卜完成，共 {} 条", written);
+    }
 
-            logger.info("准备序列化响应数据，数据类型: {}", data.getClass().getName());
-            String jsonResponse = objectMapper.writeValueAsString(data);
+    /**
+     * 统计新生成的占卜并写入日志，日志只入队不等待落盘
+     */
+    private void recordReading(CardReading reading, long userHash) {
+        metrics.recordReading(reading);
+        if (readingJournal != null) {
+            readingJournal.append(reading, userHash);
+        }
+    }
 
-            logger.info("JSON序列化成功，响应长度: {}", jsonResponse.length());
-            out.print(jsonResponse);
-            out.flush();
+    /**
+     * 抽牌完成后、序列化响应体之前，按抽到的牌发送缩略图的预加载头和 103 Early Hints，
+     * 浏览器在收到解读内容之前就可以开始下载图片
+     */
+    private void preloadCardImages(HttpServletRequest request, HttpServletResponse response, CardReading reading) {
+        StringJoiner links = null;
+        for (DrawnCard drawn : reading.getDrawnCards()) {
+            String link = assetManifest.cardPreloadLink(drawn.card().id());
+            if (link != null) {
+                if (links == null) {
+                    links = new StringJoiner(", ");
+                }
+                links.add(link);
+            }
+        }
+        if (links != null) {
+            EarlyHints.send(request, response, links.toString());
+        }
+    }
 
-            logger.info("响应已发送");
-        } catch (Exception e) {
-            logger.error("JSON序列化或响应发送失败: {}", e.getMessage(), e);
-            throw new IOException("无法序列化响应数据: " + e.getMessage(), e);
+    /**
+     * 请求头X-User-Id存在时取其哈希写入日志，用于“我的占卜历史”
+     */
+    private static long userHash(HttpServletRequest request) {
+        return ReadingJournal.hashUser(request.getHeader("X-User-Id"));
+    }
+
+    /**
+     * 解析批量占卜数量，超出范围时抛出IllegalArgumentException（返回400）
+     */
+    private static int parseBulkCount(String value) {
+        if (value == null || value.isEmpty()) {
+            throw new IllegalArgumentException("缺少count参数");
         }
+        int count = Integer.parseInt(value.trim());
+        if (count <= 0 || count > MAX_BULK_READINGS) {
+            throw new IllegalArgumentException("count必须在1到" + MAX_BULK_READINGS + "之间");
+        }
+        return count;
+    }
+
+    /**
+     * 发送预先序列化好的响应体
+     */
+    private void sendBytes(HttpServletResponse response, int statusCode, byte[] body) throws IOException {
+        response.setStatus(statusCode);
+        response.setContentLength(body.length);
+        response.getOutputStream().write(body);
     }
 
     /**
@@ -218,13 +858,6 @@ public class TarotGameController extends HttpServlet {
      */
     private void sendErrorResponse(HttpServletResponse response, int statusCode, String message)
             throws IOException {
-        response.setStatus(statusCode);
-
-        Map<String, Object> error = Map.of(
-                "success", false,
-                "error", message,
-                "statusCode", statusCode);
-
-        sendJsonResponse(response, error);
+        jsonWriter.write(response, statusCode, new ErrorPayload(statusCode, message));
     }
 }
\ No newline at end of file
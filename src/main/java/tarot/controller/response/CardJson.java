@@ -0,0 +1,87 @@
+package tarot.controller.response;
+
+import tarot.model.DrawnCard;
+import tarot.model.TarotCard;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+
+import java.io.IOException;
+
+/**
+ * 卡牌的手写序列化器
+ * 字段名预先编码，写出时无需再做转义和编码
+ */
+final class CardJson {
+
+    static final SerializedString SUCCESS = new SerializedString("success");
+    static final SerializedString ID = new SerializedString("id");
+    static final SerializedString NAME = new SerializedString("name");
+    static final SerializedString ENGLISH_NAME = new SerializedString("englishName");
+    static final SerializedString UPRIGHT_MEANING = new SerializedString("uprightMeaning");
+    static final SerializedString REVERSED_MEANING = new SerializedString("reversedMeaning");
+    static final SerializedString DESCRIPTION = new SerializedString("description");
+    static final SerializedString CARD_TYPE = new SerializedString("cardType");
+    static final SerializedString SUIT = new SerializedString("suit");
+    static final SerializedString IS_REVERSED = new SerializedString("isReversed");
+    static final SerializedString REVERSED = new SerializedString("reversed");
+    static final SerializedString CURRENT_MEANING = new SerializedString("currentMeaning");
+    static final SerializedString POSITION_LABEL = new SerializedString("positionLabel");
+    static final SerializedString POSITION_HINT = new SerializedString("positionHint");
+
+    private CardJson() {
+    }
+
+    /**
+     * 写出卡牌的公共字段（不含对象起止符）
+     */
+    static void writeCardFields(JsonGenerator generator, TarotCard card) throws IOException {
+        generator.writeFieldName(ID);
+        generator.writeString(card.id());
+        generator.writeFieldName(NAME);
+        generator.writeString(card.name());
+        generator.writeFieldName(ENGLISH_NAME);
+        generator.writeString(card.englishName());
+        generator.writeFieldName(UPRIGHT_MEANING);
+        generator.writeString(card.uprightMeaning());
+        generator.writeFieldName(REVERSED_MEANING);
+        generator.writeString(card.reversedMeaning());
+        generator.writeFieldName(DESCRIPTION);
+        generator.writeString(card.description());
+        generator.writeFieldName(CARD_TYPE);
+        generator.writeString(card.cardType().name());
+        generator.writeFieldName(SUIT);
+        generator.writeString(card.suit());
+    }
+
+    /**
+     * 写出一张不在占卜中的卡牌对象（/api/card/{id}、/api/major-arcana）
+     * 保留原先按JavaBean序列化时就有的 reversed 和 currentMeaning 字段：规范牌总是正位，当前含义即正位含义
+     */
+    static void writeCard(JsonGenerator generator, TarotCard card) throws IOException {
+        generator.writeStartObject();
+        writeCardFields(generator, card);
+        generator.writeFieldName(REVERSED);
+        generator.writeBoolean(false);
+        generator.writeFieldName(CURRENT_MEANING);
+        generator.writeString(card.uprightMeaning());
+        generator.writeEndObject();
+    }
+
+    /**
+     * 写出占卜中抽到的一张牌，附带正逆位、当前含义、位置标签和位置提示
+     */
+    static void writeDrawnCard(JsonGenerator generator, DrawnCard drawn, String positionLabel,
+                               String positionHint) throws IOException {
+        generator.writeStartObject();
+        writeCardFields(generator, drawn.card());
+        generator.writeFieldName(IS_REVERSED);
+        generator.writeBoolean(drawn.reversed());
+        generator.writeFieldName(CURRENT_MEANING);
+        generator.writeString(drawn.currentMeaning());
+        generator.writeFieldName(POSITION_LABEL);
+        generator.writeString(positionLabel);
+        generator.writeFieldName(POSITION_HINT);
+        generator.writeString(positionHint);
+        generator.writeEndObject();
+    }
+}
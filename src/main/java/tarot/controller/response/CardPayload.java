@@ -0,0 +1,25 @@
+package tarot.controller.response;
+
+import tarot.model.TarotCard;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+
+import java.io.IOException;
+
+/**
+ * 单张卡牌响应：{"success":true,"card":{...}}
+ */
+public record CardPayload(TarotCard card) implements JsonPayload {
+
+    private static final SerializedString CARD = new SerializedString("card");
+
+    @Override
+    public void writeTo(JsonGenerator generator) throws IOException {
+        generator.writeStartObject();
+        generator.writeFieldName(CardJson.SUCCESS);
+        generator.writeBoolean(true);
+        generator.writeFieldName(CARD);
+        CardJson.writeCard(generator, card);
+        generator.writeEndObject();
+    }
+}
@@ -0,0 +1,27 @@
+package tarot.controller.response;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+
+import java.io.IOException;
+
+/**
+ * 错误响应：{"success":false,"error":"...","statusCode":...}
+ */
+public record ErrorPayload(int statusCode, String message) implements JsonPayload {
+
+    private static final SerializedString ERROR = new SerializedString("error");
+    private static final SerializedString STATUS_CODE = new SerializedString("statusCode");
+
+    @Override
+    public void writeTo(JsonGenerator generator) throws IOException {
+        generator.writeStartObject();
+        generator.writeFieldName(CardJson.SUCCESS);
+        generator.writeBoolean(false);
+        generator.writeFieldName(ERROR);
+        generator.writeString(message);
+        generator.writeFieldName(STATUS_CODE);
+        generator.writeNumber(statusCode);
+        generator.writeEndObject();
+    }
+}
@@ -0,0 +1,17 @@
+package tarot.controller.response;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+
+import java.io.IOException;
+
+/**
+ * 可直接写入JsonGenerator的响应体
+ * 每种响应各自手写序列化逻辑，不经过中间Map或String
+ */
+public interface JsonPayload {
+
+    /**
+     * 将响应体写入生成器
+     */
+    void writeTo(JsonGenerator generator) throws IOException;
+}
@@ -0,0 +1,59 @@
+package tarot.controller.response;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+
+import jakarta.servlet.http.HttpServletResponse;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * JSON响应写出器
+ * 直接在Servlet输出流上创建JsonGenerator，边序列化边以UTF-8写出，不生成中间字符串
+ */
+public class JsonResponseWriter {
+
+    private static final Logger logger = LoggerFactory.getLogger(JsonResponseWriter.class);
+
+    private final JsonFactory jsonFactory;
+
+    public JsonResponseWriter(JsonFactory jsonFactory) {
+        // 输出流由Servlet容器管理，生成器关闭时不关闭输出流
+        this.jsonFactory = jsonFactory.copy().disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+    }
+
+    /**
+     * 以指定状态码写出响应体
+     */
+    public void write(HttpServletResponse response, int statusCode, JsonPayload payload) throws IOException {
+        response.setStatus(statusCode);
+        try (JsonGenerator generator = createGenerator(response.getOutputStream())) {
+            payload.writeTo(generator);
+        }
+        logger.debug("响应已发送，状态码: {}，类型: {}", statusCode, payload.getClass().getSimpleName());
+    }
+
+    /**
+     * 序列化为UTF-8字节，用于启动时预渲染的响应
+     */
+    public byte[] toBytes(JsonPayload payload) throws IOException {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        try (JsonGenerator generator = createGenerator(buffer)) {
+            payload.writeTo(generator);
+        }
+        return buffer.toByteArray();
+    }
+
+    /**
+     * 在任意输出流上创建UTF-8生成器，调用方负责关闭生成器
+     */
+    public JsonGenerator createGenerator(OutputStream out) throws IOException {
+        return jsonFactory.createGenerator(out, JsonEncoding.UTF8);
+    }
+}
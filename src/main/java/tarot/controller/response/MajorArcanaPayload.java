@@ -0,0 +1,30 @@
+package tarot.controller.response;
+
+import tarot.model.TarotCard;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * 大阿卡纳列表响应：{"success":true,"major_arcana":[{...}]}
+ */
+public record MajorArcanaPayload(List<TarotCard> cards) implements JsonPayload {
+
+    private static final SerializedString MAJOR_ARCANA = new SerializedString("major_arcana");
+
+    @Override
+    public void writeTo(JsonGenerator generator) throws IOException {
+        generator.writeStartObject();
+        generator.writeFieldName(CardJson.SUCCESS);
+        generator.writeBoolean(true);
+        generator.writeFieldName(MAJOR_ARCANA);
+        generator.writeStartArray();
+        for (TarotCard card : cards) {
+            CardJson.writeCard(generator, card);
+        }
+        generator.writeEndArray();
+        generator.writeEndObject();
+    }
+}
@@ -0,0 +1,101 @@
+package tarot.controller.response;
+
+import tarot.model.CardReading;
+import tarot.model.DrawnCard;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.core.util.ByteArrayBuilder;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * 占卜事件流（Server-Sent Events）的事件编码
+ * 每个事件编码为完整的字节块："event: 名称\nid: 序号\ndata: 单行JSON\n\n"。
+ * JSON中的换行都已转义，data只占一行。事件依次为：
+ * reading（占卜编号、牌阵和张数）、每张牌一个card（牌面和该牌的解读片段）、最后的summary（综合解读）
+ */
+public final class ReadingEvents {
+
+    private static final SerializedString READING_ID = new SerializedString("readingId");
+    private static final SerializedString SPREAD = new SerializedString("spread");
+    private static final SerializedString SPREAD_TYPE = new SerializedString("spreadType");
+    private static final SerializedString CARD_COUNT = new SerializedString("cardCount");
+    private static final SerializedString INDEX = new SerializedString("index");
+    private static final SerializedString CARD = new SerializedString("card");
+    private static final SerializedString NARRATIVE = new SerializedString("narrative");
+    private static final SerializedString OVERALL_READING = new SerializedString("overallReading");
+
+    private static final byte[] DATA = "\ndata: ".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] END = "\n\n".getBytes(StandardCharsets.US_ASCII);
+
+    private final JsonFactory jsonFactory;
+
+    public ReadingEvents(JsonFactory jsonFactory) {
+        this.jsonFactory = jsonFactory;
+    }
+
+    public byte[] start(CardReading reading) throws IOException {
+        ByteArrayBuilder buffer = open("reading", 0);
+        try (JsonGenerator generator = jsonFactory.createGenerator(buffer)) {
+            generator.writeStartObject();
+            generator.writeFieldName(READING_ID);
+            generator.writeString(reading.getReadingId().encode());
+            generator.writeFieldName(SPREAD);
+            generator.writeString(reading.getSpread().getId());
+            generator.writeFieldName(SPREAD_TYPE);
+            generator.writeString(reading.getSpreadType());
+            generator.writeFieldName(CARD_COUNT);
+            generator.writeNumber(reading.getDrawnCards().size());
+            generator.writeEndObject();
+        }
+        return close(buffer);
+    }
+
+    /**
+     * @param index     牌在本次占卜中的序号，从0开始
+     * @param narrative 该牌的解读片段
+     */
+    public byte[] card(CardReading reading, int index, String narrative) throws IOException {
+        DrawnCard drawn = reading.getDrawnCards().get(index);
+        ByteArrayBuilder buffer = open("card", index + 1);
+        try (JsonGenerator generator = jsonFactory.createGenerator(buffer)) {
+            generator.writeStartObject();
+            generator.writeFieldName(INDEX);
+            generator.writeNumber(index);
+            generator.writeFieldName(CARD);
+            CardJson.writeDrawnCard(generator, drawn, reading.getPositionLabel(drawn.position()),
+                    reading.getPositionHint(drawn.position()));
+            generator.writeFieldName(NARRATIVE);
+            generator.writeString(narrative);
+            generator.writeEndObject();
+        }
+        return close(buffer);
+    }
+
+    public byte[] summary(CardReading reading) throws IOException {
+        ByteArrayBuilder buffer = open("summary", reading.getDrawnCards().size() + 1);
+        try (JsonGenerator generator = jsonFactory.createGenerator(buffer)) {
+            generator.writeStartObject();
+            generator.writeFieldName(READING_ID);
+            generator.writeString(reading.getReadingId().encode());
+            generator.writeFieldName(OVERALL_READING);
+            generator.writeString(reading.getOverallReading());
+            generator.writeEndObject();
+        }
+        return close(buffer);
+    }
+
+    private static ByteArrayBuilder open(String event, int id) {
+        ByteArrayBuilder buffer = new ByteArrayBuilder(512);
+        buffer.write(("event: " + event + "\nid: " + id).getBytes(StandardCharsets.US_ASCII));
+        buffer.write(DATA);
+        return buffer;
+    }
+
+    private static byte[] close(ByteArrayBuilder buffer) {
+        buffer.write(END);
+        return buffer.toByteArray();
+    }
+}
@@ -0,0 +1,60 @@
+package tarot.controller.response;
+
+import tarot.model.CardReading;
+import tarot.model.DrawnCard;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+
+import java.io.IOException;
+
+/**
+ * 占卜结果响应：{"success":true,"reading":{...}}
+ */
+public record ReadingPayload(CardReading reading) implements JsonPayload {
+
+    private static final SerializedString READING = new SerializedString("reading");
+    private static final SerializedString READING_ID = new SerializedString("readingId");
+    private static final SerializedString OVERALL_READING = new SerializedString("overallReading");
+    private static final SerializedString SPREAD_TYPE = new SerializedString("spreadType");
+    private static final SerializedString SPREAD = new SerializedString("spread");
+    private static final SerializedString READING_TIME = new SerializedString("readingTime");
+    private static final SerializedString DRAWN_CARDS = new SerializedString("drawnCards");
+
+    @Override
+    public void writeTo(JsonGenerator generator) throws IOException {
+        generator.writeStartObject();
+        generator.writeFieldName(CardJson.SUCCESS);
+        generator.writeBoolean(true);
+        generator.writeFieldName(READING);
+        writeReading(generator, reading);
+        generator.writeEndObject();
+    }
+
+    /**
+     * 写出占卜结果对象本身（不含外层success包装）
+     */
+    public static void writeReading(JsonGenerator generator, CardReading reading) throws IOException {
+        generator.writeStartObject();
+        generator.writeFieldName(READING_ID);
+        generator.writeString(reading.getReadingId().encode());
+        generator.writeFieldName(OVERALL_READING);
+        generator.writeString(reading.getOverallReading());
+        generator.writeFieldName(SPREAD_TYPE);
+        generator.writeString(reading.getSpreadType());
+        generator.writeFieldName(SPREAD);
+        generator.writeString(reading.getSpread().getId());
+        // 按编号重新生成的占卜没有时间，省略该字段
+        if (reading.getReadingTime() != null) {
+            generator.writeFieldName(READING_TIME);
+            generator.writeString(reading.getReadingTime().toString());
+        }
+        generator.writeFieldName(DRAWN_CARDS);
+        generator.writeStartArray();
+        for (DrawnCard drawn : reading.getDrawnCards()) {
+            CardJson.writeDrawnCard(generator, drawn, reading.getPositionLabel(drawn.position()),
+                    reading.getPositionHint(drawn.position()));
+        }
+        generator.writeEndArray();
+        generator.writeEndObject();
+    }
+}
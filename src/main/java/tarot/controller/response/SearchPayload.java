@@ -0,0 +1,41 @@
+package tarot.controller.response;
+
+import tarot.model.SearchHit;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * 检索结果响应：{"success":true,"query":"...","count":N,"results":[{卡牌字段..., "score":得分}]}
+ */
+public record SearchPayload(String query, List<SearchHit> hits) implements JsonPayload {
+
+    private static final SerializedString QUERY = new SerializedString("query");
+    private static final SerializedString COUNT = new SerializedString("count");
+    private static final SerializedString RESULTS = new SerializedString("results");
+    private static final SerializedString SCORE = new SerializedString("score");
+
+    @Override
+    public void writeTo(JsonGenerator generator) throws IOException {
+        generator.writeStartObject();
+        generator.writeFieldName(CardJson.SUCCESS);
+        generator.writeBoolean(true);
+        generator.writeFieldName(QUERY);
+        generator.writeString(query);
+        generator.writeFieldName(COUNT);
+        generator.writeNumber(hits.size());
+        generator.writeFieldName(RESULTS);
+        generator.writeStartArray();
+        for (SearchHit hit : hits) {
+            generator.writeStartObject();
+            CardJson.writeCardFields(generator, hit.card());
+            generator.writeFieldName(SCORE);
+            generator.writeNumber(hit.score());
+            generator.writeEndObject();
+        }
+        generator.writeEndArray();
+        generator.writeEndObject();
+    }
+}
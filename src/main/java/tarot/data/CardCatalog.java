@@ -0,0 +1,294 @@
+package tarot.data;
+
+import tarot.model.TarotCard;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.AbstractList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.RandomAccess;
+import java.util.zip.CRC32C;
+
+/**
+ * 二进制卡牌目录（由 CatalogCompiler 从 catalog/tarot-cards.{语言}.json 编译），每种语言一个文件
+ * <p>
+ * 文件布局（大端序）：
+ * <pre>
+ *   头部 28 字节   magic "TCAT" | 格式版本 u16 | 保留 u16 | 牌数 u32 | 字符串数 u32 | 修订号 u32 | 文本数 u32 | CRC32C u32
+ *   卡牌表         每张牌 28 字节：类型 u8 | 花色 u8 | 保留 u16 | 6 个字符串编号 u32
+ *                  （id、名称、英文名、正位含义、逆位含义、描述）
+ *   文本表         每条 8 字节：键的字符串编号 u32 | 值的字符串编号 u32，按键排序（牌阵名称、解读模板等界面文本）
+ *   偏移表         (字符串数 + 1) 个 u32，第 i 个字符串为 [offset[i], offset[i+1])
+ *   字符串区       所有字符串的UTF-8字节依次拼接，相同的字符串只存一份
+ * </pre>
+ * CRC32C覆盖头部之后的全部内容，文件只写了一半时打开就会失败。
+ * 打开时只校验结构，每张牌在第一次访问时才解码成 TarotCard 并缓存
+ */
+public final class CardCatalog {
+
+    // 类路径上的目录文件名：tarot-cards.{语言}.bin，构建期没有编译结果（例如直接从IDE部署）时使用同名的 .json
+    public static final String FILE_PREFIX = "tarot-cards.";
+    private static final String RESOURCE_DIRECTORY = "/catalog/";
+
+    static final int MAGIC = 0x54434154;
+    static final int FORMAT_VERSION = 2;
+    static final int HEADER_SIZE = 28;
+    static final int CARD_ENTRY_SIZE = 28;
+    static final int TEXT_ENTRY_SIZE = 8;
+    static final int CARD_STRINGS = 6;
+
+    // 花色编号从1开始，0表示没有花色（大阿卡纳）
+    static final List<String> SUITS = List.of("wands", "cups", "swords", "pentacles");
+
+    private final ByteBuffer buffer;
+    private final String source;
+    private final int revision;
+    private final int cardCount;
+    private final int stringCount;
+    private final int textCount;
+    private final int textTable;
+    private final int offsetTable;
+    private final int stringData;
+    private final TarotCard[] decoded;
+    private final List<TarotCard> cards;
+
+    private CardCatalog(ByteBuffer buffer, String source) {
+        this.buffer = buffer.order(ByteOrder.BIG_ENDIAN);
+        this.source = source;
+
+        int limit = buffer.limit();
+        if (limit < HEADER_SIZE || buffer.getInt(0) != MAGIC) {
+            throw new IllegalArgumentException("不是卡牌目录文件: " + source);
+        }
+        int format = Short.toUnsignedInt(buffer.getShort(4));
+        if (format != FORMAT_VERSION) {
+            throw new IllegalArgumentException("不支持的卡牌目录格式版本 " + format + ": " + source);
+        }
+        this.cardCount = buffer.getInt(8);
+        this.stringCount = buffer.getInt(12);
+        this.revision = buffer.getInt(16);
+        this.textCount = buffer.getInt(20);
+        long textTable = HEADER_SIZE + (long) cardCount * CARD_ENTRY_SIZE;
+        long offsetTable = textTable + (long) textCount * TEXT_ENTRY_SIZE;
+        long stringData = offsetTable + ((long) stringCount + 1) * Integer.BYTES;
+        if (cardCount <= 0 || stringCount <= 0 || textCount < 0 || stringData > limit) {
+            throw new IllegalArgumentException("卡牌目录已损坏（表长度超出文件）: " + source);
+        }
+        this.textTable = (int) textTable;
+        this.offsetTable = (int) offsetTable;
+        this.stringData = (int) stringData;
+
+        CRC32C crc = new CRC32C();
+        crc.update(buffer.slice(HEADER_SIZE, limit - HEADER_SIZE));
+        if ((int) crc.getValue() != buffer.getInt(24)) {
+            throw new IllegalArgumentException("卡牌目录校验和不匹配，文件可能不完整: " + source);
+        }
+        validateTables(limit);
+
+        this.decoded = new TarotCard[cardCount];
+        this.cards = new CardList();
+    }
+
+    /**
+     * 结构校验：字符串偏移单调且不越界，卡牌引用的字符串编号和花色都有效。
+     * 通过之后按下标解码不会再遇到越界
+     */
+    private void validateTables(int limit) {
+        int previous = 0;
+        for (int i = 0; i <= stringCount; i++) {
+            int offset = buffer.getInt(offsetTable + i * Integer.BYTES);
+            if (offset < previous || stringData + (long) offset > limit) {
+                throw new IllegalArgumentException("卡牌目录已损坏（字符串偏移无效）: " + source);
+            }
+            previous = offset;
+        }
+        for (int i = 0; i < cardCount; i++) {
+            int entry = HEADER_SIZE + i * CARD_ENTRY_SIZE;
+            int type = Byte.toUnsignedInt(buffer.get(entry));
+            int suit = Byte.toUnsignedInt(buffer.get(entry + 1));
+            if (type >= TarotCard.CardType.values().length || suit > SUITS.size()) {
+                throw new IllegalArgumentException("卡牌目录已损坏（第" + i + "张牌的类型或花色无效）: " + source);
+            }
+            for (int field = 0; field < CARD_STRINGS; field++) {
+                int index = buffer.getInt(entry + 4 + field * Integer.BYTES);
+                if (index < 0 || index >= stringCount) {
+                    throw new IllegalArgumentException("卡牌目录已损坏（第" + i + "张牌的字符串编号无效）: " + source);
+                }
+            }
+        }
+        for (int i = 0; i < textCount * 2; i++) {
+            int index = buffer.getInt(textTable + i * Integer.BYTES);
+            if (index < 0 || index >= stringCount) {
+                throw new IllegalArgumentException("卡牌目录已损坏（文本表的字符串编号无效）: " + source);
+            }
+        }
+    }
+
+    /**
+     * 以内存映射方式打开编译好的目录文件
+     * 映射建立后文件可以被删除，但不能被原地改写，热加载时应先复制一份再打开（见 CatalogReloader）
+     */
+    public static CardCatalog open(Path file) throws IOException {
+        return open(file, file.toString());
+    }
+
+    /**
+     * 以内存映射方式打开目录文件，日志和错误信息中使用source作为来源
+     */
+    public static CardCatalog open(Path file, String source) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size > Integer.MAX_VALUE) {
+                throw new IllegalArgumentException("卡牌目录文件过大: " + file);
+            }
+            return new CardCatalog(channel.map(FileChannel.MapMode.READ_ONLY, 0, size), source);
+        }
+    }
+
+    /**
+     * 从内存中的编译结果创建目录
+     */
+    public static CardCatalog of(byte[] data, String source) {
+        return new CardCatalog(ByteBuffer.wrap(data).asReadOnlyBuffer(), source);
+    }
+
+    /**
+     * 从JSON源文件编译并创建目录
+     */
+    public static CardCatalog compile(InputStream json, String source) throws IOException {
+        return of(CatalogCompiler.compile(json), source);
+    }
+
+    /**
+     * 加载随应用发布的某种语言的目录
+     * 类路径上的编译结果是普通文件时直接映射，在jar包中时读入内存；都没有时从JSON源文件编译
+     *
+     * @param locale 语言标签，例如 zh、en
+     */
+    public static CardCatalog loadDefault(String locale) {
+        String compiledResource = RESOURCE_DIRECTORY + fileName(locale, ".bin");
+        String sourceResource = RESOURCE_DIRECTORY + fileName(locale, ".json");
+        try {
+            URL compiled = CardCatalog.class.getResource(compiledResource);
+            if (compiled != null) {
+                if ("file".equals(compiled.getProtocol())) {
+                    return open(Path.of(compiled.toURI()));
+                }
+                try (InputStream in = compiled.openStream()) {
+                    return of(in.readAllBytes(), compiled.toString());
+                }
+            }
+            try (InputStream json = CardCatalog.class.getResourceAsStream(sourceResource)) {
+                if (json == null) {
+                    throw new IllegalStateException("类路径上没有语言 " + locale + " 的卡牌目录: " + compiledResource);
+                }
+                return compile(json, sourceResource);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("加载卡牌目录失败", e);
+        } catch (URISyntaxException e) {
+            throw new IllegalStateException("加载卡牌目录失败", e);
+        }
+    }
+
+    /**
+     * 某种语言的目录文件名，例如 tarot-cards.en.bin
+     */
+    public static String fileName(String locale, String extension) {
+        return FILE_PREFIX + locale + extension;
+    }
+
+    /**
+     * 目录修订号，由数据维护者在源文件中递增，只用于日志和指标
+     */
+    public int revision() {
+        return revision;
+    }
+
+    public int size() {
+        return cardCount;
+    }
+
+    public String source() {
+        return source;
+    }
+
+    /**
+     * 按目录顺序取第index张牌，第一次访问时解码
+     * 并发首次访问时可能各自解码一次，TarotCard不可变，哪一份留在缓存里都一样
+     */
+    public TarotCard card(int index) {
+        TarotCard card = decoded[index];
+        if (card == null) {
+            card = decode(index);
+            decoded[index] = card;
+        }
+        return card;
+    }
+
+    /**
+     * 界面文本（牌阵名称、位置标签、解读模板等），键为源文件中的路径，例如 spreads.three-card.labels.0
+     * 只在构建服务快照时读取，每次调用都重新解码
+     */
+    public Map<String, String> texts() {
+        Map<String, String> texts = new HashMap<>();
+        for (int i = 0; i < textCount; i++) {
+            int entry = textTable + i * TEXT_ENTRY_SIZE;
+            texts.put(string(buffer.getInt(entry)), string(buffer.getInt(entry + Integer.BYTES)));
+        }
+        return Map.copyOf(texts);
+    }
+
+    /**
+     * 全部卡牌的只读视图，按目录顺序（大阿卡纳0~21，随后是权杖、圣杯、宝剑、星币）
+     */
+    public List<TarotCard> cards() {
+        return cards;
+    }
+
+    private TarotCard decode(int index) {
+        int entry = HEADER_SIZE + index * CARD_ENTRY_SIZE;
+        TarotCard.CardType type = TarotCard.CardType.values()[buffer.get(entry)];
+        int suit = buffer.get(entry + 1);
+        return new TarotCard(
+                string(entry, 0), string(entry, 1), string(entry, 2),
+                string(entry, 3), string(entry, 4), string(entry, 5),
+                type, suit == 0 ? null : SUITS.get(suit - 1));
+    }
+
+    private String string(int entry, int field) {
+        return string(buffer.getInt(entry + 4 + field * Integer.BYTES));
+    }
+
+    private String string(int index) {
+        int start = buffer.getInt(offsetTable + index * Integer.BYTES);
+        int end = buffer.getInt(offsetTable + (index + 1) * Integer.BYTES);
+        byte[] bytes = new byte[end - start];
+        buffer.get(stringData + start, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private final class CardList extends AbstractList<TarotCard> implements RandomAccess {
+
+        @Override
+        public TarotCard get(int index) {
+            return card(index);
+        }
+
+        @Override
+        public int size() {
+            return cardCount;
+        }
+    }
+}
@@ -0,0 +1,204 @@
+package tarot.data;
+
+import tarot.model.TarotCard;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+/**
+ * 卡牌目录编译器：把可编辑的JSON源文件编译成 CardCatalog 的二进制格式
+ * 构建时由Maven在process-classes阶段运行，编译源目录中的每一个 tarot-cards.{语言}.json；
+ * 更新线上目录时也可以手工编译单个文件，输出到热加载监视的目录：
+ * <pre>
+ *   java -cp WEB-INF/classes:WEB-INF/lib/* tarot.data.CatalogCompiler tarot-cards.en.json /srv/tarot/catalog/tarot-cards.en.bin
+ * </pre>
+ * 输出先写入同目录的临时文件再原子替换，监视该目录的进程不会读到写了一半的内容
+ */
+public final class CatalogCompiler {
+
+    private static final String[] STRING_FIELDS = {
+            "id", "name", "englishName", "uprightMeaning", "reversedMeaning", "description"
+    };
+
+    private CatalogCompiler() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 2) {
+            System.err.println("用法: CatalogCompiler <源JSON> <输出文件> 或 CatalogCompiler <源目录> <输出目录>");
+            System.exit(2);
+        }
+        Path source = Path.of(args[0]);
+        Path target = Path.of(args[1]).toAbsolutePath();
+        if (!Files.isDirectory(source)) {
+            compileFile(source, target);
+            return;
+        }
+        try (Stream<Path> files = Files.list(source)) {
+            for (Path file : files.sorted().toList()) {
+                String name = file.getFileName().toString();
+                if (name.startsWith(CardCatalog.FILE_PREFIX) && name.endsWith(".json")) {
+                    compileFile(file, target.resolve(name.substring(0, name.length() - ".json".length()) + ".bin"));
+                }
+            }
+        }
+    }
+
+    private static void compileFile(Path source, Path target) throws IOException {
+        byte[] compiled;
+        try (InputStream in = Files.newInputStream(source)) {
+            compiled = compile(in);
+        } catch (IllegalArgumentException e) {
+            System.err.println("卡牌目录无效: " + source + ": " + e.getMessage());
+            System.exit(1);
+            return;
+        }
+        Files.createDirectories(target.getParent());
+        Path temp = Files.createTempFile(target.getParent(), ".tarot-cards-", ".tmp");
+        try {
+            Files.write(temp, compiled);
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+        CardCatalog catalog = CardCatalog.of(compiled, target.toString());
+        System.out.println("卡牌目录已编译: " + target + "，修订号 " + catalog.revision() + "，"
+                + catalog.size() + " 张牌，" + compiled.length + " 字节");
+    }
+
+    /**
+     * 解析并校验JSON源文件，返回编译后的字节
+     *
+     * @throws IllegalArgumentException 源文件内容不符合要求（缺少字段、ID重复、花色未知等）
+     */
+    public static byte[] compile(InputStream json) throws IOException {
+        JsonNode root = new ObjectMapper().readTree(json);
+        if (root == null || !root.path("cards").isArray() || root.path("cards").isEmpty()) {
+            throw new IllegalArgumentException("源文件缺少cards数组");
+        }
+        JsonNode revisionNode = root.path("revision");
+        if (!revisionNode.canConvertToInt() || revisionNode.intValue() < 0) {
+            throw new IllegalArgumentException("revision必须是非负整数");
+        }
+        // 按键排序，相同的源文件总是得到相同的字节
+        Map<String, String> texts = new TreeMap<>();
+        flattenTexts("", root.path("texts"), texts);
+
+        List<String> strings = new ArrayList<>();
+        Map<String, Integer> stringIndex = new HashMap<>();
+        Set<String> ids = new HashSet<>();
+        JsonNode cards = root.path("cards");
+        ByteBuffer cardTable = ByteBuffer.allocate(cards.size() * CardCatalog.CARD_ENTRY_SIZE);
+
+        for (int i = 0; i < cards.size(); i++) {
+            JsonNode card = cards.get(i);
+            TarotCard.CardType type;
+            try {
+                type = TarotCard.CardType.valueOf(card.path("cardType").asText());
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("第" + (i + 1) + "张牌的cardType无效: " + card.path("cardType"));
+            }
+            int suit = 0;
+            String suitName = card.path("suit").asText(null);
+            if (type == TarotCard.CardType.MINOR_ARCANA) {
+                suit = CardCatalog.SUITS.indexOf(suitName) + 1;
+                if (suit == 0) {
+                    throw new IllegalArgumentException("第" + (i + 1) + "张牌的花色无效: " + suitName
+                            + "，应为 " + CardCatalog.SUITS + " 之一");
+                }
+            } else if (suitName != null) {
+                throw new IllegalArgumentException("大阿卡纳牌不能有花色: 第" + (i + 1) + "张牌");
+            }
+
+            cardTable.put((byte) type.ordinal()).put((byte) suit).putShort((short) 0);
+            for (String field : STRING_FIELDS) {
+                String value = card.path(field).asText("");
+                if (value.isBlank()) {
+                    throw new IllegalArgumentException("第" + (i + 1) + "张牌缺少字段 " + field);
+                }
+                if (field.equals("id") && !ids.add(value)) {
+                    throw new IllegalArgumentException("卡牌ID重复: " + value);
+                }
+                cardTable.putInt(stringIndex.computeIfAbsent(value, key -> {
+                    strings.add(key);
+                    return strings.size() - 1;
+                }));
+            }
+        }
+
+        ByteBuffer textTable = ByteBuffer.allocate(texts.size() * CardCatalog.TEXT_ENTRY_SIZE);
+        for (Map.Entry<String, String> text : texts.entrySet()) {
+            for (String value : new String[] { text.getKey(), text.getValue() }) {
+                textTable.putInt(stringIndex.computeIfAbsent(value, key -> {
+                    strings.add(key);
+                    return strings.size() - 1;
+                }));
+            }
+        }
+
+        ByteArrayOutputStream stringData = new ByteArrayOutputStream();
+        ByteBuffer offsets = ByteBuffer.allocate((strings.size() + 1) * Integer.BYTES);
+        for (String value : strings) {
+            offsets.putInt(stringData.size());
+            stringData.writeBytes(value.getBytes(StandardCharsets.UTF_8));
+        }
+        offsets.putInt(stringData.size());
+
+        ByteBuffer out = ByteBuffer.allocate(CardCatalog.HEADER_SIZE + cardTable.capacity() + textTable.capacity()
+                + offsets.capacity() + stringData.size());
+        out.position(CardCatalog.HEADER_SIZE);
+        out.put(cardTable.array()).put(textTable.array()).put(offsets.array()).put(stringData.toByteArray());
+
+        CRC32C crc = new CRC32C();
+        crc.update(out.array(), CardCatalog.HEADER_SIZE, out.capacity() - CardCatalog.HEADER_SIZE);
+        out.putInt(0, CardCatalog.MAGIC)
+                .putShort(4, (short) CardCatalog.FORMAT_VERSION)
+                .putShort(6, (short) 0)
+                .putInt(8, cards.size())
+                .putInt(12, strings.size())
+                .putInt(16, revisionNode.intValue())
+                .putInt(20, texts.size())
+                .putInt(24, (int) crc.getValue());
+        return out.array();
+    }
+
+    /**
+     * 把texts中嵌套的对象和数组展开为以点分隔的键，例如 spreads.three-card.labels.0
+     */
+    private static void flattenTexts(String prefix, JsonNode node, Map<String, String> texts) {
+        if (node.isMissingNode() || node.isNull()) {
+            return;
+        }
+        if (node.isTextual()) {
+            texts.put(prefix, node.textValue());
+        } else if (node.isObject()) {
+            for (Map.Entry<String, JsonNode> field : node.properties()) {
+                flattenTexts(prefix.isEmpty() ? field.getKey() : prefix + "." + field.getKey(), field.getValue(), texts);
+            }
+        } else if (node.isArray()) {
+            for (int i = 0; i < node.size(); i++) {
+                flattenTexts(prefix + "." + i, node.get(i), texts);
+            }
+        } else {
+            throw new IllegalArgumentException("texts中的值必须是字符串: " + prefix);
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package tarot.data;
+
+import tarot.model.SpreadDefinition;
+
+import java.util.List;
+
+/**
+ * 牌阵数据类，包含所有内置牌阵的定义
+ * 新增牌阵时使用新的编号，已发布的编号不要修改
+ */
+public class SpreadData {
+
+    public static final String DEFAULT_SPREAD_ID = "three-card";
+
+    private static final List<SpreadDefinition> SPREADS = List.of(
+        new SpreadDefinition(0, "three-card", "过去-现在-未来",
+            new String[] { "过去/根源", "现在/情况", "未来/建议" },
+            new String[] {
+                "影响当前问题的过去经历与根源",
+                "你目前所处的状况和面对的能量",
+                "事情的发展趋势以及可以采取的行动"
+            }),
+        new SpreadDefinition(1, "single", "单张指引",
+            new String[] { "指引" },
+            new String[] { "针对当前问题最核心的提示" }),
+        new SpreadDefinition(2, "celtic-cross", "凯尔特十字",
+            new String[] {
+                "现状", "挑战", "根基", "过去", "目标",
+                "近期未来", "自我", "环境", "希望与恐惧", "结果"
+            },
+            new String[] {
+                "问题的核心与你当前的处境",
+                "横亘在面前的阻碍或需要面对的挑战",
+                "潜意识中的根源，事情的深层基础",
+                "正在离去的过去影响",
+                "你有意识追求的目标或最好的可能",
+                "即将到来的发展",
+                "你对这件事的态度和自我认知",
+                "周围的人和外部环境带来的影响",
+                "你内心的期待与担忧",
+                "按目前方向发展的最终结果"
+            }),
+        new SpreadDefinition(3, "horseshoe", "马蹄形",
+            new String[] { "过去", "现在", "隐藏的影响", "阻碍", "外部影响", "建议", "结果" },
+            new String[] {
+                "对当前问题仍有影响的过去",
+                "你现在的处境",
+                "尚未察觉的潜在因素",
+                "需要克服的障碍",
+                "他人和环境对你的影响",
+                "最适合你的行动方向",
+                "可能的结果"
+            })
+    );
+
+    /**
+     * 获取所有内置牌阵
+     */
+    public static List<SpreadDefinition> getSpreads() {
+        return SPREADS;
+    }
+}
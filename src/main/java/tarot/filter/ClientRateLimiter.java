@@ -0,0 +1,136 @@
+package tarot.filter;
+
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 按客户端的令牌桶限流（GCRA，通用信元速率算法）
+ * 每个客户端只保存一个long：理论到达时间TAT。每个请求把TAT推后一个发放间隔，
+ * TAT超出当前时间不超过（突发数-1）个间隔时放行；一次CAS完成“补充令牌”和“取令牌”，不加锁。
+ * <p>
+ * 客户端状态按键的哈希分到若干条带，每条带容量固定。TAT不晚于当前时间的条目与不存在等价（令牌已满），
+ * 所以条带满时先清理这些空闲条目，不会丢失任何限流状态；清理后仍然满时，新客户端共用该条带的溢出桶，
+ * 内存有上限，大量伪造来源的请求也只能分到溢出桶的额度
+ */
+public final class ClientRateLimiter {
+
+    private static final int STRIPES = 64;
+
+    private final long emissionIntervalNanos;
+    private final long toleranceNanos;
+    private final int stripeCapacity;
+    private final Stripe[] stripes = new Stripe[STRIPES];
+
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder overflows = new LongAdder();
+
+    /**
+     * @param ratePerSecond 持续速率（每秒请求数）
+     * @param burst         允许的突发请求数，至少为1
+     * @param maxClients    同时跟踪的客户端数上限，平均分到各条带
+     */
+    public ClientRateLimiter(double ratePerSecond, int burst, int maxClients) {
+        if (ratePerSecond <= 0 || burst < 1 || maxClients < STRIPES) {
+            throw new IllegalArgumentException("限流参数无效: rate=" + ratePerSecond + ", burst=" + burst
+                    + ", maxClients=" + maxClients);
+        }
+        this.emissionIntervalNanos = Math.max(1, (long) (1_000_000_000L / ratePerSecond));
+        this.toleranceNanos = emissionIntervalNanos * (burst - 1);
+        this.stripeCapacity = maxClients / STRIPES;
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new Stripe(stripeCapacity);
+        }
+    }
+
+    /**
+     * 为客户端取一个令牌
+     *
+     * @param nowNanos System.nanoTime()
+     * @return 0表示放行，否则为还需等待的纳秒数
+     */
+    public long tryAcquire(String client, long nowNanos) {
+        int hash = client.hashCode();
+        Stripe stripe = stripes[(hash ^ (hash >>> 16)) & (STRIPES - 1)];
+        AtomicLong tat = stripe.buckets.get(client);
+        if (tat == null) {
+            tat = stripe.register(client, nowNanos);
+        }
+        while (true) {
+            long current = tat.get();
+            long base = Math.max(current, nowNanos);
+            long wait = base - toleranceNanos - nowNanos;
+            if (wait > 0) {
+                return wait;
+            }
+            if (tat.compareAndSet(current, base + emissionIntervalNanos)) {
+                return 0;
+            }
+        }
+    }
+
+    public long getTrackedClients() {
+        long total = 0;
+        for (Stripe stripe : stripes) {
+            total += stripe.buckets.size();
+        }
+        return total;
+    }
+
+    public long getEvictionCount() {
+        return evictions.sum();
+    }
+
+    public long getOverflowCount() {
+        return overflows.sum();
+    }
+
+    private final class Stripe {
+
+        private final ConcurrentHashMap<String, AtomicLong> buckets;
+        // 条带已满且没有空闲条目时，新客户端共用的桶
+        private final AtomicLong overflow = new AtomicLong(Long.MIN_VALUE);
+        // 条带满时最多每个发放间隔清理一次，避免大量新来源的请求反复遍历整个条带
+        private long nextSweepNanos = Long.MIN_VALUE;
+
+        private Stripe(int capacity) {
+            this.buckets = new ConcurrentHashMap<>(capacity);
+        }
+
+        /**
+         * 新客户端：条带未满时登记，满时先清理空闲条目，仍然满时返回溢出桶
+         * 只在第一次见到某个客户端（或它被清理之后）调用，不在常规请求路径上
+         */
+        private AtomicLong register(String client, long nowNanos) {
+            if (buckets.size() >= stripeCapacity) {
+                synchronized (this) {
+                    if (buckets.size() >= stripeCapacity && nowNanos >= nextSweepNanos) {
+                        evictIdle(nowNanos);
+                        nextSweepNanos = nowNanos + emissionIntervalNanos;
+                    }
+                }
+                if (buckets.size() >= stripeCapacity) {
+                    overflows.increment();
+                    return overflow;
+                }
+            }
+            // 初始TAT早于当前时间，新客户端拥有完整的突发额度
+            return buckets.computeIfAbsent(client, key -> new AtomicLong(Long.MIN_VALUE));
+        }
+
+        /**
+         * 清理令牌已满的条目。与清理同时进行的请求可能更新了刚被删除的桶，
+         * 这个客户端最多多得到一次放行
+         */
+        private void evictIdle(long nowNanos) {
+            Iterator<AtomicLong> iterator = buckets.values().iterator();
+            while (iterator.hasNext()) {
+                if (iterator.next().get() <= nowNanos) {
+                    iterator.remove();
+                    evictions.increment();
+                }
+            }
+        }
+    }
+}
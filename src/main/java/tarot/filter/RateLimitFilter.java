@@ -0,0 +1,179 @@
+package tarot.filter;
+
+import tarot.metrics.TarotMetrics;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpFilter;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.nio.charset.StandardCharsets;
+import java.util.HexFormat;
+import java.util.Set;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * API限流过滤器
+ * 在TarotGameController之前按客户端做令牌桶限流（见 ClientRateLimiter）。客户端默认按来源IP区分，
+ * IPv6按/64前缀合并；请求带 X-API-Key 且该密钥在配置的列表中时按密钥区分，未登记的密钥不会被信任，
+ * 否则随意更换密钥就能绕过限流。放行的请求只有一次哈希查找和一次CAS；
+ * 拒绝时直接写出预先编码好的429响应，不经过业务逻辑和Jackson
+ */
+public class RateLimitFilter extends HttpFilter {
+
+    private static final Logger logger = LoggerFactory.getLogger(RateLimitFilter.class);
+
+    // 配置参数名（filter的init-param，也可以用同名系统属性覆盖）
+    private static final String ENABLED_PARAM = "tarot.ratelimit.enabled";
+    private static final String RATE_PARAM = "tarot.ratelimit.rate";
+    private static final String BURST_PARAM = "tarot.ratelimit.burst";
+    private static final String MAX_CLIENTS_PARAM = "tarot.ratelimit.maxClients";
+    private static final String API_KEYS_PARAM = "tarot.ratelimit.apiKeys";
+
+    private static final double DEFAULT_RATE = 10;
+    private static final int DEFAULT_BURST = 20;
+    private static final int DEFAULT_MAX_CLIENTS = 100_000;
+
+    private static final long NANOS_PER_SECOND = 1_000_000_000L;
+
+    private static final String API_KEY_HEADER = "X-API-Key";
+
+    private static final byte[] TOO_MANY_REQUESTS_BODY =
+            "{\"success\":false,\"error\":\"请求过于频繁，请稍后再试\",\"statusCode\":429}"
+                    .getBytes(StandardCharsets.UTF_8);
+
+    // Retry-After的常用取值预先转成字符串
+    private static final String[] RETRY_AFTER = new String[61];
+
+    static {
+        for (int i = 0; i < RETRY_AFTER.length; i++) {
+            RETRY_AFTER[i] = Integer.toString(i);
+        }
+    }
+
+    private boolean enabled;
+    private ClientRateLimiter limiter;
+    private Set<String> apiKeys = Set.of();
+    private final LongAdder rejected = new LongAdder();
+
+    @Override
+    public void init() throws ServletException {
+        if ("false".equalsIgnoreCase(getParameter(ENABLED_PARAM))) {
+            logger.info("API限流已禁用");
+            return;
+        }
+        double rate = parse(RATE_PARAM, DEFAULT_RATE);
+        int burst = (int) parse(BURST_PARAM, DEFAULT_BURST);
+        int maxClients = (int) parse(MAX_CLIENTS_PARAM, DEFAULT_MAX_CLIENTS);
+        try {
+            limiter = new ClientRateLimiter(rate, burst, maxClients);
+        } catch (IllegalArgumentException e) {
+            throw new ServletException(e.getMessage(), e);
+        }
+
+        String keys = getParameter(API_KEYS_PARAM);
+        if (keys != null && !keys.isBlank()) {
+            apiKeys = Set.of(keys.trim().split("\\s*,\\s*"));
+        }
+        enabled = true;
+
+        TarotMetrics metrics = (TarotMetrics) getServletContext().getAttribute("tarotMetrics");
+        if (metrics != null) {
+            metrics.registerCounter("rate_limited_total", "被限流拒绝（429）的请求数", rejected::sum);
+            metrics.registerGauge("rate_limit_clients", "限流器当前跟踪的客户端数", limiter::getTrackedClients);
+            metrics.registerCounter("rate_limit_evictions_total", "清理的空闲客户端条目数",
+                    limiter::getEvictionCount);
+            metrics.registerCounter("rate_limit_overflow_total", "条带已满而使用共享溢出桶的请求数",
+                    limiter::getOverflowCount);
+        }
+        logger.info("API限流已启用: 每个客户端 {}/秒，突发 {}，最多跟踪 {} 个客户端，登记的API密钥 {} 个",
+                rate, burst, maxClients, apiKeys.size());
+    }
+
+    @Override
+    protected void doFilter(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws IOException, ServletException {
+        // CORS预检不调用业务逻辑，由浏览器缓存，不计入限流
+        if (!enabled || "OPTIONS".equals(request.getMethod())) {
+            chain.doFilter(request, response);
+            return;
+        }
+        long waitNanos = limiter.tryAcquire(clientKey(request), System.nanoTime());
+        if (waitNanos == 0) {
+            chain.doFilter(request, response);
+            return;
+        }
+        rejected.increment();
+        writeTooManyRequests(request, response, waitNanos);
+    }
+
+    /**
+     * 限流使用的客户端标识
+     */
+    private String clientKey(HttpServletRequest request) {
+        if (!apiKeys.isEmpty()) {
+            String apiKey = request.getHeader(API_KEY_HEADER);
+            if (apiKey != null && apiKeys.contains(apiKey)) {
+                return "key:" + apiKey;
+            }
+        }
+        String address = request.getRemoteAddr();
+        return address.indexOf(':') >= 0 ? ipv6Prefix(address) : address;
+    }
+
+    /**
+     * IPv6地址只取前64位：一个用户通常分到整个/64，按完整地址限流很容易绕过
+     */
+    private static String ipv6Prefix(String address) {
+        try {
+            byte[] bytes = InetAddress.getByName(address).getAddress();
+            if (bytes.length == 16) {
+                return HexFormat.of().formatHex(bytes, 0, 8) + "::/64";
+            }
+        } catch (UnknownHostException e) {
+            // getRemoteAddr总是地址字面量，不会走到这里
+        }
+        return address;
+    }
+
+    private static void writeTooManyRequests(HttpServletRequest request, HttpServletResponse response,
+                                             long waitNanos) throws IOException {
+        // 向上取整到秒
+        long seconds = Math.max(1, (waitNanos + NANOS_PER_SECOND - 1) / NANOS_PER_SECOND);
+        response.setStatus(429);
+        response.setHeader("Retry-After", seconds < RETRY_AFTER.length ? RETRY_AFTER[(int) seconds]
+                : Long.toString(seconds));
+        response.setHeader("Cache-Control", "no-store");
+        if (request.getHeader("Origin") != null) {
+            // 与控制器一致，否则浏览器端的脚本读不到429
+            response.setHeader("Access-Control-Allow-Origin", "*");
+        }
+        response.setContentType("application/json;charset=UTF-8");
+        response.setContentLength(TOO_MANY_REQUESTS_BODY.length);
+        response.getOutputStream().write(TOO_MANY_REQUESTS_BODY);
+    }
+
+    private double parse(String name, double defaultValue) throws ServletException {
+        String value = getParameter(name);
+        if (value == null || value.isBlank()) {
+            return defaultValue;
+        }
+        try {
+            return Double.parseDouble(value.trim());
+        } catch (NumberFormatException e) {
+            throw new ServletException("限流参数 " + name + " 不是数字: " + value, e);
+        }
+    }
+
+    private String getParameter(String name) {
+        String value = System.getProperty(name);
+        return value != null ? value : getInitParameter(name);
+    }
+}
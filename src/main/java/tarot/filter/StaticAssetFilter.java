@@ -0,0 +1,152 @@
+package tarot.filter;
+
+import tarot.controller.AssetManifest;
+import tarot.controller.EarlyHints;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpFilter;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+
+import java.io.IOException;
+import java.util.regex.Pattern;
+
+/**
+ * 静态资源过滤器
+ * 文件名带内容哈希的资源（由 tarot.build.AssetPipeline 生成）内容永不变化，缓存一年并标记 immutable，
+ * 回访用户加载页面时不会再为它们发送条件请求；入口页面每次都要向服务器确认，以便拿到新的哈希文件名。
+ * 客户端接受压缩且存在构建期生成的 .br/.gz 文件时，转发给DefaultServlet发送压缩文件，
+ * 条件请求、Range和sendfile仍由DefaultServlet处理，请求线程上不做任何压缩。
+ * 入口页面先发送 103 Early Hints 预加载带哈希的样式和脚本
+ */
+public class StaticAssetFilter extends HttpFilter {
+
+    static final String IMMUTABLE = "public, max-age=31536000, immutable";
+    static final String REVALIDATE = "no-cache";
+
+    // 形如 tarot-styles.3c2dfcad74.css，哈希位数与 AssetPipeline.HASH_LENGTH 一致
+    private static final Pattern FINGERPRINTED = Pattern.compile(".+\\.[0-9a-f]{10}\\.[A-Za-z0-9]+");
+
+    private AssetManifest assetManifest;
+
+    @Override
+    public void init() throws ServletException {
+        assetManifest = (AssetManifest) getServletContext().getAttribute("assetManifest");
+        if (assetManifest == null) {
+            assetManifest = AssetManifest.load(getServletContext());
+        }
+    }
+
+    @Override
+    protected void doFilter(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws IOException, ServletException {
+        String path = request.getServletPath();
+        if (request.getPathInfo() != null) {
+            path += request.getPathInfo();
+        }
+        if (getServletContext().getResource(path) == null) {
+            // 不存在的文件按原流程返回404，不能让404也被缓存一年
+            chain.doFilter(request, response);
+            return;
+        }
+        if (isFingerprinted(path)) {
+            response.setHeader("Cache-Control", IMMUTABLE);
+        } else if (path.endsWith(".html")) {
+            response.setHeader("Cache-Control", REVALIDATE);
+            // 入口页面：浏览器在解析HTML之前就可以开始下载样式、脚本和图集坐标表；
+            // 条件请求说明浏览器已有缓存，这些资源也都在缓存中
+            if (path.equals("/index.html") && request.getHeader("If-None-Match") == null
+                    && request.getHeader("If-Modified-Since") == null) {
+                EarlyHints.send(request, response, assetManifest.indexPreloadLinks());
+            }
+        }
+        if (getServletContext().getResource(path + ".gz") == null
+                && getServletContext().getResource(path + ".br") == null) {
+            // 图片等没有预压缩副本的文件
+            chain.doFilter(request, response);
+            return;
+        }
+        // 压缩和未压缩的响应都要声明Vary，避免共享缓存把其中一种发给不支持的客户端
+        response.setHeader("Vary", "Accept-Encoding");
+
+        String encoding = selectEncoding(request.getHeader("Accept-Encoding"), path);
+        if (encoding == null) {
+            chain.doFilter(request, response);
+            return;
+        }
+        String contentType = getServletContext().getMimeType(path);
+        if (contentType == null) {
+            chain.doFilter(request, response);
+            return;
+        }
+        if (contentType.startsWith("text/") || contentType.equals("application/javascript")
+                || contentType.equals("application/json")) {
+            contentType += ";charset=UTF-8";
+        }
+        response.setHeader("Content-Encoding", encoding);
+        response.setContentType(contentType);
+        String suffix = "br".equals(encoding) ? ".br" : ".gz";
+        request.getRequestDispatcher(path + suffix).forward(request, new FixedContentTypeResponse(response));
+    }
+
+    /**
+     * 按客户端支持的编码和构建期生成的文件选择 br、gzip 或不压缩（返回null）
+     */
+    private String selectEncoding(String acceptEncoding, String path) throws IOException {
+        if (acceptEncoding == null) {
+            return null;
+        }
+        if (accepts(acceptEncoding, "br") && getServletContext().getResource(path + ".br") != null) {
+            return "br";
+        }
+        if (accepts(acceptEncoding, "gzip") && getServletContext().getResource(path + ".gz") != null) {
+            return "gzip";
+        }
+        return null;
+    }
+
+    /**
+     * 判断Accept-Encoding是否接受某种编码，q=0 表示明确拒绝
+     */
+    static boolean accepts(String acceptEncoding, String encoding) {
+        for (String part : acceptEncoding.split(",")) {
+            String[] tokens = part.trim().split(";");
+            if (!tokens[0].trim().equalsIgnoreCase(encoding)) {
+                continue;
+            }
+            for (int i = 1; i < tokens.length; i++) {
+                String parameter = tokens[i].trim().replace(" ", "");
+                if (parameter.matches("q=0(\\.0*)?")) {
+                    return false;
+                }
+            }
+            return true;
+        }
+        return false;
+    }
+
+    static boolean isFingerprinted(String path) {
+        int slash = path.lastIndexOf('/');
+        return FINGERPRINTED.matcher(path).region(slash + 1, path.length()).matches();
+    }
+
+    /**
+     * 发送 .gz/.br 文件时保留原始资源的Content-Type，忽略DefaultServlet按压缩文件扩展名设置的类型
+     */
+    private static final class FixedContentTypeResponse extends HttpServletResponseWrapper {
+
+        FixedContentTypeResponse(HttpServletResponse response) {
+            super(response);
+        }
+
+        @Override
+        public void setContentType(String type) {
+        }
+
+        @Override
+        public void setCharacterEncoding(String charset) {
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package tarot.journal;
+
+import tarot.model.CardReading;
+import tarot.model.DrawnCard;
+
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.zip.CRC32;
+
+/**
+ * 占卜日志记录
+ * 每条记录固定32字节：
+ * <pre>
+ *  0..7   时间戳（毫秒）
+ *  8..15  用户哈希，未提供时为0
+ *  16     牌阵编号
+ *  17     抽牌数量
+ *  18..19 正逆位位图，第i位为1表示第i张牌逆位
+ *  20..29 每张牌在规范牌组中的下标，未使用的位置为0xFF
+ *  30..31 前30字节CRC32的低16位，恒不为0，用于识别未写入或写了一半的记录
+ * </pre>
+ */
+public record JournalRecord(long timestamp, long userHash, int spreadCode, byte[] cardIndices, int orientationBits) {
+
+    public static final int SIZE = 32;
+    public static final int MAX_CARDS = 10;
+
+    private static final int CARD_INDICES_OFFSET = 20;
+    private static final int CHECKSUM_OFFSET = 30;
+    private static final byte UNUSED_INDEX = (byte) 0xFF;
+
+    /**
+     * 把占卜结果编码为一条记录
+     *
+     * @return 32字节的记录，抽牌数量超过{@link #MAX_CARDS}时返回null
+     */
+    public static byte[] encode(CardReading reading, long userHash, long timestamp) {
+        List<DrawnCard> drawnCards = reading.getDrawnCards();
+        int count = drawnCards.size();
+        if (count > MAX_CARDS) {
+            return null;
+        }
+
+        byte[] bytes = new byte[SIZE];
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        buffer.putLong(0, timestamp);
+        buffer.putLong(8, userHash);
+        bytes[16] = (byte) reading.getSpread().getCode();
+        bytes[17] = (byte) count;
+
+        int orientationBits = 0;
+        for (int i = 0; i < MAX_CARDS; i++) {
+            if (i < count) {
+                DrawnCard drawn = drawnCards.get(i);
+                bytes[CARD_INDICES_OFFSET + i] = (byte) drawn.cardIndex();
+                if (drawn.reversed()) {
+                    orientationBits |= 1 << i;
+                }
+            } else {
+                bytes[CARD_INDICES_OFFSET + i] = UNUSED_INDEX;
+            }
+        }
+        buffer.putShort(18, (short) orientationBits);
+        buffer.putShort(CHECKSUM_OFFSET, checksum(buffer, 0));
+        return bytes;
+    }
+
+    /**
+     * 判断指定位置是否是一条完整写入的记录
+     */
+    public static boolean isValid(ByteBuffer buffer, int offset) {
+        short stored = buffer.getShort(offset + CHECKSUM_OFFSET);
+        return stored != 0 && stored == checksum(buffer, offset);
+    }
+
+    /**
+     * 判断指定位置的记录是否全为0（从未写入）
+     */
+    static boolean isEmpty(ByteBuffer buffer, int offset) {
+        for (int i = 0; i < SIZE; i += 8) {
+            if (buffer.getLong(offset + i) != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 从缓冲区解码一条记录，调用前应先用{@link #isValid}校验
+     */
+    public static JournalRecord decode(ByteBuffer buffer, int offset) {
+        int count = buffer.get(offset + 17) & 0xFF;
+        byte[] cardIndices = new byte[Math.min(count, MAX_CARDS)];
+        for (int i = 0; i < cardIndices.length; i++) {
+            cardIndices[i] = buffer.get(offset + CARD_INDICES_OFFSET + i);
+        }
+        return new JournalRecord(
+                buffer.getLong(offset),
+                buffer.getLong(offset + 8),
+                buffer.get(offset + 16) & 0xFF,
+                cardIndices,
+                buffer.getShort(offset + 18) & 0xFFFF);
+    }
+
+    /**
+     * 第i张牌是否逆位
+     */
+    public boolean isReversed(int position) {
+        return (orientationBits & (1 << position)) != 0;
+    }
+
+    private static short checksum(ByteBuffer buffer, int offset) {
+        CRC32 crc = new CRC32();
+        crc.update(buffer.slice(offset, CHECKSUM_OFFSET));
+        short value = (short) crc.getValue();
+        return value == 0 ? 1 : value;
+    }
+}
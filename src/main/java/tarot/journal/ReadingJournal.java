@@ -0,0 +1,351 @@
+package tarot.journal;
+
+import tarot.model.CardReading;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * 追加写入的占卜日志
+ * 请求线程只把编码好的32字节记录放入无锁队列，由唯一的写线程顺序写入内存映射的分段文件。
+ * 每个分段写满后滚动到下一个分段；启动时校验最后一个分段，丢弃崩溃时写了一半的记录并从断点继续写入
+ */
+public class ReadingJournal implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReadingJournal.class);
+
+    // 每个分段默认保存的记录数（32MB）
+    public static final int DEFAULT_SEGMENT_RECORDS = 1 << 20;
+    // 队列中最多积压的记录数，超出后直接丢弃，不阻塞请求
+    private static final int MAX_PENDING = 1 << 16;
+    // 刷盘间隔：有未刷盘的数据时，无论队列是否为空，最迟这么久刷一次，限定操作系统崩溃时丢失的范围
+    private static final long FORCE_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(1);
+    // 写线程每写入这么多条记录检查一次刷盘间隔
+    private static final int WRITE_BATCH = 1024;
+
+    private static final String SEGMENT_PREFIX = "readings-";
+    private static final String SEGMENT_SUFFIX = ".journal";
+
+    private final Path directory;
+    private final int segmentRecords;
+    private final Queue<byte[]> pending = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger pendingCount = new AtomicInteger();
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder written = new LongAdder();
+    private final Thread writer;
+    private volatile boolean closing;
+    // 写线程即将或已经休眠，入队后需要唤醒它；不休眠时入队不做任何额外操作
+    private volatile boolean sleeping;
+
+    // 以下字段只由写线程访问（打开和关闭时除外）
+    private long segmentSequence;
+    private FileChannel channel;
+    private MappedByteBuffer segment;
+    private int position;
+    private boolean dirty;
+    private long lastForce;
+
+    public ReadingJournal(Path directory) throws IOException {
+        this(directory, DEFAULT_SEGMENT_RECORDS);
+    }
+
+    public ReadingJournal(Path directory, int segmentRecords) throws IOException {
+        if (segmentRecords <= 0) {
+            throw new IllegalArgumentException("分段记录数必须大于0");
+        }
+        this.directory = directory;
+        this.segmentRecords = segmentRecords;
+        Files.createDirectories(directory);
+        recover();
+
+        this.writer = new Thread(this::writeLoop, "reading-journal-writer");
+        this.writer.setDaemon(true);
+        this.writer.start();
+    }
+
+    /**
+     * 记录一次占卜，只做编码和入队，不触碰磁盘
+     *
+     * @param userHash 用户标识的哈希，未知时传0
+     * @return 是否成功入队
+     */
+    public boolean append(CardReading reading, long userHash) {
+        if (closing) {
+            return false;
+        }
+        if (pendingCount.incrementAndGet() > MAX_PENDING) {
+            pendingCount.decrementAndGet();
+            dropped.increment();
+            return false;
+        }
+        byte[] record = JournalRecord.encode(reading, userHash, System.currentTimeMillis());
+        if (record == null) {
+            pendingCount.decrementAndGet();
+            dropped.increment();
+            return false;
+        }
+        pending.offer(record);
+        if (sleeping) {
+            LockSupport.unpark(writer);
+        }
+        return true;
+    }
+
+    /**
+     * 计算用户标识的64位FNV-1a哈希，空标识返回0
+     */
+    public static long hashUser(String user) {
+        if (user == null || user.isEmpty()) {
+            return 0;
+        }
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < user.length(); i++) {
+            hash ^= user.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        return hash == 0 ? 1 : hash;
+    }
+
+    public long getWrittenCount() {
+        return written.sum();
+    }
+
+    public long getDroppedCount() {
+        return dropped.sum();
+    }
+
+    /**
+     * 按写入顺序遍历目录中所有分段的有效记录，供分析和历史查询使用
+     */
+    public static void readAll(Path directory, Consumer<JournalRecord> consumer) throws IOException {
+        for (Path file : listSegments(directory)) {
+            try (FileChannel readChannel = FileChannel.open(file, StandardOpenOption.READ)) {
+                ByteBuffer buffer = readChannel.map(FileChannel.MapMode.READ_ONLY, 0, readChannel.size());
+                for (int offset = 0; offset + JournalRecord.SIZE <= buffer.capacity(); offset += JournalRecord.SIZE) {
+                    if (!JournalRecord.isValid(buffer, offset)) {
+                        break;
+                    }
+                    consumer.accept(JournalRecord.decode(buffer, offset));
+                }
+            }
+        }
+    }
+
+    /**
+     * 停止写线程，写完队列中剩余的记录并刷盘
+     */
+    @Override
+    public void close() {
+        closing = true;
+        LockSupport.unpark(writer);
+        try {
+            writer.join(TimeUnit.SECONDS.toMillis(5));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (writer.isAlive()) {
+            logger.warn("占卜日志写线程未能及时结束");
+            return;
+        }
+        closeSegment();
+        logger.info("占卜日志已关闭，共写入 {} 条，丢弃 {} 条", written.sum(), dropped.sum());
+    }
+
+    private void writeLoop() {
+        lastForce = System.nanoTime();
+        while (true) {
+            // 每批之后都检查刷盘间隔：持续高负载下队列一直不空，刷盘不能只在空闲时进行
+            boolean drained = writeBatch();
+            maybeForce(false);
+            if (!drained) {
+                continue;
+            }
+            if (closing) {
+                maybeForce(true);
+                return;
+            }
+            idle();
+        }
+    }
+
+    /**
+     * 写入至多一批记录
+     *
+     * @return 队列是否已经取空
+     */
+    private boolean writeBatch() {
+        for (int i = 0; i < WRITE_BATCH; i++) {
+            byte[] record = pending.poll();
+            if (record == null) {
+                return true;
+            }
+            pendingCount.decrementAndGet();
+            try {
+                write(record);
+            } catch (IOException | RuntimeException e) {
+                dropped.increment();
+                logger.error("写入占卜日志失败: {}", e.getMessage(), e);
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 队列为空时休眠，直到append或close唤醒；有未刷盘的数据时最多睡到下一次刷盘的时间
+     */
+    private void idle() {
+        // 先声明休眠再检查队列，与append中先入队再检查sleeping配合，不会错过唤醒
+        sleeping = true;
+        try {
+            if (!pending.isEmpty() || closing) {
+                return;
+            }
+            if (dirty) {
+                LockSupport.parkNanos(this, lastForce + FORCE_INTERVAL_NANOS - System.nanoTime());
+            } else {
+                LockSupport.park(this);
+            }
+        } finally {
+            sleeping = false;
+        }
+    }
+
+    private void write(byte[] record) throws IOException {
+        if (position >= segmentRecords) {
+            roll();
+        }
+        segment.put(position * JournalRecord.SIZE, record);
+        position++;
+        dirty = true;
+        written.increment();
+    }
+
+    private void maybeForce(boolean always) {
+        if (!dirty || segment == null) {
+            return;
+        }
+        long now = System.nanoTime();
+        if (always || now - lastForce >= FORCE_INTERVAL_NANOS) {
+            segment.force();
+            dirty = false;
+            lastForce = now;
+        }
+    }
+
+    /**
+     * 当前分段写满，刷盘后切换到下一个分段
+     */
+    private void roll() throws IOException {
+        closeSegment();
+        openSegment(segmentSequence + 1);
+        position = 0;
+        logger.info("占卜日志滚动到新分段: {}", segmentPath(segmentSequence).getFileName());
+    }
+
+    /**
+     * 打开最后一个分段，找到最后一条完整记录，清除其后残留的半截数据
+     */
+    private void recover() throws IOException {
+        List<Path> segments = listSegments(directory);
+        if (segments.isEmpty()) {
+            openSegment(1);
+            position = 0;
+            return;
+        }
+
+        Path last = segments.get(segments.size() - 1);
+        openSegment(parseSequence(last));
+
+        int validRecords = 0;
+        while (validRecords < segmentRecords && JournalRecord.isValid(segment, validRecords * JournalRecord.SIZE)) {
+            validRecords++;
+        }
+
+        // 页面可能乱序落盘，断点之后仍可能残留部分数据，全部清零以免被误读
+        int lastNonEmpty = -1;
+        for (int i = validRecords; i < segmentRecords; i++) {
+            if (!JournalRecord.isEmpty(segment, i * JournalRecord.SIZE)) {
+                lastNonEmpty = i;
+            }
+        }
+        if (lastNonEmpty >= validRecords) {
+            byte[] zeros = new byte[JournalRecord.SIZE];
+            for (int i = validRecords; i <= lastNonEmpty; i++) {
+                segment.put(i * JournalRecord.SIZE, zeros);
+            }
+            segment.force();
+            logger.warn("占卜日志分段 {} 中清除了 {} 条不完整记录",
+                    last.getFileName(), lastNonEmpty - validRecords + 1);
+        }
+
+        position = validRecords;
+        logger.info("占卜日志恢复完成，分段: {}，已有记录: {}", last.getFileName(), validRecords);
+    }
+
+    private void openSegment(long sequence) throws IOException {
+        segmentSequence = sequence;
+        channel = FileChannel.open(segmentPath(sequence),
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        segment = channel.map(FileChannel.MapMode.READ_WRITE, 0, (long) segmentRecords * JournalRecord.SIZE);
+    }
+
+    private void closeSegment() {
+        if (segment != null) {
+            segment.force();
+            dirty = false;
+            segment = null;
+        }
+        if (channel != null) {
+            try {
+                channel.close();
+            } catch (IOException e) {
+                logger.warn("关闭占卜日志分段失败: {}", e.getMessage());
+            }
+            channel = null;
+        }
+    }
+
+    private Path segmentPath(long sequence) {
+        return directory.resolve(String.format("%s%012d%s", SEGMENT_PREFIX, sequence, SEGMENT_SUFFIX));
+    }
+
+    private static List<Path> listSegments(Path directory) throws IOException {
+        if (!Files.isDirectory(directory)) {
+            return List.of();
+        }
+        try (Stream<Path> files = Files.list(directory)) {
+            List<Path> segments = new ArrayList<>(files
+                    .filter(file -> {
+                        String name = file.getFileName().toString();
+                        return name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX);
+                    })
+                    .toList());
+            // 序号定长补零，按文件名排序即按写入顺序
+            segments.sort(null);
+            return segments;
+        }
+    }
+
+    private static long parseSequence(Path segment) {
+        String name = segment.getFileName().toString();
+        return Long.parseLong(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+    }
+}
@@ -1,13 +1,28 @@
 package tarot.listener;
 
+import tarot.controller.AssetManifest;
+import tarot.data.SpreadData;
+import tarot.data.TarotCardData;
+import tarot.journal.ReadingJournal;
+import tarot.metrics.TarotMetrics;
+import tarot.room.ReadingRoomEndpoint;
+import tarot.room.RoomRegistry;
+import tarot.service.CatalogReloader;
+import tarot.service.SpreadRegistry;
 import tarot.service.TarotGameService;
+import com.fasterxml.jackson.core.JsonFactory;
 import jakarta.servlet.ServletContext;
 import jakarta.servlet.ServletContextEvent;
 import jakarta.servlet.ServletContextListener;
 import jakarta.servlet.annotation.WebListener;
+import jakarta.websocket.server.ServerContainer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+
 /**
  * 游戏初始化监听器
  * 在应用启动时初始化TarotGameService并将其放入ServletContext中
@@ -17,6 +32,14 @@ public class GameInitializationListener implements ServletContextListener {
 
     private static final Logger logger = LoggerFactory.getLogger(GameInitializationListener.class);
 
+    // 占卜日志的配置参数名（context-param，也可以用同名系统属性覆盖）
+    private static final String JOURNAL_ENABLED_PARAM = "tarot.journal.enabled";
+    private static final String JOURNAL_DIR_PARAM = "tarot.journal.dir";
+    // 外部卡牌目录所在的目录，配置后启动时加载其中各语言的目录文件并监视其变化
+    private static final String CATALOG_DIR_PARAM = "tarot.catalog.dir";
+    // 启用的语言（逗号分隔），第一个为默认语言，不配置时使用全部内置语言
+    private static final String LOCALES_PARAM = "tarot.locales";
+
     @Override
     public void contextInitialized(ServletContextEvent sce) {
         logger.info("开始初始化塔罗牌游戏应用...");
@@ -25,12 +48,26 @@ public class GameInitializationListener implements ServletContextListener {
 
         try {
             // 创建TarotGameService实例
-            TarotGameService tarotGameService = new TarotGameService();
+            TarotGameService tarotGameService = new TarotGameService(
+                    new SpreadRegistry(SpreadData.getSpreads(), SpreadData.DEFAULT_SPREAD_ID),
+                    resolveLocales(context));
 
             // 将服务实例放入ServletContext中
             context.setAttribute("tarotGameService", tarotGameService);
 
             logger.info("TarotGameService初始化成功，已放入ServletContext");
+
+            TarotMetrics metrics = new TarotMetrics(tarotGameService.getSpreadRegistry());
+            context.setAttribute("tarotMetrics", metrics);
+
+            initCatalogReloader(context, tarotGameService, metrics);
+
+            initReadingJournal(context, metrics);
+
+            // 构建期资源清单，控制器和静态资源过滤器用它生成预加载头
+            context.setAttribute("assetManifest", AssetManifest.load(context));
+
+            initReadingRooms(context, tarotGameService, metrics);
             logger.info("塔罗牌游戏应用初始化完成！");
 
         } catch (Exception e) {
@@ -46,6 +83,27 @@ public class GameInitializationListener implements ServletContextListener {
         ServletContext context = sce.getServletContext();
 
         // 清理资源
+        ReadingJournal journal = (ReadingJournal) context.getAttribute("readingJournal");
+        if (journal != null) {
+            context.removeAttribute("readingJournal");
+            journal.close();
+        }
+
+        RoomRegistry rooms = (RoomRegistry) context.getAttribute("roomRegistry");
+        if (rooms != null) {
+            context.removeAttribute("roomRegistry");
+            rooms.shutdown();
+        }
+
+        CatalogReloader reloader = (CatalogReloader) context.getAttribute("catalogReloader");
+        if (reloader != null) {
+            context.removeAttribute("catalogReloader");
+            reloader.close();
+        }
+
+        context.removeAttribute("tarotMetrics");
+        context.removeAttribute("assetManifest");
+
         TarotGameService service = (TarotGameService) context.getAttribute("tarotGameService");
         if (service != null) {
             context.removeAttribute("tarotGameService");
@@ -54,4 +112,105 @@ public class GameInitializationListener implements ServletContextListener {
 
         logger.info("塔罗牌游戏应用关闭完成");
     }
+
+    /**
+     * 打开占卜日志并从上次中断的位置恢复，失败时只记录错误，不影响占卜功能
+     */
+    private void initReadingJournal(ServletContext context, TarotMetrics metrics) {
+        if ("false".equalsIgnoreCase(getParameter(context, JOURNAL_ENABLED_PARAM))) {
+            logger.info("占卜日志已禁用");
+            return;
+        }
+
+        Path directory = resolveJournalDirectory(context);
+        try {
+            ReadingJournal journal = new ReadingJournal(directory);
+            context.setAttribute("readingJournal", journal);
+            metrics.registerCounter("journal_records_written_total", "写入占卜日志的记录数", journal::getWrittenCount);
+            metrics.registerCounter("journal_records_dropped_total", "队列已满或写入失败而丢弃的日志记录数",
+                    journal::getDroppedCount);
+            logger.info("占卜日志已启用，目录: {}", directory);
+        } catch (Exception e) {
+            logger.error("打开占卜日志失败，目录: {}，占卜记录将不会保存: {}", directory, e.getMessage(), e);
+        }
+    }
+
+    /**
+     * 配置了外部卡牌目录时，启动时用其中的文件替换内置目录，并在文件变化后自动重新加载。
+     * 外部文件无效时使用内置目录启动，不影响应用初始化
+     */
+    private void initCatalogReloader(ServletContext context, TarotGameService service, TarotMetrics metrics) {
+        metrics.registerGauge("catalog_revision", "当前卡牌目录的修订号", service::getCatalogRevision);
+
+        String configured = getParameter(context, CATALOG_DIR_PARAM);
+        if (configured == null || configured.isBlank()) {
+            logger.info("使用内置卡牌目录，未配置 {}，不启用热加载", CATALOG_DIR_PARAM);
+            return;
+        }
+        try {
+            CatalogReloader reloader = new CatalogReloader(service, Path.of(configured.trim()));
+            reloader.reload();
+            reloader.start();
+            context.setAttribute("catalogReloader", reloader);
+            metrics.registerCounter("catalog_reloads_total", "热加载替换卡牌目录的次数", reloader::getReloadCount);
+            metrics.registerCounter("catalog_reload_failures_total", "加载失败而保留旧目录的次数",
+                    reloader::getFailureCount);
+        } catch (Exception e) {
+            logger.error("启用卡牌目录热加载失败，目录: {}，继续使用内置目录: {}", configured, e.getMessage(), e);
+        }
+    }
+
+    /**
+     * 在容器的WebSocket服务中注册占卜房间端点，容器不支持WebSocket时跳过
+     */
+    private void initReadingRooms(ServletContext context, TarotGameService service, TarotMetrics metrics) {
+        ServerContainer container = (ServerContainer) context.getAttribute(ServerContainer.class.getName());
+        if (container == null) {
+            logger.warn("容器未提供WebSocket支持，占卜房间不可用");
+            return;
+        }
+        RoomRegistry rooms = new RoomRegistry(service, metrics,
+                (ReadingJournal) context.getAttribute("readingJournal"), new JsonFactory());
+        try {
+            ReadingRoomEndpoint.deploy(container, rooms);
+        } catch (Exception e) {
+            rooms.shutdown();
+            logger.error("注册占卜房间端点失败: {}", e.getMessage(), e);
+            return;
+        }
+        context.setAttribute("roomRegistry", rooms);
+        logger.info("占卜房间已启用: {}", ReadingRoomEndpoint.PATH);
+    }
+
+    private List<String> resolveLocales(ServletContext context) {
+        String configured = getParameter(context, LOCALES_PARAM);
+        if (configured == null || configured.isBlank()) {
+            return TarotCardData.LOCALES;
+        }
+        return Arrays.stream(configured.split(","))
+                .map(String::trim)
+                .filter(locale -> !locale.isEmpty())
+                .distinct()
+                .toList();
+    }
+
+    /**
+     * 日志目录：优先使用配置，其次是Tomcat的data目录，最后是系统临时目录
+     */
+    private Path resolveJournalDirectory(ServletContext context) {
+        String configured = getParameter(context, JOURNAL_DIR_PARAM);
+        if (configured != null && !configured.isBlank()) {
+            return Path.of(configured);
+        }
+        String catalinaBase = System.getProperty("catalina.base");
+        if (catalinaBase != null) {
+            return Path.of(catalinaBase, "data", "reading-journal");
+        }
+        return Path.of(System.getProperty("java.io.tmpdir"), "tarot-reading-journal");
+    }
+
+    private String getParameter(ServletContext context, String name) {
+        String value = System.getProperty(name);
+        return value != null ? value : context.getInitParameter(name);
+    }
 }
\ No newline at end of file
@@ -0,0 +1,85 @@
+package tarot.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 单个API端点的指标：按状态码类别统计的请求数、进行中的请求数和延迟直方图
+ * 在路由确定后由控制器持有引用，请求路径上不做任何查找
+ */
+public final class EndpointMetrics {
+
+    private static final String[] STATUS_CLASSES = { "1xx", "2xx", "3xx", "4xx", "5xx" };
+
+    private final String method;
+    private final String route;
+    private final String labels;
+    private final LongAdder inFlight = new LongAdder();
+    private final LongAdder[] responses = new LongAdder[STATUS_CLASSES.length];
+    private final LatencyHistogram latency = new LatencyHistogram();
+
+    EndpointMetrics(String method, String route) {
+        this.method = method;
+        this.route = route;
+        this.labels = "method=\"" + method + "\",route=\"" + TarotMetrics.escapeLabel(route) + "\"";
+        for (int i = 0; i < responses.length; i++) {
+            responses[i] = new LongAdder();
+        }
+    }
+
+    /**
+     * 请求开始，返回开始时间，需与 {@link #end(long, int)} 成对调用
+     */
+    public long start() {
+        inFlight.increment();
+        return System.nanoTime();
+    }
+
+    public void end(long startNanos, int status) {
+        latency.record(System.nanoTime() - startNanos);
+        int statusClass = status / 100 - 1;
+        responses[statusClass >= 0 && statusClass < responses.length ? statusClass : responses.length - 1].increment();
+        inFlight.decrement();
+    }
+
+    public String getMethod() {
+        return method;
+    }
+
+    public String getRoute() {
+        return route;
+    }
+
+    public long getRequestCount() {
+        return latency.getCount();
+    }
+
+    public long getErrorCount() {
+        return responses[4].sum();
+    }
+
+    public long getInFlight() {
+        return inFlight.sum();
+    }
+
+    void writeRequests(StringBuilder out, String name) {
+        for (int i = 0; i < responses.length; i++) {
+            long value = responses[i].sum();
+            if (value > 0) {
+                out.append(name).append('{').append(labels).append(",status=\"")
+                        .append(STATUS_CLASSES[i]).append("\"} ").append(value).append('\n');
+            }
+        }
+    }
+
+    void writeErrors(StringBuilder out, String name) {
+        out.append(name).append('{').append(labels).append("} ").append(getErrorCount()).append('\n');
+    }
+
+    void writeInFlight(StringBuilder out, String name) {
+        out.append(name).append('{').append(labels).append("} ").append(getInFlight()).append('\n');
+    }
+
+    void writeLatency(StringBuilder out, String name) {
+        latency.writeTo(out, name, labels);
+    }
+}
@@ -0,0 +1,93 @@
+package tarot.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 对数-线性延迟直方图
+ * 每个2的幂区间再等分为两个线性子桶（例如 32–48μs、48–64μs），相对误差不超过25%。
+ * 桶下标只靠位运算得到，计数使用分段的LongAdder，记录时无锁、无分配
+ */
+public final class LatencyHistogram {
+
+    // 第一个桶的上界为 2^MIN_OCTAVE 微秒（32μs），更快的请求都落在这里
+    private static final int MIN_OCTAVE = 5;
+    // 最后一个有限桶的上界为 2^(MAX_OCTAVE+1) 微秒（约33.5秒），更慢的请求只计入+Inf
+    private static final int MAX_OCTAVE = 24;
+    private static final int SUB_BUCKETS = 2;
+
+    static final int BUCKET_COUNT = 1 + (MAX_OCTAVE - MIN_OCTAVE + 1) * SUB_BUCKETS;
+
+    // 各有限桶的上界（秒），按Prometheus le标签的格式预先转成字符串
+    private static final String[] UPPER_BOUND_LABELS = new String[BUCKET_COUNT];
+
+    static {
+        UPPER_BOUND_LABELS[0] = Double.toString((1L << MIN_OCTAVE) / 1e6);
+        int index = 1;
+        for (int octave = MIN_OCTAVE; octave <= MAX_OCTAVE; octave++) {
+            long base = 1L << octave;
+            UPPER_BOUND_LABELS[index++] = Double.toString((base + base / 2) / 1e6);
+            UPPER_BOUND_LABELS[index++] = Double.toString((base * 2) / 1e6);
+        }
+    }
+
+    // 最后一个元素是超出范围的溢出桶
+    private final LongAdder[] buckets = new LongAdder[BUCKET_COUNT + 1];
+    private final LongAdder sumNanos = new LongAdder();
+
+    public LatencyHistogram() {
+        for (int i = 0; i < buckets.length; i++) {
+            buckets[i] = new LongAdder();
+        }
+    }
+
+    public void record(long nanos) {
+        if (nanos < 0) {
+            nanos = 0;
+        }
+        buckets[bucketIndex(nanos / 1000)].increment();
+        sumNanos.add(nanos);
+    }
+
+    /**
+     * 计算微秒值所在的桶：先由最高位确定所在的2的幂区间，再由次高位确定子桶
+     */
+    static int bucketIndex(long micros) {
+        if (micros < (1L << MIN_OCTAVE)) {
+            return 0;
+        }
+        int octave = 63 - Long.numberOfLeadingZeros(micros);
+        if (octave > MAX_OCTAVE) {
+            return BUCKET_COUNT;
+        }
+        int sub = (int) (micros >>> (octave - 1)) & 1;
+        return 1 + (octave - MIN_OCTAVE) * SUB_BUCKETS + sub;
+    }
+
+    /**
+     * 按Prometheus直方图格式写出累计桶、总和与总数
+     *
+     * @param name   指标名（不含 _bucket 等后缀）
+     * @param labels 已格式化的标签，例如 method="GET",route="/cards"
+     */
+    void writeTo(StringBuilder out, String name, String labels) {
+        long cumulative = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            cumulative += buckets[i].sum();
+            out.append(name).append("_bucket{").append(labels).append(",le=\"")
+                    .append(UPPER_BOUND_LABELS[i]).append("\"} ").append(cumulative).append('\n');
+        }
+        // 单独读取各个计数器不是原子快照，用桶的累计值作为总数，保证 +Inf 与 _count 一致
+        cumulative += buckets[BUCKET_COUNT].sum();
+        out.append(name).append("_bucket{").append(labels).append(",le=\"+Inf\"} ").append(cumulative).append('\n');
+        out.append(name).append("_sum{").append(labels).append("} ").append(sumNanos.sum() / 1e9).append('\n');
+        out.append(name).append("_count{").append(labels).append("} ").append(cumulative).append('\n');
+    }
+
+    public long getCount() {
+        long total = 0;
+        for (LongAdder bucket : buckets) {
+            total += bucket.sum();
+        }
+        return total;
+    }
+}
@@ -0,0 +1,152 @@
+package tarot.metrics;
+
+import tarot.model.CardReading;
+import tarot.model.DrawnCard;
+import tarot.model.SpreadDefinition;
+import tarot.service.SpreadRegistry;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * 应用指标注册表
+ * 请求路径上只做LongAdder累加，导出时才汇总并格式化为Prometheus文本格式
+ */
+public class TarotMetrics {
+
+    public static final String CONTENT_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+
+    private static final String PREFIX = "tarot_";
+
+    // 按 "方法 路由" 排序，导出顺序稳定
+    private final Map<String, EndpointMetrics> endpoints = new ConcurrentSkipListMap<>();
+
+    // 按牌阵编号统计的占卜次数
+    private final SpreadDefinition[] spreadsByCode;
+    private final LongAdder[] readingsBySpread;
+    private final LongAdder cardsDrawn = new LongAdder();
+    private final LongAdder reversedCards = new LongAdder();
+
+    // 其他组件注册的计数器和仪表
+    private final List<ExternalMetric> externalMetrics = new CopyOnWriteArrayList<>();
+
+    public TarotMetrics(SpreadRegistry spreads) {
+        int maxCode = 0;
+        for (SpreadDefinition spread : spreads.getAll()) {
+            maxCode = Math.max(maxCode, spread.getCode());
+        }
+        this.spreadsByCode = new SpreadDefinition[maxCode + 1];
+        this.readingsBySpread = new LongAdder[maxCode + 1];
+        for (SpreadDefinition spread : spreads.getAll()) {
+            spreadsByCode[spread.getCode()] = spread;
+            readingsBySpread[spread.getCode()] = new LongAdder();
+        }
+    }
+
+    /**
+     * 获取（必要时创建）端点指标，应在初始化时调用并保存返回值
+     */
+    public EndpointMetrics endpoint(String method, String route) {
+        return endpoints.computeIfAbsent(method + " " + route, key -> new EndpointMetrics(method, route));
+    }
+
+    /**
+     * 记录一次新生成的占卜（按编号重新生成的不计入）
+     */
+    public void recordReading(CardReading reading) {
+        int code = reading.getSpread().getCode();
+        if (code >= 0 && code < readingsBySpread.length && readingsBySpread[code] != null) {
+            readingsBySpread[code].increment();
+        }
+        List<DrawnCard> drawnCards = reading.getDrawnCards();
+        cardsDrawn.add(drawnCards.size());
+        int reversed = 0;
+        for (DrawnCard drawn : drawnCards) {
+            if (drawn.reversed()) {
+                reversed++;
+            }
+        }
+        if (reversed > 0) {
+            reversedCards.add(reversed);
+        }
+    }
+
+    /**
+     * 注册一个单调递增的计数器，导出时调用supplier取值
+     */
+    public void registerCounter(String name, String help, LongSupplier supplier) {
+        externalMetrics.add(new ExternalMetric(PREFIX + name, help, "counter", supplier));
+    }
+
+    /**
+     * 注册一个可增可减的仪表，导出时调用supplier取值
+     */
+    public void registerGauge(String name, String help, LongSupplier supplier) {
+        externalMetrics.add(new ExternalMetric(PREFIX + name, help, "gauge", supplier));
+    }
+
+    /**
+     * 按Prometheus文本格式导出全部指标
+     */
+    public String scrape() {
+        StringBuilder out = new StringBuilder(32 * 1024);
+
+        header(out, "http_requests_total", "counter", "按端点和状态码类别统计的请求数");
+        for (EndpointMetrics endpoint : endpoints.values()) {
+            endpoint.writeRequests(out, PREFIX + "http_requests_total");
+        }
+        header(out, "http_request_errors_total", "counter", "返回5xx的请求数");
+        for (EndpointMetrics endpoint : endpoints.values()) {
+            endpoint.writeErrors(out, PREFIX + "http_request_errors_total");
+        }
+        header(out, "http_requests_in_flight", "gauge", "正在处理的请求数");
+        for (EndpointMetrics endpoint : endpoints.values()) {
+            endpoint.writeInFlight(out, PREFIX + "http_requests_in_flight");
+        }
+        header(out, "http_request_duration_seconds", "histogram", "请求处理耗时");
+        for (EndpointMetrics endpoint : endpoints.values()) {
+            endpoint.writeLatency(out, PREFIX + "http_request_duration_seconds");
+        }
+
+        header(out, "readings_total", "counter", "按牌阵统计的占卜次数");
+        for (SpreadDefinition spread : spreadsByCode) {
+            if (spread != null) {
+                out.append(PREFIX).append("readings_total{spread=\"").append(escapeLabel(spread.getId()))
+                        .append("\"} ").append(readingsBySpread[spread.getCode()].sum()).append('\n');
+            }
+        }
+        header(out, "cards_drawn_total", "counter", "抽出的牌数");
+        out.append(PREFIX).append("cards_drawn_total ").append(cardsDrawn.sum()).append('\n');
+        header(out, "reversed_cards_total", "counter", "抽出的逆位牌数");
+        out.append(PREFIX).append("reversed_cards_total ").append(reversedCards.sum()).append('\n');
+
+        for (ExternalMetric metric : externalMetrics) {
+            out.append("# HELP ").append(metric.name()).append(' ').append(metric.help()).append('\n');
+            out.append("# TYPE ").append(metric.name()).append(' ').append(metric.type()).append('\n');
+            out.append(metric.name()).append(' ').append(metric.supplier().getAsLong()).append('\n');
+        }
+        return out.toString();
+    }
+
+    private static void header(StringBuilder out, String name, String type, String help) {
+        out.append("# HELP ").append(PREFIX).append(name).append(' ').append(help).append('\n');
+        out.append("# TYPE ").append(PREFIX).append(name).append(' ').append(type).append('\n');
+    }
+
+    /**
+     * 转义标签值中的反斜杠、双引号和换行
+     */
+    static String escapeLabel(String value) {
+        if (value.indexOf('\\') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0) {
+            return value;
+        }
+        return value.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+    }
+
+    private record ExternalMetric(String name, String help, String type, LongSupplier supplier) {
+    }
+}
@@ -8,46 +8,31 @@ import java.time.LocalDateTime;
  * 塔罗牌读解结果类
  */
 public class CardReading {
-    private List<TarotCard> drawnCards;
-    private String spreadType;
+    private List<DrawnCard> drawnCards;
+    private SpreadDefinition spread;
+    private long seed;
     private String overallReading;
     private LocalDateTime readingTime;
+    // 生成解读所用的语言，为null时为默认语言
+    private String locale;
     
     public CardReading() {
         this.drawnCards = new ArrayList<>();
         this.readingTime = LocalDateTime.now();
     }
     
-    public CardReading(List<TarotCard> drawnCards, String spreadType) {
+    public CardReading(List<DrawnCard> drawnCards, SpreadDefinition spread, long seed) {
         this();
         this.drawnCards = drawnCards;
-        this.spreadType = spreadType;
+        this.spread = spread;
+        this.seed = seed;
     }
 
     /**
-     * 生成综合解读
+     * 获取可用于重新生成本次占卜的编号
      */
-    public void generateOverallReading() {
-        if (drawnCards == null || drawnCards.isEmpty()) {
-            this.overallReading = "无法进行解读，请先抽取塔罗牌。";
-            return;
-        }
-
-        StringBuilder reading = new StringBuilder();
-        reading.append("【塔罗解读】\n\n");
-
-        for (int i = 0; i < drawnCards.size(); i++) {
-            TarotCard card = drawnCards.get(i);
-            String position = getPositionLabel(i);
-            reading.append("🔮 **").append(position).append("**: ").append(card.getName())
-                    .append(card.isReversed() ? "（逆位）" : "（正位）").append("\n");
-            reading.append(card.getCurrentMeaning()).append("\n");
-            reading.append(card.getDescription()).append("\n\n");
-        }
-
-        reading.append("📝 **综合提示**: 每张牌都带来了重要的信息，请仔细思考它们之间的联系和对你生活的指导意义。");
-
-        this.overallReading = reading.toString();
+    public ReadingId getReadingId() {
+        return new ReadingId(spread.getCode(), seed);
     }
 
     /**
@@ -56,8 +41,21 @@ public class CardReading {
      * @return 位置标签文本
      */
     public String getPositionLabel(int position) {
-        String[] labels = { "过去/根源", "现在/情况", "未来/建议" };
-        return position < labels.length ? labels[position] : "第" + (position + 1) + "张牌";
+        if (spread != null && position < spread.size()) {
+            return spread.getLabel(position);
+        }
+        return "第" + (position + 1) + "张牌";
+    }
+
+    /**
+     * 获取位置的含义提示，牌阵未定义该位置时返回空字符串
+     * @param position 卡牌位置索引
+     */
+    public String getPositionHint(int position) {
+        if (spread != null && position < spread.size()) {
+            return spread.getHint(position);
+        }
+        return "";
     }
 
     public String getOverallReading() {
@@ -68,20 +66,43 @@ public class CardReading {
         this.overallReading = overallReading;
     }
 
-    public List<TarotCard> getDrawnCards() {
+    public List<DrawnCard> getDrawnCards() {
         return drawnCards;
     }
 
-    public void setDrawnCards(List<TarotCard> drawnCards) {
+    public void setDrawnCards(List<DrawnCard> drawnCards) {
         this.drawnCards = drawnCards;
     }
 
+    /**
+     * 获取牌阵名称
+     */
     public String getSpreadType() {
-        return spreadType;
+        return spread != null ? spread.getName() : null;
+    }
+
+    public SpreadDefinition getSpread() {
+        return spread;
+    }
+
+    public void setSpread(SpreadDefinition spread) {
+        this.spread = spread;
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    public void setSeed(long seed) {
+        this.seed = seed;
+    }
+
+    public String getLocale() {
+        return locale;
     }
 
-    public void setSpreadType(String spreadType) {
-        this.spreadType = spreadType;
+    public void setLocale(String locale) {
+        this.locale = locale;
     }
 
     public LocalDateTime getReadingTime() {
@@ -0,0 +1,15 @@
+package tarot.model;
+
+/**
+ * 一次占卜中抽到的牌
+ * 只引用共享的规范牌，额外记录牌在规范牌组中的下标、正逆位和所在牌阵位置
+ */
+public record DrawnCard(TarotCard card, int cardIndex, boolean reversed, int position) {
+
+    /**
+     * 获取当前牌的含义（根据正逆位）
+     */
+    public String currentMeaning() {
+        return card.meaning(reversed);
+    }
+}
@@ -0,0 +1,63 @@
+package tarot.model;
+
+import java.util.Base64;
+import java.util.Optional;
+
+/**
+ * 占卜编号
+ * 一次占卜完全由牌阵编号和64位随机种子决定，编号把两者编码为12个字符的URL安全字符串，
+ * 任何节点都可以据此重新生成完全相同的占卜，无需存储
+ */
+public record ReadingId(int spreadCode, long seed) {
+
+    // 1字节牌阵编号 + 8字节种子
+    private static final int BYTE_LENGTH = 9;
+    // 9字节按Base64编码后恰好12个字符，无需填充
+    private static final int ENCODED_LENGTH = 12;
+
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    public ReadingId {
+        if (spreadCode < 0 || spreadCode > 0xFF) {
+            throw new IllegalArgumentException("牌阵编号超出范围: " + spreadCode);
+        }
+    }
+
+    /**
+     * 编码为URL安全的字符串
+     */
+    public String encode() {
+        byte[] bytes = new byte[BYTE_LENGTH];
+        bytes[0] = (byte) spreadCode;
+        for (int i = 0; i < 8; i++) {
+            bytes[1 + i] = (byte) (seed >>> (56 - i * 8));
+        }
+        return ENCODER.encodeToString(bytes);
+    }
+
+    /**
+     * 解析占卜编号，格式不正确时返回空结果
+     */
+    public static Optional<ReadingId> decode(String value) {
+        if (value == null || value.length() != ENCODED_LENGTH) {
+            return Optional.empty();
+        }
+        byte[] bytes;
+        try {
+            bytes = DECODER.decode(value);
+        } catch (IllegalArgumentException e) {
+            return Optional.empty();
+        }
+        long seed = 0;
+        for (int i = 0; i < 8; i++) {
+            seed = (seed << 8) | (bytes[1 + i] & 0xFF);
+        }
+        return Optional.of(new ReadingId(bytes[0] & 0xFF, seed));
+    }
+
+    @Override
+    public String toString() {
+        return encode();
+    }
+}
@@ -0,0 +1,7 @@
+package tarot.model;
+
+/**
+ * 一条检索结果：命中的牌和它的BM25得分
+ */
+public record SearchHit(TarotCard card, float score) {
+}
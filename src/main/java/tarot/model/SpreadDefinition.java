@@ -0,0 +1,71 @@
+package tarot.model;
+
+import java.util.Objects;
+
+/**
+ * 牌阵定义
+ * 不可变对象，位置标签和位置提示在构造时复制为扁平数组，请求路径上只做下标访问
+ */
+public final class SpreadDefinition {
+
+    private final int code;
+    private final String id;
+    private final String name;
+    private final String[] labels;
+    private final String[] hints;
+
+    /**
+     * @param code   稳定的数字编号，用于紧凑编码（不可复用已删除牌阵的编号）
+     * @param id     请求参数中使用的标识，例如 three-card
+     * @param name   展示名称
+     * @param labels 每个位置的标签
+     * @param hints  每个位置的含义提示，与labels一一对应
+     */
+    public SpreadDefinition(int code, String id, String name, String[] labels, String[] hints) {
+        if (labels.length == 0 || labels.length != hints.length) {
+            throw new IllegalArgumentException("牌阵 " + id + " 的位置标签和提示数量必须一致且不为空");
+        }
+        this.code = code;
+        this.id = Objects.requireNonNull(id);
+        this.name = Objects.requireNonNull(name);
+        this.labels = labels.clone();
+        this.hints = hints.clone();
+    }
+
+    public int getCode() {
+        return code;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * 牌阵需要抽取的牌数
+     */
+    public int size() {
+        return labels.length;
+    }
+
+    public String getLabel(int position) {
+        return labels[position];
+    }
+
+    public String getHint(int position) {
+        return hints[position];
+    }
+
+    @Override
+    public String toString() {
+        return "SpreadDefinition{" +
+                "code=" + code +
+                ", id='" + id + '\'' +
+                ", name='" + name + '\'' +
+                ", size=" + labels.length +
+                '}';
+    }
+}
@@ -0,0 +1,111 @@
+package tarot.room;
+
+import java.util.Arrays;
+
+/**
+ * 一个占卜房间
+ * 成员列表是写时复制的数组：加入和离开只在RoomRegistry对该房间的compute中进行（同一房间串行），
+ * 广播时直接遍历当前数组快照，不加锁。最早加入的成员是主持人，只有主持人可以抽牌
+ */
+final class ReadingRoom {
+
+    private static final RoomMember[] EMPTY = new RoomMember[0];
+
+    private final String id;
+    private volatile RoomMember[] members = EMPTY;
+
+    // 最近一次占卜的消息，新成员加入时补发
+    private volatile String lastReading;
+    private volatile long lastDrawNanos;
+
+    ReadingRoom(String id) {
+        this.id = id;
+    }
+
+    String id() {
+        return id;
+    }
+
+    int size() {
+        return members.length;
+    }
+
+    boolean isHost(RoomMember member) {
+        RoomMember[] current = members;
+        return current.length > 0 && current[0] == member;
+    }
+
+    void add(RoomMember member) {
+        RoomMember[] current = members;
+        RoomMember[] updated = Arrays.copyOf(current, current.length + 1);
+        updated[current.length] = member;
+        members = updated;
+    }
+
+    /**
+     * @return 是否确实移除了该成员
+     */
+    boolean remove(RoomMember member) {
+        RoomMember[] current = members;
+        for (int i = 0; i < current.length; i++) {
+            if (current[i] == member) {
+                RoomMember[] updated = new RoomMember[current.length - 1];
+                System.arraycopy(current, 0, updated, 0, i);
+                System.arraycopy(current, i + 1, updated, i, current.length - i - 1);
+                members = updated;
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 当前主持人，房间为空时返回null
+     */
+    RoomMember host() {
+        RoomMember[] current = members;
+        return current.length > 0 ? current[0] : null;
+    }
+
+    /**
+     * 把同一条消息放进每个成员的发送队列
+     *
+     * @return 收到消息的成员数
+     */
+    int broadcast(String frame) {
+        RoomMember[] current = members;
+        for (RoomMember member : current) {
+            member.send(frame);
+        }
+        return current.length;
+    }
+
+    int broadcastPresence(String frame) {
+        RoomMember[] current = members;
+        for (RoomMember member : current) {
+            member.sendPresence(frame);
+        }
+        return current.length;
+    }
+
+    String lastReading() {
+        return lastReading;
+    }
+
+    void setLastReading(String frame) {
+        this.lastReading = frame;
+    }
+
+    /**
+     * 距上次抽牌不足minIntervalNanos时返回false，否则记下本次抽牌时间
+     * 只有主持人会调用，不需要CAS
+     */
+    boolean tryDraw(long nowNanos, long minIntervalNanos) {
+        long last = lastDrawNanos;
+        if (last != 0 && nowNanos - last < minIntervalNanos) {
+            return false;
+        }
+        lastDrawNanos = nowNanos;
+        return true;
+    }
+}
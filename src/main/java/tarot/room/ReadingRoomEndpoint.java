@@ -0,0 +1,123 @@
+package tarot.room;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.websocket.CloseReason;
+import jakarta.websocket.DeploymentException;
+import jakarta.websocket.Endpoint;
+import jakarta.websocket.EndpointConfig;
+import jakarta.websocket.Session;
+import jakarta.websocket.server.ServerContainer;
+import jakarta.websocket.server.ServerEndpointConfig;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+/**
+ * 占卜房间的WebSocket端点: ws://host/tarot/ws/room/{roomId}
+ * 每个连接一个端点实例。客户端只需要发送两种消息：
+ * {"type":"draw","spread":"three-card"}（主持人抽牌）和 {"type":"ping"}（保持连接，无回复）
+ */
+public final class ReadingRoomEndpoint extends Endpoint {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReadingRoomEndpoint.class);
+
+    public static final String PATH = "/ws/room/{roomId}";
+
+    private static final Pattern ROOM_ID = Pattern.compile("[A-Za-z0-9_-]{1,32}");
+
+    // 客户端消息都很短，超过这个长度容器直接以1009关闭连接
+    private static final int MAX_MESSAGE_CHARS = 1024;
+    private static final long MAX_IDLE_MILLIS = TimeUnit.MINUTES.toMillis(30);
+
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final RoomRegistry registry;
+    private RoomMember member;
+
+    private ReadingRoomEndpoint(RoomRegistry registry) {
+        this.registry = registry;
+    }
+
+    /**
+     * 在WebSocket容器中注册端点，所有连接共用同一个房间注册表
+     */
+    public static void deploy(ServerContainer container, RoomRegistry registry) throws DeploymentException {
+        ServerEndpointConfig config = ServerEndpointConfig.Builder.create(ReadingRoomEndpoint.class, PATH)
+                .configurator(new ServerEndpointConfig.Configurator() {
+                    @Override
+                    public <T> T getEndpointInstance(Class<T> endpointClass) {
+                        return endpointClass.cast(new ReadingRoomEndpoint(registry));
+                    }
+                })
+                .build();
+        container.addEndpoint(config);
+    }
+
+    @Override
+    public void onOpen(Session session, EndpointConfig config) {
+        String roomId = session.getPathParameters().get("roomId");
+        if (roomId == null || !ROOM_ID.matcher(roomId).matches()) {
+            close(session, CloseReason.CloseCodes.CANNOT_ACCEPT, "房间号只能包含字母、数字、下划线和连字符，最长32个字符");
+            return;
+        }
+        session.setMaxTextMessageBufferSize(MAX_MESSAGE_CHARS);
+        session.setMaxIdleTimeout(MAX_IDLE_MILLIS);
+
+        RoomMember joining = new RoomMember(session, registry);
+        switch (registry.join(roomId, joining)) {
+            case JOINED -> {
+                member = joining;
+                session.addMessageHandler(String.class, this::onMessage);
+            }
+            case ROOM_FULL -> close(session, CloseReason.CloseCodes.TRY_AGAIN_LATER, "房间已满");
+            case TOO_MANY_ROOMS -> close(session, CloseReason.CloseCodes.TRY_AGAIN_LATER, "房间数已达上限");
+        }
+    }
+
+    private void onMessage(String text) {
+        JsonNode message;
+        try {
+            message = objectMapper.readTree(text);
+        } catch (JsonProcessingException e) {
+            registry.sendError(member, "消息不是有效的JSON");
+            return;
+        }
+        String type = message.path("type").asText();
+        switch (type) {
+            case "draw" -> {
+                JsonNode spread = message.get("spread");
+                registry.draw(member, spread == null || spread.isNull() ? null : spread.asText());
+            }
+            case "ping" -> {
+                // 只用于刷新空闲计时
+            }
+            default -> registry.sendError(member, "未知的消息类型: " + type);
+        }
+    }
+
+    @Override
+    public void onClose(Session session, CloseReason closeReason) {
+        if (member != null) {
+            member.close();
+            registry.leave(member);
+        }
+    }
+
+    @Override
+    public void onError(Session session, Throwable throwable) {
+        // 客户端断开时的IO错误很常见，随后会调用onClose
+        logger.debug("房间连接出错: {}", throwable.getMessage());
+    }
+
+    private static void close(Session session, CloseReason.CloseCode code, String reason) {
+        try {
+            session.close(new CloseReason(code, reason));
+        } catch (Exception e) {
+            logger.debug("关闭房间连接失败: {}", e.getMessage());
+        }
+    }
+}
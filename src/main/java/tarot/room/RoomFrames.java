@@ -0,0 +1,104 @@
+package tarot.room;
+
+import tarot.controller.response.ReadingPayload;
+import tarot.model.CardReading;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+
+/**
+ * 房间消息的编码
+ * 每条消息都是一个带type字段的单行JSON文本帧。广播的消息只编码一次，
+ * 同一个字符串对象放进所有成员的发送队列
+ */
+final class RoomFrames {
+
+    private static final SerializedString TYPE = new SerializedString("type");
+    private static final SerializedString ROOM = new SerializedString("room");
+    private static final SerializedString HOST = new SerializedString("host");
+    private static final SerializedString MEMBERS = new SerializedString("members");
+    private static final SerializedString READING = new SerializedString("reading");
+    private static final SerializedString MESSAGE = new SerializedString("message");
+
+    private final JsonFactory jsonFactory;
+
+    RoomFrames(JsonFactory jsonFactory) {
+        this.jsonFactory = jsonFactory;
+    }
+
+    /**
+     * 加入房间后只发给本人：{"type":"welcome","room":"...","host":true,"members":3}
+     */
+    String welcome(String roomId, boolean host, int members) {
+        return encode("welcome", generator -> {
+            generator.writeFieldName(ROOM);
+            generator.writeString(roomId);
+            generator.writeFieldName(HOST);
+            generator.writeBoolean(host);
+            generator.writeFieldName(MEMBERS);
+            generator.writeNumber(members);
+        });
+    }
+
+    /**
+     * 成员数变化，广播：{"type":"presence","members":3}
+     */
+    String presence(int members) {
+        return encode("presence", generator -> {
+            generator.writeFieldName(MEMBERS);
+            generator.writeNumber(members);
+        });
+    }
+
+    /**
+     * 原主持人离开后发给接任的成员：{"type":"host"}
+     */
+    String host() {
+        return encode("host", generator -> {
+        });
+    }
+
+    /**
+     * 主持人抽牌，广播：{"type":"reading","reading":{...}}，reading与 POST /api/reading 的结构相同
+     */
+    String reading(CardReading reading) {
+        return encode("reading", generator -> {
+            generator.writeFieldName(READING);
+            ReadingPayload.writeReading(generator, reading);
+        });
+    }
+
+    /**
+     * 只发给出错的成员：{"type":"error","message":"..."}
+     */
+    String error(String message) {
+        return encode("error", generator -> {
+            generator.writeFieldName(MESSAGE);
+            generator.writeString(message);
+        });
+    }
+
+    @FunctionalInterface
+    private interface Fields {
+        void write(JsonGenerator generator) throws IOException;
+    }
+
+    private String encode(String type, Fields fields) {
+        StringWriter writer = new StringWriter(256);
+        try (JsonGenerator generator = jsonFactory.createGenerator(writer)) {
+            generator.writeStartObject();
+            generator.writeFieldName(TYPE);
+            generator.writeString(type);
+            fields.write(generator);
+            generator.writeEndObject();
+        } catch (IOException e) {
+            // 写入内存缓冲区，只有序列化本身出错时才会到这里
+            throw new UncheckedIOException(e);
+        }
+        return writer.toString();
+    }
+}
@@ -0,0 +1,184 @@
+package tarot.room;
+
+import jakarta.websocket.CloseReason;
+import jakarta.websocket.RemoteEndpoint;
+import jakarta.websocket.SendHandler;
+import jakarta.websocket.SendResult;
+import jakarta.websocket.Session;
+
+import java.util.ArrayDeque;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 房间成员的发送端
+ * 每个连接同一时刻最多只有一条异步发送在进行，其余消息在有界队列中排队，发送完成回调中取下一条。
+ * 成员数变化（presence）只保留最新的一条，不占队列；其他消息排队超过上限说明客户端读得太慢，
+ * 直接断开，不让它拖住房间里的其他人
+ */
+final class RoomMember implements SendHandler {
+
+    /**
+     * 排队消息的总字符数上限，凯尔特十字一次占卜的消息约一万字符
+     */
+    static final int MAX_QUEUED_CHARS = 256 * 1024;
+
+    private final Session session;
+    private final RemoteEndpoint.Async remote;
+    private final RoomRegistry registry;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final ArrayDeque<String> queue = new ArrayDeque<>();
+    private int queuedChars;
+    private String pendingPresence;
+    private boolean sending;
+    private boolean closed;
+
+    // 所在房间，加入后由RoomRegistry设置
+    private volatile ReadingRoom room;
+
+    RoomMember(Session session, RoomRegistry registry) {
+        this.session = session;
+        this.remote = session.getAsyncRemote();
+        this.registry = registry;
+    }
+
+    Session session() {
+        return session;
+    }
+
+    ReadingRoom room() {
+        return room;
+    }
+
+    void joined(ReadingRoom room) {
+        this.room = room;
+    }
+
+    /**
+     * 发送一条消息，不阻塞调用线程
+     */
+    void send(String frame) {
+        boolean overflow = false;
+        lock.lock();
+        try {
+            if (closed) {
+                return;
+            }
+            if (sending) {
+                if (queuedChars + frame.length() <= MAX_QUEUED_CHARS) {
+                    queue.add(frame);
+                    queuedChars += frame.length();
+                    return;
+                }
+                overflow = true;
+            } else {
+                sending = true;
+            }
+        } finally {
+            lock.unlock();
+        }
+        if (overflow) {
+            registry.disconnectSlow(this);
+            return;
+        }
+        sendAsync(frame);
+    }
+
+    /**
+     * 发送成员数，还没发出的旧值直接被替换
+     */
+    void sendPresence(String frame) {
+        lock.lock();
+        try {
+            if (closed) {
+                return;
+            }
+            if (sending) {
+                pendingPresence = frame;
+                return;
+            }
+            sending = true;
+        } finally {
+            lock.unlock();
+        }
+        sendAsync(frame);
+    }
+
+    /**
+     * 上一条消息发送完成（由容器线程回调），继续发送队列中的下一条
+     */
+    @Override
+    public void onResult(SendResult result) {
+        if (!result.isOK()) {
+            close();
+            registry.leave(this);
+            return;
+        }
+        String next;
+        lock.lock();
+        try {
+            if (closed) {
+                return;
+            }
+            next = queue.poll();
+            if (next != null) {
+                queuedChars -= next.length();
+            } else {
+                next = pendingPresence;
+                pendingPresence = null;
+            }
+            if (next == null) {
+                sending = false;
+                return;
+            }
+        } finally {
+            lock.unlock();
+        }
+        sendAsync(next);
+    }
+
+    /**
+     * 停止发送并丢弃排队的消息，之后的send都被忽略
+     *
+     * @return 本次调用是否真正关闭了发送端（重复调用返回false）
+     */
+    boolean close() {
+        lock.lock();
+        try {
+            if (closed) {
+                return false;
+            }
+            closed = true;
+            queue.clear();
+            queuedChars = 0;
+            pendingPresence = null;
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 关闭连接，可能阻塞到关闭帧发出或超时，不要在广播线程上调用
+     */
+    void disconnect(CloseReason reason) {
+        close();
+        try {
+            if (session.isOpen()) {
+                session.close(reason);
+            }
+        } catch (Exception e) {
+            // 连接已经不可用，容器会在超时后回收
+        }
+    }
+
+    private void sendAsync(String frame) {
+        try {
+            remote.sendText(frame, this);
+        } catch (RuntimeException e) {
+            // 连接已关闭时容器直接抛出异常，不会再回调
+            close();
+            registry.leave(this);
+        }
+    }
+}
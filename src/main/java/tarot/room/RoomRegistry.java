@@ -0,0 +1,226 @@
+package tarot.room;
+
+import tarot.journal.ReadingJournal;
+import tarot.metrics.TarotMetrics;
+import tarot.model.CardReading;
+import tarot.model.SpreadDefinition;
+import tarot.service.TarotGameService;
+import com.fasterxml.jackson.core.JsonFactory;
+import jakarta.websocket.CloseReason;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 占卜房间注册表
+ * 房间在第一个成员加入时创建，最后一个成员离开时删除。加入和离开都在ConcurrentHashMap.compute中完成，
+ * 同一房间的成员变化串行执行，不同房间互不影响；广播不经过注册表的锁。
+ * 读得太慢的成员在广播线程上只做标记，关闭连接交给单独的虚拟线程
+ */
+public final class RoomRegistry {
+
+    private static final Logger logger = LoggerFactory.getLogger(RoomRegistry.class);
+
+    /**
+     * 房间总数上限（近似值，检查和创建不在同一个原子操作中）
+     */
+    static final int MAX_ROOMS = 10_000;
+    static final int MAX_MEMBERS_PER_ROOM = 64;
+
+    // 同一房间两次抽牌的最小间隔，防止主持人连续抽牌把所有成员的发送队列填满
+    private static final long MIN_DRAW_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private static final CloseReason SLOW_CONSUMER = new CloseReason(CloseReason.CloseCodes.TRY_AGAIN_LATER,
+            "发送队列已满");
+
+    enum JoinResult {
+        JOINED,
+        ROOM_FULL,
+        TOO_MANY_ROOMS
+    }
+
+    private final ConcurrentHashMap<String, ReadingRoom> rooms = new ConcurrentHashMap<>();
+    private final AtomicInteger members = new AtomicInteger();
+    private final LongAdder broadcasts = new LongAdder();
+    private final LongAdder deliveries = new LongAdder();
+    private final LongAdder slowDisconnects = new LongAdder();
+
+    private final TarotGameService service;
+    private final TarotMetrics metrics;
+    private final ReadingJournal journal;
+    private final RoomFrames frames;
+    private final ExecutorService closer = Executors.newThreadPerTaskExecutor(
+            Thread.ofVirtual().name("tarot-room-close-", 0).factory());
+
+    /**
+     * @param journal 占卜日志，未启用时为null
+     */
+    public RoomRegistry(TarotGameService service, TarotMetrics metrics, ReadingJournal journal,
+                        JsonFactory jsonFactory) {
+        this.service = service;
+        this.metrics = metrics;
+        this.journal = journal;
+        this.frames = new RoomFrames(jsonFactory);
+
+        metrics.registerGauge("reading_rooms_open", "当前的占卜房间数", rooms::size);
+        metrics.registerGauge("reading_room_members", "所有占卜房间的成员总数", members::get);
+        metrics.registerCounter("reading_room_broadcasts_total", "房间广播的消息数（每条只序列化一次）",
+                broadcasts::sum);
+        metrics.registerCounter("reading_room_deliveries_total", "放入成员发送队列的消息数", deliveries::sum);
+        metrics.registerCounter("reading_room_slow_disconnects_total", "发送队列已满而断开的成员数",
+                slowDisconnects::sum);
+    }
+
+    /**
+     * 加入房间，成功后给本人发送welcome（以及房间最近一次占卜），并向全体广播成员数
+     */
+    JoinResult join(String roomId, RoomMember member) {
+        JoinResult[] result = new JoinResult[1];
+        ReadingRoom joined = rooms.compute(roomId, (id, room) -> {
+            if (room == null) {
+                if (rooms.size() >= MAX_ROOMS) {
+                    result[0] = JoinResult.TOO_MANY_ROOMS;
+                    return null;
+                }
+                room = new ReadingRoom(id);
+            } else if (room.size() >= MAX_MEMBERS_PER_ROOM) {
+                result[0] = JoinResult.ROOM_FULL;
+                return room;
+            }
+            room.add(member);
+            member.joined(room);
+            result[0] = JoinResult.JOINED;
+            return room;
+        });
+        if (result[0] != JoinResult.JOINED) {
+            return result[0];
+        }
+        members.incrementAndGet();
+
+        member.send(frames.welcome(roomId, joined.isHost(member), joined.size()));
+        String lastReading = joined.lastReading();
+        if (lastReading != null) {
+            member.send(lastReading);
+        }
+        broadcastPresence(joined);
+        return JoinResult.JOINED;
+    }
+
+    /**
+     * 离开房间，可以重复调用。主持人离开时由最早加入的其余成员接任
+     */
+    void leave(RoomMember member) {
+        ReadingRoom room = member.room();
+        if (room == null) {
+            return;
+        }
+        boolean[] removed = new boolean[1];
+        RoomMember[] promoted = new RoomMember[1];
+        rooms.computeIfPresent(room.id(), (id, current) -> {
+            if (current != room) {
+                return current;
+            }
+            boolean wasHost = current.isHost(member);
+            removed[0] = current.remove(member);
+            if (current.size() == 0) {
+                return null;
+            }
+            if (removed[0] && wasHost) {
+                promoted[0] = current.host();
+            }
+            return current;
+        });
+        if (!removed[0]) {
+            return;
+        }
+        members.decrementAndGet();
+        if (promoted[0] != null) {
+            promoted[0].send(frames.host());
+        }
+        if (room.size() > 0) {
+            broadcastPresence(room);
+        }
+    }
+
+    /**
+     * 主持人抽牌并广播结果，占卜结果只序列化一次
+     *
+     * @param spreadId 牌阵标识，为null时使用默认牌阵
+     */
+    void draw(RoomMember member, String spreadId) {
+        ReadingRoom room = member.room();
+        if (room == null) {
+            return;
+        }
+        if (!room.isHost(member)) {
+            member.send(frames.error("只有主持人可以抽牌"));
+            return;
+        }
+        SpreadDefinition spread;
+        try {
+            spread = service.resolveSpread(spreadId);
+        } catch (IllegalArgumentException e) {
+            member.send(frames.error(e.getMessage()));
+            return;
+        }
+        if (!room.tryDraw(System.nanoTime(), MIN_DRAW_INTERVAL_NANOS)) {
+            member.send(frames.error("抽牌太频繁，请稍后再试"));
+            return;
+        }
+
+        CardReading reading = service.performReading(spread);
+        metrics.recordReading(reading);
+        if (journal != null) {
+            journal.append(reading, ReadingJournal.hashUser(null));
+        }
+
+        String frame = frames.reading(reading);
+        room.setLastReading(frame);
+        deliveries.add(room.broadcast(frame));
+        broadcasts.increment();
+        logger.debug("房间 {} 抽牌完成，广播给 {} 名成员", room.id(), room.size());
+    }
+
+    /**
+     * 只回复给该成员的错误消息
+     */
+    void sendError(RoomMember member, String message) {
+        member.send(frames.error(message));
+    }
+
+    /**
+     * 发送队列已满：立即移出房间，之后的广播不再经过它，连接在虚拟线程上关闭
+     */
+    void disconnectSlow(RoomMember member) {
+        if (!member.close()) {
+            return;
+        }
+        slowDisconnects.increment();
+        leave(member);
+        logger.debug("成员发送队列已满，断开连接: {}", member.session().getId());
+        try {
+            closer.execute(() -> member.disconnect(SLOW_CONSUMER));
+        } catch (RuntimeException e) {
+            // 应用正在关闭，连接由容器关闭
+        }
+    }
+
+    /**
+     * 应用关闭时调用，连接本身由WebSocket容器关闭
+     */
+    public void shutdown() {
+        closer.shutdownNow();
+        rooms.clear();
+        members.set(0);
+    }
+
+    private void broadcastPresence(ReadingRoom room) {
+        room.broadcastPresence(frames.presence(room.size()));
+    }
+}
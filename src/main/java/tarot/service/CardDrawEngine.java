@@ -0,0 +1,91 @@
+package tarot.service;
+
+import tarot.model.DrawnCard;
+import tarot.model.TarotCard;
+
+import java.util.List;
+import java.util.random.RandomGenerator;
+
+/**
+ * 抽牌引擎
+ * 规范牌组在构造后不可变，每次抽牌只在线程私有的索引缓冲区上做部分Fisher–Yates洗牌，
+ * 不同请求之间不共享任何可变状态
+ */
+public class CardDrawEngine {
+
+    private final List<TarotCard> deck;
+
+    // 每个线程一份索引缓冲区，抽牌结束后恢复为恒等排列
+    private final ThreadLocal<int[]> scratch;
+
+    public CardDrawEngine(List<TarotCard> deck) {
+        if (deck == null || deck.isEmpty()) {
+            throw new IllegalArgumentException("牌组不能为空");
+        }
+        this.deck = List.copyOf(deck);
+        int size = this.deck.size();
+        this.scratch = ThreadLocal.withInitial(() -> identity(size));
+    }
+
+    /**
+     * 抽取k个互不相同的牌组下标
+     * 只交换前k个位置，开销与k成正比而不是与牌组大小成正比
+     */
+    public int[] drawIndices(int k, RandomGenerator random) {
+        int n = deck.size();
+        if (k <= 0 || k > n) {
+            throw new IllegalArgumentException("抽牌数量必须在1到" + n + "之间");
+        }
+
+        int[] indices = scratch.get();
+        int[] swapped = new int[k];
+        int[] result = new int[k];
+        for (int i = 0; i < k; i++) {
+            int j = i + random.nextInt(n - i);
+            swapped[i] = j;
+            int tmp = indices[i];
+            indices[i] = indices[j];
+            indices[j] = tmp;
+            result[i] = indices[i];
+        }
+
+        // 逆序撤销交换，保证下次抽牌从相同的初始排列开始
+        for (int i = k - 1; i >= 0; i--) {
+            int j = swapped[i];
+            int tmp = indices[i];
+            indices[i] = indices[j];
+            indices[j] = tmp;
+        }
+        return result;
+    }
+
+    /**
+     * 抽取k张牌，只为抽中的牌决定正逆位
+     * 结果只引用共享的规范牌，不复制也不修改牌对象
+     */
+    public List<DrawnCard> draw(int k, RandomGenerator random) {
+        int[] indices = drawIndices(k, random);
+        DrawnCard[] drawn = new DrawnCard[k];
+        for (int i = 0; i < k; i++) {
+            boolean reversed = random.nextDouble() < TarotCard.REVERSED_PROBABILITY;
+            drawn[i] = new DrawnCard(deck.get(indices[i]), indices[i], reversed, i);
+        }
+        return List.of(drawn);
+    }
+
+    public List<TarotCard> getDeck() {
+        return deck;
+    }
+
+    public int size() {
+        return deck.size();
+    }
+
+    private static int[] identity(int size) {
+        int[] indices = new int[size];
+        for (int i = 0; i < size; i++) {
+            indices[i] = i;
+        }
+        return indices;
+    }
+}
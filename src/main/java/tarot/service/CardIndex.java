@@ -0,0 +1,77 @@
+package tarot.service;
+
+import tarot.model.TarotCard;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * 卡牌ID索引
+ * 启动时构建一次：大阿卡纳的数字ID放入稠密数组，其余字符串ID放入哈希表，查找为O(1)
+ */
+public class CardIndex {
+
+    // 数字ID最多解析的位数，超过的一律按字符串ID处理
+    private static final int MAX_NUMERIC_ID_LENGTH = 3;
+
+    private final TarotCard[] numericIds;
+    private final Map<String, TarotCard> stringIds;
+
+    public CardIndex(List<TarotCard> deck) {
+        int maxNumericId = -1;
+        for (TarotCard card : deck) {
+            maxNumericId = Math.max(maxNumericId, parseNumericId(card.id()));
+        }
+
+        this.numericIds = new TarotCard[maxNumericId + 1];
+        Map<String, TarotCard> byId = new HashMap<>();
+        for (TarotCard card : deck) {
+            int numericId = parseNumericId(card.id());
+            TarotCard previous = numericId >= 0 ? numericIds[numericId] : byId.get(card.id());
+            if (previous != null) {
+                throw new IllegalArgumentException("卡牌ID重复: " + card.id());
+            }
+            if (numericId >= 0) {
+                numericIds[numericId] = card;
+            } else {
+                byId.put(card.id(), card);
+            }
+        }
+        this.stringIds = Map.copyOf(byId);
+    }
+
+    /**
+     * 按ID查找卡牌，未找到时返回空结果而不是抛出异常
+     */
+    public Optional<TarotCard> find(String id) {
+        if (id == null || id.isEmpty()) {
+            return Optional.empty();
+        }
+        int numericId = parseNumericId(id);
+        if (numericId >= 0) {
+            return numericId < numericIds.length ? Optional.ofNullable(numericIds[numericId]) : Optional.empty();
+        }
+        return Optional.ofNullable(stringIds.get(id));
+    }
+
+    /**
+     * 解析规范形式的数字ID（不带前导零），不是数字ID时返回-1
+     */
+    private static int parseNumericId(String id) {
+        int length = id.length();
+        if (length == 0 || length > MAX_NUMERIC_ID_LENGTH || (length > 1 && id.charAt(0) == '0')) {
+            return -1;
+        }
+        int value = 0;
+        for (int i = 0; i < length; i++) {
+            char c = id.charAt(i);
+            if (c < '0' || c > '9') {
+                return -1;
+            }
+            value = value * 10 + (c - '0');
+        }
+        return value;
+    }
+}
@@ -0,0 +1,239 @@
+package tarot.service;
+
+import tarot.model.SearchHit;
+import tarot.model.TarotCard;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * 卡牌全文检索的倒排索引
+ * 加载目录时构建一次，覆盖全部语言：每张牌（按目录下标）是一篇文档，各语言的名称、英文名、正逆位含义和描述都是它的内容，
+ * 用中文或英文都能搜到同一张牌。
+ * <p>
+ * 中日韩文字按相邻两字切分，单字另外建索引，只用于单字查询；其他文字按连续的字母数字切词，转小写并去掉复数词尾。
+ * 每个词的倒排表是一个int数组，交替存放文档下标和加权词频；查询按BM25打分，只做哈希查找和数组累加
+ */
+public final class CardSearchIndex {
+
+    // BM25参数
+    private static final float K1 = 1.2f;
+    private static final float B = 0.75f;
+    // 字段权重，以重复计数的方式计入词频和文档长度：名称命中比描述命中更相关
+    private static final int NAME_WEIGHT = 3;
+    private static final int MEANING_WEIGHT = 2;
+    private static final int DESCRIPTION_WEIGHT = 1;
+    // 一次查询最多使用的不同词数，超出的部分忽略
+    private static final int MAX_QUERY_TERMS = 32;
+
+    /**
+     * 一个词的倒排表和逆文档频率
+     *
+     * @param postings 交替存放的 文档下标, 加权词频，按文档下标递增
+     */
+    private record Term(float idf, int[] postings) {
+    }
+
+    private final Map<String, Term> terms;
+    // 每篇文档BM25分母中与词频无关的部分：K1 * (1 - B + B * 文档长度 / 平均长度)
+    private final float[] lengthNorms;
+
+    /**
+     * @param decks 各语言的牌组，牌的顺序必须一致
+     */
+    public CardSearchIndex(List<List<TarotCard>> decks) {
+        int documents = decks.get(0).size();
+        Map<String, List<Integer>> building = new HashMap<>();
+        int[] lengths = new int[documents];
+        long totalLength = 0;
+
+        for (int document = 0; document < documents; document++) {
+            Map<String, Integer> frequencies = new LinkedHashMap<>();
+            int[] length = new int[1];
+            for (List<TarotCard> deck : decks) {
+                TarotCard card = deck.get(document);
+                addField(card.name(), NAME_WEIGHT, frequencies, length);
+                addField(card.englishName(), NAME_WEIGHT, frequencies, length);
+                addField(card.uprightMeaning(), MEANING_WEIGHT, frequencies, length);
+                addField(card.reversedMeaning(), MEANING_WEIGHT, frequencies, length);
+                addField(card.description(), DESCRIPTION_WEIGHT, frequencies, length);
+            }
+            for (Map.Entry<String, Integer> frequency : frequencies.entrySet()) {
+                List<Integer> postings = building.computeIfAbsent(frequency.getKey(), key -> new ArrayList<>());
+                postings.add(document);
+                postings.add(frequency.getValue());
+            }
+            lengths[document] = length[0];
+            totalLength += length[0];
+        }
+
+        float averageLength = Math.max(1f, (float) totalLength / documents);
+        this.lengthNorms = new float[documents];
+        for (int document = 0; document < documents; document++) {
+            lengthNorms[document] = K1 * (1 - B + B * lengths[document] / averageLength);
+        }
+        Map<String, Term> built = new HashMap<>(building.size() * 2);
+        for (Map.Entry<String, List<Integer>> entry : building.entrySet()) {
+            List<Integer> list = entry.getValue();
+            int[] postings = new int[list.size()];
+            for (int i = 0; i < postings.length; i++) {
+                postings[i] = list.get(i);
+            }
+            int frequency = postings.length / 2;
+            float idf = (float) Math.log(1 + (documents - frequency + 0.5) / (frequency + 0.5));
+            built.put(entry.getKey(), new Term(idf, postings));
+        }
+        this.terms = built;
+    }
+
+    private static void addField(String text, int weight, Map<String, Integer> frequencies, int[] length) {
+        tokenize(text, false, token -> {
+            frequencies.merge(token, weight, Integer::sum);
+            length[0] += weight;
+        });
+    }
+
+    /**
+     * 按BM25得分从高到低返回最多limit张牌，得分相同时按目录顺序
+     *
+     * @param deck 返回结果所用语言的牌组，顺序与建索引时一致
+     */
+    public List<SearchHit> search(String query, int limit, List<TarotCard> deck) {
+        Term[] queryTerms = new Term[MAX_QUERY_TERMS];
+        int[] termCount = new int[1];
+        tokenize(query, true, token -> {
+            Term term = terms.get(token);
+            if (term == null || termCount[0] == MAX_QUERY_TERMS) {
+                return;
+            }
+            for (int i = 0; i < termCount[0]; i++) {
+                if (queryTerms[i] == term) {
+                    return;
+                }
+            }
+            queryTerms[termCount[0]++] = term;
+        });
+        if (termCount[0] == 0) {
+            return List.of();
+        }
+
+        float[] scores = new float[lengthNorms.length];
+        int[] matched = new int[lengthNorms.length];
+        int matchedCount = 0;
+        for (int t = 0; t < termCount[0]; t++) {
+            Term term = queryTerms[t];
+            int[] postings = term.postings();
+            for (int i = 0; i < postings.length; i += 2) {
+                int document = postings[i];
+                float frequency = postings[i + 1];
+                if (scores[document] == 0) {
+                    matched[matchedCount++] = document;
+                }
+                scores[document] += term.idf() * frequency * (K1 + 1) / (frequency + lengthNorms[document]);
+            }
+        }
+
+        // 命中的文档最多几十篇，插入排序即可
+        for (int i = 1; i < matchedCount; i++) {
+            int document = matched[i];
+            int j = i - 1;
+            while (j >= 0 && ranksBefore(document, matched[j], scores)) {
+                matched[j + 1] = matched[j];
+                j--;
+            }
+            matched[j + 1] = document;
+        }
+        int count = Math.min(limit, matchedCount);
+        List<SearchHit> hits = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            hits.add(new SearchHit(deck.get(matched[i]), scores[matched[i]]));
+        }
+        return hits;
+    }
+
+    private static boolean ranksBefore(int document, int other, float[] scores) {
+        return scores[document] > scores[other] || (scores[document] == scores[other] && document < other);
+    }
+
+    /**
+     * 索引中不同词的数量，用于日志
+     */
+    public int termCount() {
+        return terms.size();
+    }
+
+    /**
+     * 切词：中日韩文字的连续片段输出相邻两字；片段只有一个字时输出单字，建索引时还额外输出每个单字。
+     * 其他字母和数字组成的词转小写并去掉复数词尾后输出，单个字母忽略
+     *
+     * @param query 是否为查询，查询只在片段只有一个字时使用单字
+     */
+    static void tokenize(String text, boolean query, Consumer<String> sink) {
+        int length = text.length();
+        int i = 0;
+        while (i < length) {
+            int codePoint = text.codePointAt(i);
+            if (isCjk(codePoint)) {
+                int start = i;
+                int previous = -1;
+                int characters = 0;
+                while (i < length && isCjk(codePoint = text.codePointAt(i))) {
+                    int next = i + Character.charCount(codePoint);
+                    if (previous >= 0) {
+                        sink.accept(text.substring(previous, next));
+                    }
+                    if (!query) {
+                        sink.accept(text.substring(i, next));
+                    }
+                    previous = i;
+                    characters++;
+                    i = next;
+                }
+                if (query && characters == 1) {
+                    sink.accept(text.substring(start, i));
+                }
+            } else if (Character.isLetterOrDigit(codePoint)) {
+                StringBuilder word = new StringBuilder();
+                while (i < length && Character.isLetterOrDigit(codePoint = text.codePointAt(i)) && !isCjk(codePoint)) {
+                    word.appendCodePoint(Character.toLowerCase(codePoint));
+                    i += Character.charCount(codePoint);
+                }
+                if (word.length() > 1) {
+                    sink.accept(stem(word.toString()));
+                }
+            } else {
+                i += Character.charCount(codePoint);
+            }
+        }
+    }
+
+    /**
+     * 只去掉英文复数词尾（Harman的S词干规则）：cups -> cup，swords -> sword，lovers -> lover，stories -> story
+     */
+    static String stem(String word) {
+        int length = word.length();
+        if (length < 4 || word.charAt(length - 1) != 's') {
+            return word;
+        }
+        if (word.endsWith("ies") && !word.endsWith("eies") && !word.endsWith("aies")) {
+            return word.substring(0, length - 3) + "y";
+        }
+        if (word.endsWith("es") && !word.endsWith("aes") && !word.endsWith("ees") && !word.endsWith("oes")) {
+            return word.substring(0, length - 1);
+        }
+        if (!word.endsWith("us") && !word.endsWith("ss")) {
+            return word.substring(0, length - 1);
+        }
+        return word;
+    }
+
+    private static boolean isCjk(int codePoint) {
+        Character.UnicodeScript script = Character.UnicodeScript.of(codePoint);
+        return script == Character.UnicodeScript.HAN || script == Character.UnicodeScript.HIRAGANA
+                || script == Character.UnicodeScript.KATAKANA || script == Character.UnicodeScript.HANGUL;
+    }
+}
@@ -0,0 +1,211 @@
+package tarot.service;
+
+import tarot.data.CardCatalog;
+import tarot.data.TarotCardData;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Stream;
+
+/**
+ * 卡牌目录热加载
+ * 监视一个外部目录，其中任何一种语言的 tarot-cards.{语言}.bin 或 .json 被创建、替换或修改后，
+ * 重新加载全部语言并一次性替换服务中的目录快照，各语言之间不会出现一新一旧。
+ * 某种语言在目录中没有文件时使用随应用发布的目录；同一语言两种文件都有时使用 .bin。
+ * 二进制目录内存映射打开，.json 源文件在内存中编译。
+ * <p>
+ * 二进制文件先复制到私有的快照目录再映射：映射期间原文件被原地改写会导致读取时进程崩溃（SIGBUS），
+ * 复制之后原文件可以随意改写。新目录无效（写了一半、格式错误、牌数不足等）时只记录错误，继续使用旧目录
+ */
+public final class CatalogReloader implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(CatalogReloader.class);
+
+    // 编辑器和复制命令往往连续产生多个事件，安静这么久之后才加载
+    private static final long DEBOUNCE_MILLIS = 200;
+
+    private final TarotGameService service;
+    private final Path directory;
+    private final Path snapshotDirectory;
+    private final WatchService watchService;
+    private final Thread watcher;
+
+    private final LongAdder reloads = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+
+    public CatalogReloader(TarotGameService service, Path directory) throws IOException {
+        this.service = service;
+        this.directory = directory.toAbsolutePath().normalize();
+        this.watchService = directory.getFileSystem().newWatchService();
+        try {
+            this.directory.register(watchService, StandardWatchEventKinds.ENTRY_CREATE,
+                    StandardWatchEventKinds.ENTRY_MODIFY);
+            this.snapshotDirectory = Files.createTempDirectory("tarot-catalog-");
+        } catch (IOException e) {
+            watchService.close();
+            throw e;
+        }
+        this.watcher = Thread.ofPlatform().name("tarot-catalog-reloader").daemon().unstarted(this::watch);
+    }
+
+    /**
+     * 开始监视目录变化
+     */
+    public void start() {
+        watcher.start();
+        logger.info("卡牌目录热加载已启用，监视目录: {}", directory);
+    }
+
+    /**
+     * 立即从目录加载全部语言
+     *
+     * @return 是否替换了目录（文件在读取期间被删除、无效或内容未变化时为false）
+     */
+    public boolean reload() {
+        try {
+            List<CardCatalog> sources = new ArrayList<>();
+            for (String locale : service.getLocales()) {
+                sources.add(load(locale));
+            }
+            boolean replaced = service.reload(sources);
+            if (replaced) {
+                reloads.increment();
+            }
+            return replaced;
+        } catch (NoSuchFileException e) {
+            logger.warn("卡牌目录文件在读取时已不存在: {}，继续使用当前目录", e.getFile());
+        } catch (IOException | RuntimeException e) {
+            failures.increment();
+            logger.error("加载卡牌目录失败: {}，继续使用当前目录: {}", directory, e.getMessage());
+        }
+        return false;
+    }
+
+    private CardCatalog load(String locale) throws IOException {
+        Path compiled = directory.resolve(CardCatalog.fileName(locale, ".bin"));
+        if (Files.exists(compiled)) {
+            return open(compiled);
+        }
+        Path source = directory.resolve(CardCatalog.fileName(locale, ".json"));
+        if (Files.exists(source)) {
+            try (InputStream in = Files.newInputStream(source)) {
+                return CardCatalog.compile(in, source.toString());
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException(source + ": " + e.getMessage(), e);
+            }
+        }
+        return TarotCardData.getCatalog(locale);
+    }
+
+    /**
+     * 把二进制目录复制到快照目录后映射
+     */
+    private CardCatalog open(Path file) throws IOException {
+        Path snapshot = Files.createTempFile(snapshotDirectory, "catalog-", ".bin");
+        try {
+            Files.copy(file, snapshot, StandardCopyOption.REPLACE_EXISTING);
+            return CardCatalog.open(snapshot, file.toString());
+        } finally {
+            // 已建立的映射不受删除影响；不允许删除打开中文件的系统上留到close时清理
+            try {
+                Files.deleteIfExists(snapshot);
+            } catch (IOException e) {
+                logger.debug("删除目录快照失败: {}", snapshot);
+            }
+        }
+    }
+
+    private void watch() {
+        try {
+            while (true) {
+                WatchKey key = watchService.take();
+                boolean changed = drain(key);
+                // 去抖：直到一段时间内没有新的事件
+                while (changed) {
+                    WatchKey next = watchService.poll(DEBOUNCE_MILLIS, TimeUnit.MILLISECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    drain(next);
+                }
+                if (changed) {
+                    reload();
+                }
+                if (!key.isValid()) {
+                    logger.warn("卡牌目录已不可监视，热加载停止: {}", directory);
+                    return;
+                }
+            }
+        } catch (InterruptedException | ClosedWatchServiceException e) {
+            // close()
+        }
+    }
+
+    /**
+     * 取出一个WatchKey上的全部事件并重新登记
+     *
+     * @return 是否有事件涉及某种语言的目录文件（事件溢出时无法判断，按涉及处理）
+     */
+    private boolean drain(WatchKey key) {
+        boolean changed = false;
+        for (WatchEvent<?> event : key.pollEvents()) {
+            if (event.kind() == StandardWatchEventKinds.OVERFLOW || isCatalogFile(event.context())) {
+                changed = true;
+            }
+        }
+        key.reset();
+        return changed;
+    }
+
+    private boolean isCatalogFile(Object context) {
+        String name = context.toString();
+        for (String locale : service.getLocales()) {
+            if (name.equals(CardCatalog.fileName(locale, ".bin")) || name.equals(CardCatalog.fileName(locale, ".json"))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public long getReloadCount() {
+        return reloads.sum();
+    }
+
+    public long getFailureCount() {
+        return failures.sum();
+    }
+
+    @Override
+    public void close() {
+        try {
+            watchService.close();
+        } catch (IOException e) {
+            logger.debug("关闭目录监视失败: {}", e.getMessage());
+        }
+        watcher.interrupt();
+        try (Stream<Path> snapshots = Files.list(snapshotDirectory)) {
+            for (Path snapshot : snapshots.toList()) {
+                Files.deleteIfExists(snapshot);
+            }
+            Files.deleteIfExists(snapshotDirectory);
+        } catch (IOException e) {
+            logger.debug("清理目录快照失败: {}", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,135 @@
+package tarot.service;
+
+import tarot.model.DrawnCard;
+import tarot.model.SpreadDefinition;
+import tarot.model.TarotCard;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 解读文本编译器
+ * 启动时把解读文本中所有不变的片段预先拼好：每个牌阵位置的标签前缀、每张牌在正逆位下的正文，
+ * 请求时只需按下标取出少量片段，拼接到长度恰好的缓冲区中。
+ * 每种语言一个实例，模板文本来自该语言目录的 narrative.* 文本，缺少时使用中文默认值
+ */
+public class NarrativeCompiler {
+
+    static final String HEADER = "【塔罗解读】\n\n";
+    static final String FOOTER = "📝 **综合提示**: 每张牌都带来了重要的信息，请仔细思考它们之间的联系和对你生活的指导意义。";
+    static final String EMPTY_READING = "无法进行解读，请先抽取塔罗牌。";
+    static final String UPRIGHT = "（正位）";
+    static final String REVERSED = "（逆位）";
+    // {0}为从1开始的位置序号
+    static final String POSITION = "第{0}张牌";
+
+    private final String header;
+    private final String footer;
+    private final String emptyReading;
+    private final String upright;
+    private final String reversed;
+    private final String positionTemplate;
+
+    // 按牌阵编号、位置存放的标签前缀，例如 "🔮 **过去/根源**: "
+    private final String[][] labelPrefixes;
+
+    // 按 牌下标 * 2 + (逆位 ? 1 : 0) 存放的牌面正文
+    private final String[] cardBodies;
+
+    // 生成正文时对应的牌，用于识别目录替换前抽到的牌
+    private final TarotCard[] cards;
+
+    public NarrativeCompiler(List<TarotCard> deck, SpreadRegistry spreads) {
+        this(deck, spreads, Map.of());
+    }
+
+    /**
+     * @param spreads 已经是该语言的牌阵定义（位置标签）
+     * @param texts   该语言目录的界面文本
+     */
+    public NarrativeCompiler(List<TarotCard> deck, SpreadRegistry spreads, Map<String, String> texts) {
+        this.header = texts.getOrDefault("narrative.header", HEADER);
+        this.footer = texts.getOrDefault("narrative.footer", FOOTER);
+        this.emptyReading = texts.getOrDefault("narrative.empty", EMPTY_READING);
+        this.upright = texts.getOrDefault("narrative.upright", UPRIGHT);
+        this.reversed = texts.getOrDefault("narrative.reversed", REVERSED);
+        this.positionTemplate = texts.getOrDefault("narrative.position", POSITION);
+
+        int maxCode = 0;
+        for (SpreadDefinition spread : spreads.getAll()) {
+            maxCode = Math.max(maxCode, spread.getCode());
+        }
+        this.labelPrefixes = new String[maxCode + 1][];
+        for (SpreadDefinition spread : spreads.getAll()) {
+            String[] prefixes = new String[spread.size()];
+            for (int position = 0; position < prefixes.length; position++) {
+                prefixes[position] = labelPrefix(spread.getLabel(position));
+            }
+            labelPrefixes[spread.getCode()] = prefixes;
+        }
+
+        this.cardBodies = new String[deck.size() * 2];
+        this.cards = deck.toArray(new TarotCard[0]);
+        for (int i = 0; i < cards.length; i++) {
+            TarotCard card = cards[i];
+            cardBodies[i * 2] = cardBody(card, false);
+            cardBodies[i * 2 + 1] = cardBody(card, true);
+        }
+    }
+
+    /**
+     * 生成综合解读
+     * String.join会先累加所有片段长度，再一次性分配恰好大小的缓冲区，不产生中间副本
+     */
+    public String compose(SpreadDefinition spread, List<DrawnCard> drawnCards) {
+        if (drawnCards == null || drawnCards.isEmpty()) {
+            return emptyReading;
+        }
+
+        int size = drawnCards.size();
+        String[] pieces = new String[size * 2 + 2];
+        pieces[0] = header;
+        for (int i = 0; i < size; i++) {
+            DrawnCard drawn = drawnCards.get(i);
+            pieces[i * 2 + 1] = prefix(spread, drawn.position());
+            pieces[i * 2 + 2] = body(drawn);
+        }
+        pieces[pieces.length - 1] = footer;
+        return String.join("", pieces);
+    }
+
+    /**
+     * 单张牌的解读片段（位置标签加牌面正文），与综合解读中该牌的部分完全相同，用于逐张推送
+     */
+    public String fragment(SpreadDefinition spread, DrawnCard drawn) {
+        return prefix(spread, drawn.position()).concat(body(drawn));
+    }
+
+    private String prefix(SpreadDefinition spread, int position) {
+        String[] prefixes = labelPrefixes[spread.getCode()];
+        return prefixes != null && position < prefixes.length
+                ? prefixes[position]
+                : labelPrefix(positionTemplate.replace("{0}", Integer.toString(position + 1)));
+    }
+
+    /**
+     * 下标处的牌不是抽到的那张时（占卜在目录热加载之前生成），按抽到的牌现场拼接正文
+     */
+    private String body(DrawnCard drawn) {
+        int index = drawn.cardIndex();
+        if (index < cards.length && cards[index] == drawn.card()) {
+            return cardBodies[index * 2 + (drawn.reversed() ? 1 : 0)];
+        }
+        return cardBody(drawn.card(), drawn.reversed());
+    }
+
+    private static String labelPrefix(String label) {
+        return "🔮 **" + label + "**: ";
+    }
+
+    private String cardBody(TarotCard card, boolean reversed) {
+        return card.name() + (reversed ? this.reversed : upright) + "\n"
+                + card.meaning(reversed) + "\n"
+                + card.description() + "\n\n";
+    }
+}
@@ -0,0 +1,69 @@
+package tarot.service;
+
+import tarot.model.SpreadDefinition;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * 牌阵注册表
+ * 启动时构建一次，按标识或数字编号查找牌阵定义
+ */
+public class SpreadRegistry {
+
+    private final List<SpreadDefinition> spreads;
+    private final Map<String, SpreadDefinition> byId;
+    private final SpreadDefinition[] byCode;
+    private final SpreadDefinition defaultSpread;
+
+    public SpreadRegistry(List<SpreadDefinition> spreads, String defaultSpreadId) {
+        this.spreads = List.copyOf(spreads);
+
+        int maxCode = -1;
+        for (SpreadDefinition spread : this.spreads) {
+            if (spread.getCode() < 0) {
+                throw new IllegalArgumentException("牌阵编号不能为负数: " + spread.getId());
+            }
+            maxCode = Math.max(maxCode, spread.getCode());
+        }
+
+        Map<String, SpreadDefinition> ids = new HashMap<>();
+        this.byCode = new SpreadDefinition[maxCode + 1];
+        for (SpreadDefinition spread : this.spreads) {
+            if (ids.putIfAbsent(spread.getId(), spread) != null || byCode[spread.getCode()] != null) {
+                throw new IllegalArgumentException("牌阵标识或编号重复: " + spread.getId());
+            }
+            byCode[spread.getCode()] = spread;
+        }
+        this.byId = Map.copyOf(ids);
+
+        this.defaultSpread = byId.get(defaultSpreadId);
+        if (defaultSpread == null) {
+            throw new IllegalArgumentException("默认牌阵不存在: " + defaultSpreadId);
+        }
+    }
+
+    /**
+     * 按请求参数中的标识查找牌阵
+     */
+    public Optional<SpreadDefinition> find(String id) {
+        return id == null ? Optional.empty() : Optional.ofNullable(byId.get(id));
+    }
+
+    /**
+     * 按数字编号查找牌阵
+     */
+    public Optional<SpreadDefinition> findByCode(int code) {
+        return code >= 0 && code < byCode.length ? Optional.ofNullable(byCode[code]) : Optional.empty();
+    }
+
+    public SpreadDefinition getDefault() {
+        return defaultSpread;
+    }
+
+    public List<SpreadDefinition> getAll() {
+        return spreads;
+    }
+}
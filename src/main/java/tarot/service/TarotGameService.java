@@ -1,148 +1,425 @@
 package tarot.service;
 
+import tarot.model.DrawnCard;
 import tarot.model.TarotCard;
 import tarot.model.CardReading;
+import tarot.model.ReadingId;
+import tarot.model.SearchHit;
+import tarot.model.SpreadDefinition;
+import tarot.data.CardCatalog;
+import tarot.data.SpreadData;
 import tarot.data.TarotCardData;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.io.InputStream;
-import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.*;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.random.RandomGenerator;
 import java.util.stream.Collectors;
 
 /**
  * 塔罗牌游戏服务类
+ * 每种语言一份目录快照，各语言的牌和顺序相同，同一个占卜编号在任何语言下抽到的牌都一样，只是文字不同
  */
 public class TarotGameService {
 
-    private List<TarotCard> tarotDeck;
-    private Random random;
+    // 牌阵的结构（编号、位置数）和默认语言的文字，其他语言的牌阵文字来自各自的目录
+    private final SpreadRegistry spreadRegistry;
+    private final String[] locales;
+    // 各语言的卡牌目录快照和跨语言的检索索引，热加载时整体替换
+    private volatile Snapshot snapshot;
+    private final List<Runnable> catalogListeners = new CopyOnWriteArrayList<>();
     private static final Logger logger = LoggerFactory.getLogger(TarotGameService.class);
 
+    /**
+     * 一种语言的卡牌目录快照：牌组和由它派生的抽牌引擎、索引、牌阵文字、解读片段、版本号
+     * 每个操作开始时读取一次，进行中的占卜始终使用同一份快照，不会看到替换到一半的目录
+     */
+    private record Catalog(String locale, List<TarotCard> deck, List<TarotCard> majorArcana,
+                           CardDrawEngine drawEngine, CardIndex cardIndex, SpreadRegistry spreads,
+                           NarrativeCompiler narrativeCompiler, String version, int revision) {
+    }
+
+    /**
+     * 全部语言的快照（下标与locales一致）和覆盖全部语言的检索索引，一起构建、一起发布
+     */
+    private record Snapshot(Catalog[] catalogs, CardSearchIndex searchIndex) {
+    }
+
     public TarotGameService() {
-        this.random = new Random();
-        this.tarotDeck = new ArrayList<>();
-        loadTarotCards();
+        this(new SpreadRegistry(SpreadData.getSpreads(), SpreadData.DEFAULT_SPREAD_ID));
+    }
+
+    /**
+     * 使用自定义牌阵注册表创建服务，便于接入额外的牌阵
+     */
+    public TarotGameService(SpreadRegistry spreadRegistry) {
+        this(spreadRegistry, TarotCardData.LOCALES);
+    }
+
+    /**
+     * @param locales 支持的语言，第一个为默认语言；每种语言都需要随应用发布的目录
+     */
+    public TarotGameService(SpreadRegistry spreadRegistry, List<String> locales) {
+        if (locales.isEmpty()) {
+            throw new IllegalArgumentException("至少需要一种语言");
+        }
+        this.spreadRegistry = spreadRegistry;
+        this.locales = locales.toArray(new String[0]);
+        this.snapshot = loadCatalogs(locales.stream().map(TarotCardData::getCatalog).toList());
 
         // 记录服务初始化信息
         logger.info("TarotGameService 初始化完成");
-        logger.info("加载塔罗牌数量: {}", tarotDeck.size());
+        logger.info("加载塔罗牌数量: {}", snapshot.catalogs()[0].deck().size());
+        for (Catalog catalog : snapshot.catalogs()) {
+            logger.info("塔罗牌目录版本 [{}]: {}", catalog.locale(), catalog.version());
+        }
+        logger.info("可用牌阵数量: {}", spreadRegistry.getAll().size());
     }
 
     /**
-     * 从TarotCardData类加载塔罗牌数据
+     * 构建全部语言的快照，检查各语言的牌和顺序一致，再建立覆盖全部语言的检索索引
+     *
+     * @param sources 与locales一一对应的目录
      */
-    private void loadTarotCards() {
-        try {
-            logger.info("开始加载塔罗牌数据...");
-
-            // 从TarotCardData类加载大阿卡纳牌
-            List<TarotCard> majorArcana = TarotCardData.getMajorArcana();
-            tarotDeck.addAll(majorArcana);
-            logger.info("已加载大阿卡纳牌数量: {}", majorArcana.size());
-
-            // 从TarotCardData类加载小阿卡纳牌
-            Map<String, List<TarotCard>> minorArcana = TarotCardData.getMinorArcana();
-            int minorArcanaCount = 0;
-            
-            // 加载各花色的小阿卡纳牌
-            for (String suit : Arrays.asList("wands", "cups", "swords", "pentacles")) {
-                List<TarotCard> suitCards = minorArcana.get(suit);
-                if (suitCards != null) {
-                    tarotDeck.addAll(suitCards);
-                    minorArcanaCount += suitCards.size();
-                    logger.debug("已加载{}系列卡牌数量: {}", suit, suitCards.size());
-                }
+    private Snapshot loadCatalogs(List<CardCatalog> sources) {
+        Catalog[] loaded = new Catalog[locales.length];
+        for (int i = 0; i < locales.length; i++) {
+            loaded[i] = loadTarotCards(locales[i], sources.get(i));
+        }
+        for (int i = 1; i < loaded.length; i++) {
+            if (!sameCardIds(loaded[i].deck(), loaded[0].deck())) {
+                throw new IllegalArgumentException("语言 " + locales[i] + " 的目录与 " + locales[0]
+                        + " 的卡牌ID或顺序不一致");
             }
-            
-            logger.info("已加载小阿卡纳牌数量: {}", minorArcanaCount);
-            logger.info("塔罗牌加载完成，共 {} 张牌", tarotDeck.size());
+        }
+        CardSearchIndex searchIndex = new CardSearchIndex(Arrays.stream(loaded).map(Catalog::deck).toList());
+        logger.info("检索索引已建立，{} 个词", searchIndex.termCount());
+        return new Snapshot(loaded, searchIndex);
+    }
 
-        } catch (Exception e) {
-            logger.error("加载塔罗牌数据时发生错误: {}", e.getMessage(), e);
-            throw new RuntimeException("塔罗牌游戏初始化失败", e);
+    /**
+     * 两副牌的卡牌ID序列（牌数和顺序）是否完全相同
+     */
+    private static boolean sameCardIds(List<TarotCard> deck, List<TarotCard> reference) {
+        if (deck.size() != reference.size()) {
+            return false;
+        }
+        for (int i = 0; i < deck.size(); i++) {
+            if (!deck.get(i).id().equals(reference.get(i).id())) {
+                return false;
+            }
         }
+        return true;
     }
 
-    // 由于从TarotCardData类直接获取已创建的TarotCard对象，不再需要这些方法
-    // 移除loadMinorArcanaSuit和createTarotCardFromJson方法
+    /**
+     * 从一种语言的卡牌目录构建快照
+     * 抽牌引擎和解读编译器会访问每一张牌，目录中的全部卡牌在这里解码，之后的请求不再访问目录文件
+     *
+     * @throws IllegalArgumentException 目录不能用于当前牌阵（ID重复、牌数少于最大的牌阵、位置文字数量不符等）
+     */
+    private Catalog loadTarotCards(String locale, CardCatalog source) {
+        logger.info("开始加载塔罗牌数据 [{}]，目录: {}，修订号: {}", locale, source.source(), source.revision());
+
+        for (SpreadDefinition spread : spreadRegistry.getAll()) {
+            if (spread.size() > source.size()) {
+                throw new IllegalArgumentException("目录只有 " + source.size() + " 张牌，不足以进行牌阵 "
+                        + spread.getId() + "（" + spread.size() + " 张）");
+            }
+        }
+        Map<String, String> texts = source.texts();
+        SpreadRegistry spreads = localizeSpreads(texts);
+        CardDrawEngine drawEngine = new CardDrawEngine(source.cards());
+        List<TarotCard> deck = drawEngine.getDeck();
+        List<TarotCard> majorArcana = deck.stream()
+                .filter(card -> card.cardType() == TarotCard.CardType.MAJOR_ARCANA)
+                .toList();
+        Catalog loaded = new Catalog(locale, deck, majorArcana, drawEngine, new CardIndex(deck), spreads,
+                new NarrativeCompiler(deck, spreads, texts), computeCatalogVersion(deck, texts),
+                source.revision());
+
+        logger.info("已加载大阿卡纳牌数量: {}", majorArcana.size());
+        logger.info("已加载小阿卡纳牌数量: {}", deck.size() - majorArcana.size());
+        return loaded;
+    }
 
     /**
-     * 洗牌
+     * 用目录中的 spreads.{牌阵标识}.name / labels.N / hints.N 替换牌阵文字，缺少的沿用默认语言
      */
-    public void shuffleDeck() {
-        Collections.shuffle(tarotDeck, random);
-        for (TarotCard card : tarotDeck) {
-            card.randomizeOrientation();
+    private SpreadRegistry localizeSpreads(Map<String, String> texts) {
+        List<SpreadDefinition> localized = new ArrayList<>();
+        for (SpreadDefinition spread : spreadRegistry.getAll()) {
+            String prefix = "spreads." + spread.getId() + ".";
+            String[] labels = new String[spread.size()];
+            String[] hints = new String[spread.size()];
+            for (int position = 0; position < labels.length; position++) {
+                labels[position] = texts.getOrDefault(prefix + "labels." + position, spread.getLabel(position));
+                hints[position] = texts.getOrDefault(prefix + "hints." + position, spread.getHint(position));
+            }
+            if (texts.containsKey(prefix + "labels." + labels.length)) {
+                throw new IllegalArgumentException("牌阵 " + spread.getId() + " 只有 " + labels.length + " 个位置");
+            }
+            localized.add(new SpreadDefinition(spread.getCode(), spread.getId(),
+                    texts.getOrDefault(prefix + "name", spread.getName()), labels, hints));
         }
+        return new SpreadRegistry(localized, spreadRegistry.getDefault().getId());
     }
 
     /**
-     * 抽取指定数量的牌
+     * 替换全部语言的卡牌目录，不需要重启，也不阻塞进行中的请求
+     * 新快照在调用线程上完整构建后才一次性发布；内容与当前目录相同时不替换。
+     * 替换后依次通知目录监听器（例如重新渲染预序列化的目录响应）
+     * <p>
+     * 只允许修改文字：占卜编号只记录牌阵和种子，抽牌结果取决于牌数和顺序，占卜日志记录的也是牌在目录中的下标，
+     * 牌数或顺序变化（包括在末尾追加）会让已经发出的永久链接和日志中的记录指向别的牌，这样的目录一律拒绝，需要重新部署
+     *
+     * @param sources 与 getLocales() 一一对应的目录
+     * @return 目录是否被替换
+     * @throws IllegalArgumentException 新目录无效或卡牌ID序列与当前目录不同，当前目录保持不变
      */
-    public List<TarotCard> drawCards(int numberOfCards) {
-        if (numberOfCards <= 0 || numberOfCards > tarotDeck.size()) {
-            throw new IllegalArgumentException("抽牌数量必须在1到" + tarotDeck.size() + "之间");
+    public boolean reload(List<CardCatalog> sources) {
+        if (sources.size() != locales.length) {
+            throw new IllegalArgumentException("需要 " + locales.length + " 种语言的目录，实际为 " + sources.size());
+        }
+        Snapshot next = loadCatalogs(sources);
+        Catalog[] loaded = next.catalogs();
+        Catalog[] previous = snapshot.catalogs();
+        if (!sameCardIds(loaded[0].deck(), previous[0].deck())) {
+            throw new IllegalArgumentException("新目录的卡牌ID或顺序与当前目录不同（" + loaded[0].deck().size() + " 张 / 当前 "
+                    + previous[0].deck().size() + " 张），热加载只能修改文字，增删或调整卡牌需要重新部署");
+        }
+        boolean changed = false;
+        for (int i = 0; i < loaded.length; i++) {
+            changed |= !loaded[i].version().equals(previous[i].version());
         }
+        if (!changed) {
+            logger.info("卡牌目录内容未变化，不替换");
+            return false;
+        }
+        snapshot = next;
+        for (int i = 0; i < loaded.length; i++) {
+            if (loaded[i].version().equals(previous[i].version())) {
+                continue;
+            }
+            logger.info("卡牌目录已替换 [{}]: 版本 {} -> {}，修订号 {} -> {}，{} 张牌", locales[i],
+                    previous[i].version(), loaded[i].version(), previous[i].revision(), loaded[i].revision(),
+                    loaded[i].deck().size());
+        }
+        for (Runnable listener : catalogListeners) {
+            try {
+                listener.run();
+            } catch (RuntimeException e) {
+                logger.error("卡牌目录监听器执行失败: {}", e.getMessage(), e);
+            }
+        }
+        return true;
+    }
 
-        shuffleDeck();
+    /**
+     * 注册目录替换后的回调，在执行替换的线程上调用
+     */
+    public void addCatalogListener(Runnable listener) {
+        catalogListeners.add(listener);
+    }
 
-        // 使用Stream API简化代码
-        return tarotDeck.stream()
-                .limit(numberOfCards)
-                .map(this::copyTarotCard)
-                .toList();
+    /**
+     * 支持的语言，第一个为默认语言
+     */
+    public List<String> getLocales() {
+        return List.of(locales);
+    }
+
+    /**
+     * 按语言取当前快照，语言为null或不支持时使用默认语言
+     */
+    private Catalog catalog(String locale) {
+        return catalog(snapshot, locale);
+    }
+
+    private Catalog catalog(Snapshot from, String locale) {
+        Catalog[] current = from.catalogs();
+        if (locale != null) {
+            for (int i = 0; i < locales.length; i++) {
+                if (locales[i].equals(locale)) {
+                    return current[i];
+                }
+            }
+        }
+        return current[0];
+    }
+
+    /**
+     * 根据全部卡牌内容和界面文本计算目录版本（SHA-256前16字节的十六进制）
+     * 内容不变时版本不变，可直接用作HTTP强ETag；没有界面文本的目录与只有卡牌时的版本相同
+     */
+    private static String computeCatalogVersion(List<TarotCard> deck, Map<String, String> texts) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            for (TarotCard card : deck) {
+                for (Object field : new Object[] { card.id(), card.name(), card.englishName(),
+                        card.uprightMeaning(), card.reversedMeaning(), card.description(),
+                        card.cardType(), card.suit() }) {
+                    digest.update(String.valueOf(field).getBytes(StandardCharsets.UTF_8));
+                    digest.update((byte) 0);
+                }
+            }
+            for (Map.Entry<String, String> text : new TreeMap<>(texts).entrySet()) {
+                digest.update(text.getKey().getBytes(StandardCharsets.UTF_8));
+                digest.update((byte) 0);
+                digest.update(text.getValue().getBytes(StandardCharsets.UTF_8));
+                digest.update((byte) 0);
+            }
+            return HexFormat.of().formatHex(digest.digest(), 0, 16);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256不可用", e);
+        }
     }
 
     /**
-     * 复制塔罗牌对象
+     * 抽取指定数量的牌
+     * 每次请求独立采样，不修改共享牌组
      */
-    private TarotCard copyTarotCard(TarotCard original) {
-        TarotCard copy = new TarotCard();
-        copy.setId(original.getId());
-        copy.setName(original.getName());
-        copy.setEnglishName(original.getEnglishName());
-        copy.setUprightMeaning(original.getUprightMeaning());
-        copy.setReversedMeaning(original.getReversedMeaning());
-        copy.setDescription(original.getDescription());
-        copy.setCardType(original.getCardType());
-        copy.setSuit(original.getSuit());
-        copy.setReversed(original.isReversed());
-        return copy;
+    public List<DrawnCard> drawCards(int numberOfCards) {
+        return catalog(null).drawEngine().draw(numberOfCards, ThreadLocalRandom.current());
     }
 
     /**
-     * 进行三张牌占卜
+     * 使用默认牌阵进行占卜
      * 
      * @return 包含解读结果的CardReading对象
      */
     public CardReading performReading() {
-        logger.info("开始执行三张牌占卜");
+        return performReading(spreadRegistry.getDefault());
+    }
+
+    /**
+     * 使用指定牌阵进行占卜，随机生成种子
+     *
+     * @param spread 牌阵定义，决定抽牌数量和位置标签
+     * @return 包含解读结果的CardReading对象
+     */
+    public CardReading performReading(SpreadDefinition spread) {
+        return performReading(spread, ThreadLocalRandom.current().nextLong(), null);
+    }
+
+    /**
+     * 使用指定牌阵和语言进行占卜，随机生成种子
+     *
+     * @param locale 语言，为null或不支持时使用默认语言
+     */
+    public CardReading performReading(SpreadDefinition spread, String locale) {
+        return performReading(spread, ThreadLocalRandom.current().nextLong(), locale);
+    }
 
-        List<TarotCard> drawnCards = drawCards(3);
-        CardReading reading = new CardReading(drawnCards, "过去-现在-未来");
-        reading.generateOverallReading();
+    /**
+     * 使用指定牌阵和随机种子进行占卜
+     * 相同的牌阵和种子在任何节点上都会得到完全相同的抽牌结果
+     *
+     * @param spread 牌阵定义，决定抽牌数量和位置标签
+     * @param seed   64位随机种子
+     * @return 包含解读结果的CardReading对象
+     */
+    public CardReading performReading(SpreadDefinition spread, long seed) {
+        return performReading(spread, seed, null);
+    }
 
-        logger.info("占卜完成，已生成解读，抽取卡牌数量: {}", drawnCards.size());
+    /**
+     * 使用指定牌阵、随机种子和语言进行占卜
+     * 各语言的牌和顺序相同，语言只影响文字，不影响抽到哪些牌
+     *
+     * @param locale 语言，为null或不支持时使用默认语言
+     */
+    public CardReading performReading(SpreadDefinition spread, long seed, String locale) {
+        logger.debug("开始执行占卜，牌阵: {}", spread.getId());
+
+        Catalog current = catalog(locale);
+        SpreadDefinition localized = current.spreads().findByCode(spread.getCode()).orElse(spread);
+        RandomGenerator random = new SplittableRandom(seed);
+        List<DrawnCard> drawnCards = current.drawEngine().draw(localized.size(), random);
+        CardReading reading = new CardReading(drawnCards, localized, seed);
+        reading.setLocale(current.locale());
+        reading.setOverallReading(current.narrativeCompiler().compose(localized, drawnCards));
+
+        logger.debug("占卜完成，已生成解读，抽取卡牌数量: {}", drawnCards.size());
         return reading;
     }
 
+    /**
+     * 占卜中单张牌的解读片段，依次拼接即为综合解读的正文部分
+     * 占卜生成后目录被替换时，片段仍按占卜中的牌生成
+     */
+    public String narrativeFragment(CardReading reading, DrawnCard drawn) {
+        return catalog(reading.getLocale()).narrativeCompiler().fragment(reading.getSpread(), drawn);
+    }
+
+    /**
+     * 根据占卜编号重新生成占卜
+     *
+     * @return 重新生成的占卜，编号中的牌阵不存在时为空
+     */
+    public Optional<CardReading> regenerateReading(ReadingId readingId) {
+        return regenerateReading(readingId, null);
+    }
+
+    /**
+     * 根据占卜编号以指定语言重新生成占卜
+     * 编号中没有占卜时间，重新生成的结果不带时间，同一编号在目录不变时每次得到完全相同的结果
+     */
+    public Optional<CardReading> regenerateReading(ReadingId readingId, String locale) {
+        return spreadRegistry.findByCode(readingId.spreadCode())
+                .map(spread -> {
+                    CardReading reading = performReading(spread, readingId.seed(), locale);
+                    reading.setReadingTime(null);
+                    return reading;
+                });
+    }
+
+    /**
+     * 按标识查找牌阵，未指定时使用默认牌阵
+     *
+     * @throws IllegalArgumentException 牌阵标识不存在
+     */
+    public SpreadDefinition resolveSpread(String spreadId) {
+        if (spreadId == null || spreadId.isEmpty()) {
+            return spreadRegistry.getDefault();
+        }
+        return spreadRegistry.find(spreadId)
+                .orElseThrow(() -> new IllegalArgumentException("未知的牌阵: " + spreadId));
+    }
+
+    public SpreadRegistry getSpreadRegistry() {
+        return spreadRegistry;
+    }
+
     /**
      * 获取所有牌的Map格式数据
      */
     public Map<String, Object> getAllCardsAsMap() {
+        return getAllCardsAsMap(null);
+    }
+
+    /**
+     * 获取指定语言所有牌的Map格式数据，用于预渲染
+     */
+    public Map<String, Object> getAllCardsAsMap(String locale) {
+        List<TarotCard> tarotDeck = catalog(locale).deck();
         // 使用更简洁的Stream API进行分组
         List<Map<String, Object>> majorArcana = tarotDeck.stream()
-                .filter(card -> card.getCardType() == TarotCard.CardType.MAJOR_ARCANA)
+                .filter(card -> card.cardType() == TarotCard.CardType.MAJOR_ARCANA)
                 .map(this::convertCardToMap)
                 .toList();
 
         // 转换小阿卡纳为花色分组的Map列表
         Map<String, List<Map<String, Object>>> minorArcana = tarotDeck.stream()
-                .filter(card -> card.getCardType() == TarotCard.CardType.MINOR_ARCANA && card.getSuit() != null)
+                .filter(card -> card.cardType() == TarotCard.CardType.MINOR_ARCANA && card.suit() != null)
                 .collect(Collectors.groupingBy(
-                        TarotCard::getSuit,
+                        TarotCard::suit,
+                        LinkedHashMap::new,
                         Collectors.mapping(this::convertCardToMap, Collectors.toList())));
 
         // 确保所有花色都有对应的列表
@@ -157,42 +434,87 @@ public class TarotGameService {
 
     /**
      * 将TarotCard对象转换为Map格式
+     * 使用有序Map，保证序列化结果的字节顺序稳定
      */
     private Map<String, Object> convertCardToMap(TarotCard card) {
-        return Map.of(
-                "id", card.getId(),
-                "name", card.getName(),
-                "english_name", card.getEnglishName(),
-                "upright_meaning", card.getUprightMeaning(),
-                "reversed_meaning", card.getReversedMeaning(),
-                "description", card.getDescription());
+        Map<String, Object> map = new LinkedHashMap<>();
+        map.put("id", card.id());
+        map.put("name", card.name());
+        map.put("english_name", card.englishName());
+        map.put("upright_meaning", card.uprightMeaning());
+        map.put("reversed_meaning", card.reversedMeaning());
+        map.put("description", card.description());
+        return map;
+    }
+
+    /**
+     * 获取目录版本，卡牌内容变化时版本随之变化
+     */
+    public String getCatalogVersion() {
+        return getCatalogVersion(null);
+    }
+
+    /**
+     * 获取指定语言的目录版本
+     */
+    public String getCatalogVersion(String locale) {
+        return catalog(locale).version();
+    }
+
+    /**
+     * 获取当前默认语言目录的修订号
+     */
+    public int getCatalogRevision() {
+        return catalog(null).revision();
     }
 
     /**
      * 获取牌组总数
      */
     public int getDeckSize() {
-        return tarotDeck.size();
+        return catalog(null).deck().size();
     }
 
     /**
      * 获取所有大阿卡纳牌
+     * 返回共享的不可变列表，无需复制
      */
     public List<TarotCard> getMajorArcanaCards() {
-        return tarotDeck.stream()
-                .filter(card -> card.getCardType() == TarotCard.CardType.MAJOR_ARCANA)
-                .map(this::copyTarotCard)
-                .toList();
+        return getMajorArcanaCards(null);
+    }
+
+    /**
+     * 获取指定语言的所有大阿卡纳牌
+     */
+    public List<TarotCard> getMajorArcanaCards(String locale) {
+        return catalog(locale).majorArcana();
     }
 
     /**
      * 获取指定ID的塔罗牌
+     *
+     * @return 共享的不可变卡牌，未找到时为空
+     */
+    public Optional<TarotCard> findCardById(String id) {
+        return findCardById(id, null);
+    }
+
+    /**
+     * 获取指定语言、指定ID的塔罗牌
+     */
+    public Optional<TarotCard> findCardById(String id, String locale) {
+        return catalog(locale).cardIndex().find(id);
+    }
+
+    /**
+     * 全文检索卡牌的名称、含义和描述，查询可以使用任何一种语言，结果以指定语言返回
+     *
+     * @param limit  最多返回的张数
+     * @param locale 结果的语言，为null或不支持时使用默认语言
+     * @return 按相关度从高到低排列的结果，没有命中时为空列表
      */
-    public TarotCard getCardById(String id) {
-        return tarotDeck.stream()
-                .filter(card -> card.getId().equals(id))
-                .map(this::copyTarotCard)
-                .findFirst()
-                .orElseThrow(() -> new RuntimeException("未找到指定ID的卡牌"));
+    public List<SearchHit> search(String query, int limit, String locale) {
+        Snapshot current = snapshot;
+        return current.searchIndex().search(query, limit, catalog(current, locale).deck());
     }
 }
\ No newline at end of file
@@ -8,6 +8,7 @@
     let draggedCard = null; // 当前被拖拽的卡牌
     let isLoading = false; // 加载状态标志
     let currentFetchController = null; // 用于取消fetch请求的控制器
+    let cardAtlas = null; // 构建时生成的卡牌图集坐标表，未加载时显示文字牌面
 
     // 日志级别控制 - 便于生产环境调试
     const LOG_LEVEL = { NONE: 0, ERROR: 1, WARN: 2, INFO: 3, DEBUG: 4 };
@@ -57,6 +58,8 @@
     // 初始化阶段
     document.addEventListener('DOMContentLoaded', function () {
         showLoading(true);
+        // 图集与卡牌数据并行加载，牌面只在放置卡牌后才需要
+        loadCardAtlas();
         loadTarotCards().then(() => {
             startGame();
             showLoading(false);
@@ -211,8 +214,8 @@
                 return;
             }
 
-            // 使用后端API获取塔罗牌数据
-            const response = await fetchWithCancel('./api/cards');
+            // 使用后端API获取塔罗牌数据，按页面语言请求，不随浏览器的Accept-Language变化
+            const response = await fetchWithCancel('./api/cards?lang=' + encodeURIComponent(document.documentElement.lang));
 
             if (response.ok) {
                 const data = await response.json();
@@ -251,6 +254,65 @@
         }
     }
 
+    // 加载卡牌图集坐标表，失败时保持文字牌面
+    async function loadCardAtlas() {
+        const meta = document.querySelector('meta[name="card-atlas"]');
+        if (!meta || !meta.content) {
+            return;
+        }
+        try {
+            const response = await fetch(meta.content);
+            if (response.ok) {
+                cardAtlas = await response.json();
+            }
+        } catch (error) {
+            log(LOG_LEVEL.WARN, `卡牌图集加载失败: ${error.message || error}`);
+        }
+    }
+
+    // 用图集中的对应区域作为牌面背景，按元素显示宽度和屏幕像素比选择分辨率
+    // 所有分辨率共用同一网格，按百分比定位，与元素实际尺寸无关
+    function applyCardArt(element, cardId) {
+        const entry = cardAtlas && cardAtlas.cards[cardId];
+        if (!entry) {
+            return false;
+        }
+
+        const targetWidth = element.offsetWidth * (window.devicePixelRatio || 1);
+        const resolutions = cardAtlas.resolutions;
+        const resolution = resolutions.find(r => r.width >= targetWidth) || resolutions[resolutions.length - 1];
+        const columns = cardAtlas.columns;
+        const rows = cardAtlas.rows[entry.sheet];
+        const x = columns > 1 ? entry.col / (columns - 1) * 100 : 0;
+        const y = rows > 1 ? entry.row / (rows - 1) * 100 : 0;
+
+        Object.assign(element.style, {
+            backgroundImage: `url("${resolution.sheets[entry.sheet]}")`,
+            backgroundSize: `${columns * 100}% ${rows * 100}%`,
+            backgroundPosition: `${x}% ${y}%`,
+            backgroundRepeat: 'no-repeat'
+        });
+        element.classList.add('has-art');
+        return true;
+    }
+
+    // 结果页使用单张缩略图，由浏览器按像素比选择
+    function createCardThumbnail(cardId, name) {
+        const entry = cardAtlas && cardAtlas.cards[cardId];
+        if (!entry) {
+            return null;
+        }
+
+        const widths = Object.keys(entry.thumbnails).map(Number).sort((a, b) => a - b);
+        const image = document.createElement('img');
+        image.className = 'selected-card-art';
+        image.alt = name;
+        image.decoding = 'async';
+        image.src = entry.thumbnails[widths[0]];
+        image.srcset = widths.map(w => `${entry.thumbnails[w]} ${w / widths[0]}x`).join(', ');
+        return image;
+    }
+
     // 洗牌函数
     function shuffleCards(cards) {
         const shuffled = [...cards];
@@ -522,6 +584,7 @@
         dropZone.innerHTML = '';
         dropZone.appendChild(droppedCard);
         dropZone.classList.add('filled');
+        applyCardArt(droppedCard.firstElementChild, cardId);
 
         updateSelectedCount();
 
@@ -668,15 +731,11 @@
             const cardObj = droppedCards[positionIndex];
             
             if (cardObj) {
-                // 确保类型匹配，将cardId转换为数字类型与allCards中的id比较
-                let cardId = parseInt(cardObj.cardId);
-                // 如果解析失败，保持原始字符串类型
-                if (isNaN(cardId)) {
-                    cardId = cardObj.cardId;
-                }
+                // dataset中的cardId总是字符串，统一按字符串比较（接口返回的id也是字符串）
+                const cardId = String(cardObj.cardId);
 
                 // 查找匹配的卡牌
-                const card = allCards.find(c => c.id === cardId);
+                const card = allCards.find(c => String(c.id) === cardId);
 
                 if (card) {
                     drawnCards.push({
@@ -773,6 +832,11 @@
                 <div class="card-orientation">${card.isReversed ? '逆位' : '正位'}</div>
             `;
 
+            const thumbnail = createCardThumbnail(card.id, card.name);
+            if (thumbnail) {
+                cardImage.prepend(thumbnail);
+            }
+
             cardContainer.appendChild(cardImage);
             selectedCards.appendChild(cardContainer);
 